@@ -0,0 +1,58 @@
+package io.burt.jmespath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.parser.ParserType;
+
+/**
+ * Measures how many expressions per second each runtime and parser can
+ * compile. The expression cache is disabled so that every call parses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark {
+  @Param
+  public RuntimeType runtimeType;
+
+  @Param
+  public ParserType parserType;
+
+  @Param
+  public Scenario scenario;
+
+  private Adapter<Object> runtime;
+  private String expression;
+
+  @Setup
+  public void setUp() {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder()
+      .withParserType(parserType)
+      .build();
+    runtime = runtimeType.create(configuration);
+    expression = scenario.expression();
+  }
+
+  @Benchmark
+  public Expression<Object> compile() {
+    return runtime.compile(expression);
+  }
+}
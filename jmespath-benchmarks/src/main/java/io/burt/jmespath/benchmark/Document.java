@@ -0,0 +1,107 @@
+package io.burt.jmespath.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * The documents that the benchmarks search in.
+ * <p>
+ * The small documents are the examples used by the runtime tests, the large
+ * ones are generated from a fixed seed so that they are the same in every run.
+ */
+public enum Document {
+  CLOUDTRAIL {
+    @Override
+    public String json() {
+      return loadResource("/cloudtrail.json");
+    }
+  },
+  CONTACT {
+    @Override
+    public String json() {
+      return loadResource("/contact.json");
+    }
+  },
+  ORDERS_1K {
+    @Override
+    public String json() {
+      return generateOrders(1000);
+    }
+  },
+  ORDERS_100K {
+    @Override
+    public String json() {
+      return generateOrders(100000);
+    }
+  };
+
+  private static final String[] TIERS = {"bronze", "silver", "gold", "platinum"};
+  private static final String[] TAGS = {"priority", "gift", "fragile", "bulk", "return"};
+  private static final String[] COUNTRIES = {"SE", "NO", "DK", "FI", "DE", "US"};
+
+  /** Returns the document as a JSON string. */
+  public abstract String json();
+
+  private static String loadResource(String path) {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(Document.class.getResourceAsStream(path), Charset.forName("UTF-8")))) {
+      StringBuilder buffer = new StringBuilder();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        buffer.append(line);
+      }
+      return buffer.toString();
+    } catch (IOException ioe) {
+      throw new RuntimeException(String.format("Failed loading %s", path), ioe);
+    }
+  }
+
+  private static String generateOrders(int count) {
+    Random random = new Random(count);
+    StringBuilder buffer = new StringBuilder(count * 300);
+    buffer.append("{\"orders\":[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        buffer.append(',');
+      }
+      buffer.append("{\"id\":\"order-").append(i).append('"');
+      buffer.append(",\"customer\":{");
+      buffer.append("\"name\":\"Customer ").append(random.nextInt(count)).append('"');
+      buffer.append(",\"tier\":\"").append(TIERS[random.nextInt(TIERS.length)]).append('"');
+      buffer.append(",\"country\":\"").append(COUNTRIES[random.nextInt(COUNTRIES.length)]).append('"');
+      buffer.append('}');
+      buffer.append(",\"tags\":[");
+      int tagCount = random.nextInt(3);
+      for (int j = 0; j < tagCount; j++) {
+        if (j > 0) {
+          buffer.append(',');
+        }
+        buffer.append('"').append(TAGS[random.nextInt(TAGS.length)]).append('"');
+      }
+      buffer.append(']');
+      buffer.append(",\"items\":[");
+      int itemCount = 1 + random.nextInt(4);
+      double total = 0;
+      for (int j = 0; j < itemCount; j++) {
+        if (j > 0) {
+          buffer.append(',');
+        }
+        int quantity = 1 + random.nextInt(5);
+        double price = random.nextInt(50000) / 100.0;
+        total += quantity * price;
+        buffer.append("{\"sku\":\"sku-").append(random.nextInt(10000)).append('"');
+        buffer.append(",\"quantity\":").append(quantity);
+        buffer.append(",\"price\":").append(price);
+        buffer.append('}');
+      }
+      buffer.append(']');
+      buffer.append(",\"total\":").append(Math.round(total * 100) / 100.0);
+      buffer.append(",\"shipped\":").append(random.nextBoolean());
+      buffer.append('}');
+    }
+    buffer.append("]}");
+    return buffer.toString();
+  }
+}
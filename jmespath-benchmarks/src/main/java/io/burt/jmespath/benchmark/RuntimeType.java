@@ -0,0 +1,67 @@
+package io.burt.jmespath.benchmark;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.gson.GsonRuntime;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.jacksonjr.JacksonJrRuntime;
+import io.burt.jmespath.jakarta.jsonp.JsonpRuntime;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.vertx.VertxRuntime;
+
+/**
+ * The runtimes that the benchmarks can be run against.
+ * <p>
+ * The runtimes are returned as <code>Adapter&lt;Object&gt;</code> so that the
+ * benchmarks can be written once and parameterized by runtime, the values
+ * they produce are only ever passed back to the runtime that created them.
+ */
+public enum RuntimeType {
+  JCF {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new JcfRuntime(configuration);
+    }
+  },
+  JACKSON {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new JacksonRuntime(configuration);
+    }
+  },
+  JACKSON_JR {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new JacksonJrRuntime(configuration);
+    }
+  },
+  GSON {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new GsonRuntime(configuration);
+    }
+  },
+  JSONP {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new JsonpRuntime(configuration);
+    }
+  },
+  VERTX {
+    @Override
+    protected Adapter<?> newRuntime(RuntimeConfiguration configuration) {
+      return new VertxRuntime(configuration);
+    }
+  };
+
+  protected abstract Adapter<?> newRuntime(RuntimeConfiguration configuration);
+
+  @SuppressWarnings("unchecked")
+  public Adapter<Object> create(RuntimeConfiguration configuration) {
+    return (Adapter<Object>) newRuntime(configuration);
+  }
+
+  public Adapter<Object> create() {
+    return create(RuntimeConfiguration.defaultConfiguration());
+  }
+}
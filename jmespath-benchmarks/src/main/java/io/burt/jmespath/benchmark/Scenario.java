@@ -0,0 +1,36 @@
+package io.burt.jmespath.benchmark;
+
+/**
+ * A combination of a document and an expression that is representative of
+ * some kind of search.
+ */
+public enum Scenario {
+  CONTACT_PROPERTY(Document.CONTACT, "address.city"),
+  CONTACT_MULTI_SELECT(Document.CONTACT, "{name: join(' ', [firstName, lastName]), phones: phoneNumbers[?type != 'home'].number, city: address.city}"),
+  CLOUDTRAIL_PROJECTION(Document.CLOUDTRAIL, "Records[*].userIdentity.userName"),
+  CLOUDTRAIL_SELECTION(Document.CLOUDTRAIL, "Records[?userIdentity.userName == 'Alice'].responseElements.instancesSet.items[].instanceId"),
+  CLOUDTRAIL_SORT(Document.CLOUDTRAIL, "sort_by(Records, &eventTime)[*].{name: eventName, time: eventTime}"),
+  ORDERS_1K_SELECTION(Document.ORDERS_1K, "orders[?total > `500` && shipped].id"),
+  ORDERS_1K_FLATTEN_SUM(Document.ORDERS_1K, "sum(orders[*].items[].price)"),
+  ORDERS_1K_TOP_TEN(Document.ORDERS_1K, "sort_by(orders, &total)[-10:].id"),
+  ORDERS_1K_FIRST_MATCH(Document.ORDERS_1K, "orders[?customer.tier == 'platinum'] | [0].id"),
+  ORDERS_1K_CONTAINS(Document.ORDERS_1K, "length(orders[?contains(tags, 'priority')])"),
+  ORDERS_100K_SELECTION(Document.ORDERS_100K, "orders[?total > `500` && shipped].id"),
+  ORDERS_100K_MAX_BY(Document.ORDERS_100K, "max_by(orders, &total).customer.name");
+
+  private final Document document;
+  private final String expression;
+
+  private Scenario(Document document, String expression) {
+    this.document = document;
+    this.expression = expression;
+  }
+
+  public Document document() {
+    return document;
+  }
+
+  public String expression() {
+    return expression;
+  }
+}
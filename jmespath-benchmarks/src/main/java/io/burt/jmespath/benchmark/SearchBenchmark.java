@@ -0,0 +1,78 @@
+package io.burt.jmespath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+
+/**
+ * Measures searching with a precompiled expression in a document that has
+ * already been parsed by the runtime, i.e. only the evaluation.
+ * <p>
+ * {@link #search} reports throughput and {@link #searchLatency} samples the
+ * latency distribution. Run with <code>-prof gc</code> to also see the
+ * allocation rate, and with <code>-p parallelThreshold=0,10000</code> to
+ * compare sequential and parallel projections and filters.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+  @Param
+  public RuntimeType runtimeType;
+
+  @Param
+  public Scenario scenario;
+
+  @Param({"false", "true"})
+  public boolean expressionOptimization;
+
+  @Param({"false", "true"})
+  public boolean bytecodeCompilation;
+
+  @Param({"0"})
+  public int parallelThreshold;
+
+  private Expression<Object> expression;
+  private Object input;
+
+  @Setup
+  public void setUp() {
+    RuntimeConfiguration configuration = RuntimeConfiguration.builder()
+      .withExpressionOptimization(expressionOptimization)
+      .withBytecodeCompilation(bytecodeCompilation)
+      .withParallelThreshold(parallelThreshold)
+      .build();
+    Adapter<Object> runtime = runtimeType.create(configuration);
+    input = runtime.parseString(scenario.document().json());
+    expression = runtime.compile(scenario.expression());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Object search() {
+    return expression.search(input);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Object searchLatency() {
+    return expression.search(input);
+  }
+}
@@ -1,5 +1,6 @@
 package io.burt.jmespath;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Comparator;
 import java.util.Map;
@@ -23,12 +24,27 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   T parseString(String str);
 
+  /**
+   * Parse UTF-8 encoded JSON to a value.
+   *
+   * The default implementation decodes the bytes to a string and calls
+   * {@link #parseString}. Runtimes whose parser reads bytes directly should
+   * override it to avoid the intermediate string.
+   */
+  default T parseBytes(byte[] bytes, int offset, int length) {
+    return parseString(new String(bytes, offset, length, StandardCharsets.UTF_8));
+  }
+
   /**
    * Converts the argument to a {@link List}.
    *
    * When the argument represents an array the list will contain the elements of
    * the array, when the argument represents an object the result is a list of
    * the object's values and for all other types the result is an empty list.
+   * <p>
+   * The list may be a view of the value instead of a copy, to avoid copying
+   * arrays and objects every time they are searched. Callers must not modify
+   * it, and must copy it if they need a list they can modify.
    */
   List<T> toList(T value);
 
@@ -45,6 +61,64 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   Number toNumber(T value);
 
+  /**
+   * Returns the value of a number as a <code>double</code>. The argument must
+   * represent a number.
+   *
+   * The default implementation calls {@link #toNumber}. Runtimes whose numbers
+   * can give their value without creating a {@link Number} should override it,
+   * since it is used when numbers are compared.
+   */
+  default double doubleValue(T value) {
+    return toNumber(value).doubleValue();
+  }
+
+  /**
+   * Returns the value of a number as a <code>long</code>, without its
+   * fractional part. The argument must represent a number.
+   *
+   * The default implementation calls {@link #toNumber}.
+   */
+  default long longValue(T value) {
+    return toNumber(value).longValue();
+  }
+
+  /**
+   * Returns true when the argument represents an integer that fits in a
+   * <code>long</code>, so that {@link #longValue} returns its exact value.
+   * The argument must represent a number.
+   *
+   * Numbers that are stored as floating point numbers, like <code>1.0</code>,
+   * may or may not be considered integers. The default implementation calls
+   * {@link #toNumber} and checks if the result is a {@link Long} or any of the
+   * smaller integer types.
+   */
+  default boolean isIntegral(T value) {
+    Number number = toNumber(value);
+    return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+  }
+
+  /**
+   * Returns true when the argument represents a string that is equal to the
+   * specified string, and false for all other values, including values that
+   * are not strings.
+   *
+   * The default implementation calls {@link #typeOf} and {@link #toString}.
+   */
+  default boolean stringEquals(T value, String str) {
+    return typeOf(value) == JmesPathType.STRING && toString(value).equals(str);
+  }
+
+  /**
+   * Returns the length of a string, counted like {@link String#length}. The
+   * argument must represent a string.
+   *
+   * The default implementation calls {@link #toString}.
+   */
+  default int stringLength(T value) {
+    return toString(value).length();
+  }
+
   /**
    * Returns true when the argument is truthy.
    *
@@ -85,11 +159,33 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   T getProperty(T value, T name);
 
+  /**
+   * Returns the value of a property of an object, like
+   * {@link #getProperty(Object, Object)} but with a name that has been
+   * prepared by {@link #createPropertyKey}.
+   *
+   * The default implementation calls {@link #getProperty(Object, Object)} with
+   * the string value held by the key.
+   */
+  default T getProperty(T value, PropertyKey<T> key) {
+    return getProperty(value, key.value());
+  }
+
+  /**
+   * Returns a key for looking up the property with the specified name using
+   * {@link #getProperty(Object, PropertyKey)}. Keys are created once, when an
+   * expression is compiled, and are used for every search.
+   */
+  default PropertyKey<T> createPropertyKey(String name) {
+    return new PropertyKey<>(name, createString(name));
+  }
+
   /**
    * Returns all the property names of the given object, or an empty collection
    * when the given value does not represent an object.
    *
-   * The property names are always string values.
+   * The property names are always string values. Like with {@link #toList}
+   * the collection may be a view of the object and must not be modified.
    */
   Collection<T> getPropertyNames(T value);
 
@@ -3,12 +3,18 @@ package io.burt.jmespath;
 import java.util.List;
 import java.util.Collection;
 
-import io.burt.jmespath.parser.ExpressionParser;
+import io.burt.jmespath.parser.ParserType;
+import io.burt.jmespath.bytecode.BytecodeCompiler;
 import io.burt.jmespath.function.FunctionRegistry;
 import io.burt.jmespath.function.Function;
 import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.node.ExpressionOptimizer;
 import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.ParallelNodeFactory;
+import io.burt.jmespath.node.ProfilingNodeFactory;
 import io.burt.jmespath.node.StandardNodeFactory;
+import io.burt.jmespath.util.LruCache;
+import io.burt.jmespath.util.NumberComparison;
 
 /**
  * This class can be extended instead of implementing {@link Adapter} directly,
@@ -22,6 +28,10 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
   private final FunctionRegistry functionRegistry;
   private final NodeFactory<T> nodeFactory;
   private final boolean silentTypeErrors;
+  private final ParserType parserType;
+  private final LruCache<String, Expression<T>> expressionCache;
+  private final ExpressionOptimizer<T> expressionOptimizer;
+  private final BytecodeCompiler<T> bytecodeCompiler;
 
   /**
    * Create a new runtime with a default function registry.
@@ -36,12 +46,72 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
   public BaseRuntime(RuntimeConfiguration configuration) {
     this.silentTypeErrors = configuration.silentTypeErrors();
     this.functionRegistry = configuration.functionRegistry();
-    this.nodeFactory = new StandardNodeFactory<>(this);
+    NodeFactory<T> nodeFactory;
+    if (configuration.parallelThreshold() > 0) {
+      nodeFactory = new ParallelNodeFactory<>(this, configuration.parallelExecutor(), configuration.parallelThreshold());
+    } else {
+      nodeFactory = new StandardNodeFactory<>(this);
+    }
+    if (configuration.profiling()) {
+      nodeFactory = new ProfilingNodeFactory<>(this, nodeFactory);
+    }
+    this.nodeFactory = nodeFactory;
+    this.parserType = configuration.parserType();
+    if (configuration.expressionCacheSize() > 0) {
+      this.expressionCache = new LruCache<>(configuration.expressionCacheSize());
+    } else {
+      this.expressionCache = null;
+    }
+    if (configuration.expressionOptimization()) {
+      this.expressionOptimizer = new ExpressionOptimizer<>(this);
+    } else {
+      this.expressionOptimizer = null;
+    }
+    if (configuration.bytecodeCompilation()) {
+      this.bytecodeCompiler = new BytecodeCompiler<>(this);
+    } else {
+      this.bytecodeCompiler = null;
+    }
   }
 
+  /**
+   * Compiles the expression, or returns a previously compiled expression when
+   * the runtime has been configured with an expression cache (see
+   * {@link RuntimeConfiguration.Builder#withExpressionCacheSize}).
+   * <p>
+   * Compiled expressions are stateless and can be shared between threads, so
+   * the same instance is returned to all callers.
+   */
   @Override
   public Expression<T> compile(String expression) {
-    return ExpressionParser.fromString(this, expression);
+    if (expressionCache == null) {
+      return parse(expression);
+    }
+    Expression<T> compiledExpression = expressionCache.get(expression);
+    if (compiledExpression == null) {
+      compiledExpression = expressionCache.putIfAbsent(expression, parse(expression));
+    }
+    return compiledExpression;
+  }
+
+  private Expression<T> parse(String expression) {
+    Expression<T> parsedExpression = parserType.parse(this, expression);
+    if (expressionOptimizer != null) {
+      parsedExpression = expressionOptimizer.optimize(parsedExpression);
+    }
+    if (bytecodeCompiler != null) {
+      parsedExpression = bytecodeCompiler.compile(parsedExpression);
+    }
+    return parsedExpression;
+  }
+
+  /**
+   * Returns the cache of compiled expressions, which can be used to monitor
+   * hits, misses and evictions, or <code>null</code> when the runtime has not
+   * been configured with an expression cache.
+   */
+  public LruCache<String, Expression<T>> expressionCache() {
+    return expressionCache;
   }
 
   /**
@@ -49,9 +119,15 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
    * <p>
    * Subclasses should override this method if they have a more efficient way to
    * compare booleans, numbers and strings than to convert them to Java types
-   * using {@link Adapter#isTruthy}, {@link Adapter#toNumber},
+   * using {@link Adapter#isTruthy}, {@link Adapter#doubleValue},
    * {@link Adapter#toString}, etc.
    * <p>
+   * Numbers that are integers that fit in a <code>long</code> (see
+   * {@link Adapter#isIntegral}) are read as <code>long</code>, and other
+   * numbers as <code>double</code>. A <code>long</code> and a
+   * <code>double</code> are compared by their exact values, see
+   * {@link NumberComparison}.
+   * <p>
    * This only implements {@link java.util.Comparator#compare} fully for
    * <code>null</code>, <code>number</code> and <code>string</code>, for
    * <code>boolean</code> <code>array</code> and <code>object</code> it only
@@ -73,9 +149,17 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
         case BOOLEAN:
           return isTruthy(value1) == isTruthy(value2) ? 0 : -1;
         case NUMBER:
-          double d1 = toNumber(value1).doubleValue();
-          double d2 = toNumber(value2).doubleValue();
-          return Double.compare(d1, d2);
+          boolean integral1 = isIntegral(value1);
+          boolean integral2 = isIntegral(value2);
+          if (integral1 && integral2) {
+            return Long.compare(longValue(value1), longValue(value2));
+          } else if (integral1) {
+            return NumberComparison.compare(longValue(value1), doubleValue(value2));
+          } else if (integral2) {
+            return -NumberComparison.compare(longValue(value2), doubleValue(value1));
+          } else {
+            return Double.compare(doubleValue(value1), doubleValue(value2));
+          }
         case STRING:
           String s1 = toString(value1);
           String s2 = toString(value2);
@@ -166,4 +250,21 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
   public T getProperty(T value, String name) {
     return getProperty(value, createString(name));
   }
+
+  /**
+   * Returns true when {@link #getProperty(Object, Object)} has been overridden
+   * by a subclass of the specified runtime class.
+   * <p>
+   * Runtimes call this from {@link #createPropertyKey} and only look up
+   * properties directly by the name of a key when it returns false, so that
+   * an override of {@link #getProperty(Object, Object)} is used for all
+   * property lookups.
+   */
+  protected boolean overridesGetProperty(Class<?> runtimeClass) {
+    try {
+      return getClass().getMethod("getProperty", Object.class, Object.class).getDeclaringClass() != runtimeClass;
+    } catch (NoSuchMethodException nsme) {
+      return true;
+    }
+  }
 }
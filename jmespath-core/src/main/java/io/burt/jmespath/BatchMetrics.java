@@ -0,0 +1,106 @@
+package io.burt.jmespath;
+
+/**
+ * Numbers that describe the work done by a {@link BatchSearch}, either for a
+ * single batch or for a whole input.
+ * <p>
+ * The parse and search times are the sums of the times spent parsing and
+ * searching each record, on all threads, so for a whole input they can be
+ * larger than the elapsed time when batches are processed in parallel.
+ */
+public final class BatchMetrics {
+  private final long batches;
+  private final long records;
+  private final long errors;
+  private final long bytes;
+  private final long parseNanos;
+  private final long searchNanos;
+  private final long elapsedNanos;
+
+  BatchMetrics(long batches, long records, long errors, long bytes, long parseNanos, long searchNanos, long elapsedNanos) {
+    this.batches = batches;
+    this.records = records;
+    this.errors = errors;
+    this.bytes = bytes;
+    this.parseNanos = parseNanos;
+    this.searchNanos = searchNanos;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of batches, which is one for the metrics of a batch.
+   */
+  public long batches() {
+    return batches;
+  }
+
+  /**
+   * Returns the number of records that were parsed and searched, not counting
+   * blank lines, but counting records that failed.
+   */
+  public long records() {
+    return records;
+  }
+
+  /**
+   * Returns the number of records that could not be parsed or searched.
+   */
+  public long errors() {
+    return errors;
+  }
+
+  /**
+   * Returns the number of bytes read, including line breaks and blank lines.
+   */
+  public long bytes() {
+    return bytes;
+  }
+
+  /**
+   * Returns the total time spent parsing records, in nanoseconds.
+   */
+  public long parseNanos() {
+    return parseNanos;
+  }
+
+  /**
+   * Returns the total time spent searching records, in nanoseconds.
+   */
+  public long searchNanos() {
+    return searchNanos;
+  }
+
+  /**
+   * Returns the time from when processing started until it was done, in
+   * nanoseconds. For a batch this is the time a worker spent on it, and for a
+   * whole input it is the time from when reading started until the last
+   * result had been handled.
+   */
+  public long elapsedNanos() {
+    return elapsedNanos;
+  }
+
+  BatchMetrics plus(BatchMetrics other) {
+    return new BatchMetrics(
+      batches + other.batches,
+      records + other.records,
+      errors + other.errors,
+      bytes + other.bytes,
+      parseNanos + other.parseNanos,
+      searchNanos + other.searchNanos,
+      elapsedNanos
+    );
+  }
+
+  BatchMetrics withElapsedNanos(long elapsedNanos) {
+    return new BatchMetrics(batches, records, errors, bytes, parseNanos, searchNanos, elapsedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "BatchMetrics(batches=%d, records=%d, errors=%d, bytes=%d, parseNanos=%d, searchNanos=%d, elapsedNanos=%d)",
+      batches, records, errors, bytes, parseNanos, searchNanos, elapsedNanos
+    );
+  }
+}
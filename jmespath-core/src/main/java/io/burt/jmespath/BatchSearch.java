@@ -0,0 +1,398 @@
+package io.burt.jmespath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Searches each record of newline delimited JSON with the same expression,
+ * parsing and searching batches of records in parallel.
+ * <p>
+ * The input is read on the calling thread and split at line breaks into
+ * batches of about {@link Builder#withBatchSize batch size} bytes. Each batch
+ * is parsed with {@link Adapter#parseBytes} and searched on a thread of the
+ * executor, and the results are passed to a {@link ResultHandler} on the
+ * calling thread. By default the results are passed in the same order as the
+ * records, but they can also be passed in the order the batches are done.
+ * <p>
+ * Only a couple of batches per thread of the executor are read ahead, so
+ * memory use does not depend on the size of the input, and reading slows down
+ * when the handler can't keep up.
+ * <p>
+ * Lines are numbered from one. Blank lines are skipped, but they are counted
+ * when lines are numbered.
+ * <p>
+ * Batch searches are created with a {@link Builder} and are thread safe.
+ */
+public class BatchSearch<T> {
+  private static final int DEFAULT_BATCH_SIZE = 1 << 20;
+  private static final BatchMetrics NO_METRICS = new BatchMetrics(0, 0, 0, 0, 0, 0, 0);
+
+  private final Adapter<T> runtime;
+  private final Expression<T> expression;
+  private final Executor executor;
+  private final int batchSize;
+  private final boolean ordered;
+  private final int maxPendingBatches;
+
+  /**
+   * Receives the results of a batch search.
+   */
+  public interface ResultHandler<T> {
+    /**
+     * Handles the result of searching the record on the specified line.
+     */
+    void handleResult(long line, T result);
+
+    /**
+     * Handles a record that could not be parsed or searched. The default
+     * implementation throws the exception, which stops the search.
+     */
+    default void handleError(long line, RuntimeException e) {
+      throw e;
+    }
+
+    /**
+     * Called after all results of a batch have been handled.
+     */
+    default void handleBatch(BatchMetrics metrics) { }
+  }
+
+  private BatchSearch(Builder<T> builder) {
+    this.runtime = builder.runtime;
+    this.expression = builder.expression;
+    this.executor = builder.executor;
+    this.batchSize = builder.batchSize;
+    this.ordered = builder.ordered;
+    int parallelism;
+    if (executor instanceof ForkJoinPool) {
+      parallelism = ((ForkJoinPool) executor).getParallelism();
+    } else {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    this.maxPendingBatches = 2 * parallelism;
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime, String expression) {
+    return new Builder<>(runtime, runtime.compile(expression));
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime, Expression<U> expression) {
+    return new Builder<>(runtime, expression);
+  }
+
+  /**
+   * Searches each record of a file and returns the metrics of the whole file.
+   */
+  public BatchMetrics search(Path path, ResultHandler<T> handler) throws IOException {
+    try (InputStream input = Files.newInputStream(path)) {
+      return search(input, handler);
+    }
+  }
+
+  /**
+   * Searches each record of a stream until it ends, and returns the metrics
+   * of the whole stream. The stream is not closed.
+   * <p>
+   * When the handler throws an exception the batches that are still waiting
+   * to be processed are cancelled, and the exception is thrown from this
+   * method.
+   */
+  public BatchMetrics search(InputStream input, ResultHandler<T> handler) throws IOException {
+    long start = System.nanoTime();
+    Search search = new Search(handler);
+    try {
+      byte[] buffer = new byte[batchSize];
+      int length = 0;
+      long line = 1;
+      int n;
+      while ((n = input.read(buffer, length, buffer.length - length)) != -1) {
+        length += n;
+        if (length == buffer.length) {
+          int end = lastLineBreak(buffer, length) + 1;
+          if (end == 0) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+          } else {
+            int remaining = length - end;
+            byte[] next = new byte[Math.max(batchSize, 2 * remaining)];
+            System.arraycopy(buffer, end, next, 0, remaining);
+            search.submit(new Batch(buffer, end, line));
+            line += countLineBreaks(buffer, end);
+            buffer = next;
+            length = remaining;
+          }
+        }
+      }
+      if (length > 0) {
+        search.submit(new Batch(buffer, length, line));
+      }
+      return search.finish().withElapsedNanos(System.nanoTime() - start);
+    } finally {
+      search.cancel();
+    }
+  }
+
+  private static int lastLineBreak(byte[] bytes, int length) {
+    for (int i = length - 1; i >= 0; i--) {
+      if (bytes[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int countLineBreaks(byte[] bytes, int length) {
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      if (bytes[i] == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isBlank(byte[] bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      byte b = bytes[i];
+      if (b != ' ' && b != '\t' && b != '\r') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The batches of one input that have been submitted but not handled.
+   */
+  private class Search {
+    private final ResultHandler<T> handler;
+    private final Deque<Future<Batch>> pending;
+    private final CompletionService<Batch> completed;
+    private BatchMetrics metrics;
+
+    public Search(ResultHandler<T> handler) {
+      this.handler = handler;
+      this.pending = new ArrayDeque<>();
+      this.completed = ordered ? null : new ExecutorCompletionService<Batch>(executor);
+      this.metrics = NO_METRICS;
+    }
+
+    public void submit(Batch batch) throws IOException {
+      if (ordered) {
+        FutureTask<Batch> task = new FutureTask<>(batch);
+        executor.execute(task);
+        pending.add(task);
+      } else {
+        pending.add(completed.submit(batch));
+      }
+      while (pending.size() > maxPendingBatches) {
+        handleNext(true);
+      }
+      while (!pending.isEmpty() && handleNext(false)) { }
+    }
+
+    public BatchMetrics finish() throws IOException {
+      while (!pending.isEmpty()) {
+        handleNext(true);
+      }
+      return metrics;
+    }
+
+    public void cancel() {
+      for (Future<Batch> future : pending) {
+        future.cancel(false);
+      }
+    }
+
+    /**
+     * Handles the results of the next batch, in order when the search is
+     * ordered, and returns true, or returns false when the batch is not done
+     * and <code>wait</code> is false.
+     */
+    private boolean handleNext(boolean wait) throws IOException {
+      try {
+        Future<Batch> future;
+        if (ordered) {
+          future = pending.peek();
+          if (!wait && !future.isDone()) {
+            return false;
+          }
+          pending.poll();
+        } else {
+          future = wait ? completed.take() : completed.poll();
+          if (future == null) {
+            return false;
+          }
+          pending.remove(future);
+        }
+        Batch batch = future.get();
+        batch.handle(handler);
+        metrics = metrics.plus(batch.metrics);
+        handler.handleBatch(batch.metrics);
+        return true;
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a batch");
+      } catch (ExecutionException ee) {
+        if (ee.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ee.getCause();
+        } else if (ee.getCause() instanceof Error) {
+          throw (Error) ee.getCause();
+        } else {
+          throw new IllegalStateException(ee.getCause());
+        }
+      }
+    }
+  }
+
+  /**
+   * Wraps the exception of a record that could not be parsed or searched, so
+   * that it can be told apart from results.
+   */
+  private static class Failure {
+    private final RuntimeException exception;
+
+    public Failure(RuntimeException exception) {
+      this.exception = exception;
+    }
+  }
+
+  /**
+   * A sequence of whole lines that is parsed and searched by one thread.
+   */
+  private class Batch implements Callable<Batch> {
+    private final int length;
+    private final long firstLine;
+    private byte[] bytes;
+    private long[] lines;
+    private Object[] results;
+    private int count;
+    private BatchMetrics metrics;
+
+    public Batch(byte[] bytes, int length, long firstLine) {
+      this.bytes = bytes;
+      this.length = length;
+      this.firstLine = firstLine;
+    }
+
+    @Override
+    public Batch call() {
+      long started = System.nanoTime();
+      long parseNanos = 0;
+      long searchNanos = 0;
+      int errors = 0;
+      lines = new long[16];
+      results = new Object[16];
+      long line = firstLine;
+      for (int start = 0, i = 0; i <= length; i++) {
+        if (i == length || bytes[i] == '\n') {
+          if (!isBlank(bytes, start, i)) {
+            long t0 = System.nanoTime();
+            try {
+              T value = runtime.parseBytes(bytes, start, i - start);
+              long t1 = System.nanoTime();
+              parseNanos += t1 - t0;
+              add(line, expression.search(value));
+              searchNanos += System.nanoTime() - t1;
+            } catch (RuntimeException e) {
+              add(line, new Failure(e));
+              errors++;
+            }
+          }
+          line++;
+          start = i + 1;
+        }
+      }
+      bytes = null;
+      metrics = new BatchMetrics(1, count, errors, length, parseNanos, searchNanos, System.nanoTime() - started);
+      return this;
+    }
+
+    private void add(long line, Object result) {
+      if (count == lines.length) {
+        lines = Arrays.copyOf(lines, count * 2);
+        results = Arrays.copyOf(results, count * 2);
+      }
+      lines[count] = line;
+      results[count] = result;
+      count++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void handle(ResultHandler<T> handler) {
+      for (int i = 0; i < count; i++) {
+        if (results[i] instanceof Failure) {
+          handler.handleError(lines[i], ((Failure) results[i]).exception);
+        } else {
+          handler.handleResult(lines[i], (T) results[i]);
+        }
+      }
+    }
+  }
+
+  public static class Builder<T> {
+    protected final Adapter<T> runtime;
+    protected final Expression<T> expression;
+    protected Executor executor;
+    protected int batchSize;
+    protected boolean ordered;
+
+    public Builder(Adapter<T> runtime, Expression<T> expression) {
+      this.runtime = runtime;
+      this.expression = expression;
+      this.executor = ForkJoinPool.commonPool();
+      this.batchSize = DEFAULT_BATCH_SIZE;
+      this.ordered = true;
+    }
+
+    public BatchSearch<T> build() {
+      return new BatchSearch<>(this);
+    }
+
+    /**
+     * Sets the executor that batches are parsed and searched on. The default
+     * is {@link ForkJoinPool#commonPool}.
+     */
+    public Builder<T> withExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Sets the number of bytes to read into each batch, one megabyte by
+     * default. Batches end at the last line break that fits, and lines that
+     * are longer than the batch size get a bigger batch of their own.
+     */
+    public Builder<T> withBatchSize(int batchSize) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException(String.format("Batch size must be positive, was %d", batchSize));
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets whether results are handled in the same order as the records, which
+     * is the default, or in the order the batches are done. The results of
+     * the records of a batch are always handled in order, and without order
+     * a slow batch does not hold up the batches after it.
+     */
+    public Builder<T> withOrdered(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+  }
+}
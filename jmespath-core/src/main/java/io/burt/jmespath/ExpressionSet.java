@@ -0,0 +1,168 @@
+package io.burt.jmespath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.bytecode.CompiledExpression;
+import io.burt.jmespath.node.CurrentNode;
+import io.burt.jmespath.node.SequenceNode;
+
+/**
+ * A set of named expressions that are evaluated together against the same input.
+ * <p>
+ * Most expressions are sequences of steps, like <code>detail.requestParameters.bucketName</code>,
+ * which is a property step followed by two more property steps. When the
+ * expressions are added to the set their steps are merged into a tree where
+ * the expressions that start with the same steps share branches, so that each
+ * shared step is evaluated once per input instead of once per expression.
+ * Steps are shared when their expression trees are equal, projections and
+ * filters are shared as a whole, not step by step.
+ * <p>
+ * The results are returned either as an array with the result of each
+ * expression in the order they were added, or as a map from name to result.
+ * <p>
+ * Expression sets are created with a {@link Builder} and are thread safe.
+ */
+public class ExpressionSet<T> implements Expression<T> {
+  private final Adapter<T> runtime;
+  private final List<String> names;
+  private final Branch<T> root;
+
+  private static class Branch<T> {
+    private final Expression<T> step;
+    private final Map<Expression<T>, Branch<T>> branches;
+    private final List<Integer> indexes;
+
+    public Branch(Expression<T> step) {
+      this.step = step;
+      this.branches = new LinkedHashMap<>();
+      this.indexes = new ArrayList<>();
+    }
+
+    public Branch<T> branch(Expression<T> step) {
+      Branch<T> branch = branches.get(step);
+      if (branch == null) {
+        branch = new Branch<>(step);
+        branches.put(step, branch);
+      }
+      return branch;
+    }
+
+    public void evaluate(T input, List<T> results) {
+      for (int index : indexes) {
+        results.set(index, input);
+      }
+      for (Branch<T> branch : branches.values()) {
+        branch.evaluate(branch.step.search(input), results);
+      }
+    }
+  }
+
+  private ExpressionSet(Builder<T> builder) {
+    this.runtime = builder.runtime;
+    this.names = new ArrayList<>(builder.names);
+    this.root = new Branch<>(null);
+    for (int i = 0; i < builder.expressions.size(); i++) {
+      List<Expression<T>> steps = new ArrayList<>();
+      flatten(builder.expressions.get(i), steps);
+      Branch<T> branch = root;
+      for (Expression<T> step : steps) {
+        branch = branch.branch(step);
+      }
+      branch.indexes.add(i);
+    }
+  }
+
+  private void flatten(Expression<T> expression, List<Expression<T>> steps) {
+    if (expression instanceof CompiledExpression) {
+      flatten(((CompiledExpression<T>) expression).source(), steps);
+    } else if (expression instanceof SequenceNode) {
+      for (Expression<T> node : ((SequenceNode<T>) expression).nodes()) {
+        flatten(node, steps);
+      }
+    } else if (!(expression instanceof CurrentNode)) {
+      steps.add(expression);
+    }
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime) {
+    return new Builder<>(runtime);
+  }
+
+  /**
+   * Returns the names of the expressions in the order they were added.
+   */
+  public List<String> names() {
+    return Collections.unmodifiableList(names);
+  }
+
+  /**
+   * Evaluates all expressions against the input and returns an array with
+   * their results, in the order the expressions were added.
+   */
+  @Override
+  public T search(T input) {
+    return runtime.createArray(searchAll(input));
+  }
+
+  /**
+   * Evaluates all expressions against the input and returns their results by
+   * name, in the order the expressions were added.
+   */
+  public Map<String, T> searchByName(T input) {
+    List<T> results = searchAll(input);
+    Map<String, T> resultsByName = new LinkedHashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      resultsByName.put(names.get(i), results.get(i));
+    }
+    return resultsByName;
+  }
+
+  private List<T> searchAll(T input) {
+    List<T> results = new ArrayList<>(Collections.nCopies(names.size(), (T) null));
+    root.evaluate(input, results);
+    return results;
+  }
+
+  public static class Builder<T> {
+    protected final Adapter<T> runtime;
+    protected final List<String> names;
+    protected final List<Expression<T>> expressions;
+
+    public Builder(Adapter<T> runtime) {
+      this.runtime = runtime;
+      this.names = new ArrayList<>();
+      this.expressions = new ArrayList<>();
+    }
+
+    public ExpressionSet<T> build() {
+      return new ExpressionSet<>(this);
+    }
+
+    /**
+     * Compiles the expression with the runtime and adds it to the set.
+     *
+     * @throws IllegalArgumentException when there already is an expression with the same name
+     */
+    public Builder<T> withExpression(String name, String expression) {
+      return withExpression(name, runtime.compile(expression));
+    }
+
+    /**
+     * Adds a compiled expression to the set.
+     *
+     * @throws IllegalArgumentException when there already is an expression with the same name
+     */
+    public Builder<T> withExpression(String name, Expression<T> expression) {
+      if (names.contains(name)) {
+        throw new IllegalArgumentException(String.format("Expression \"%s\" has already been added", name));
+      }
+      names.add(name);
+      expressions.add(expression);
+      return this;
+    }
+  }
+}
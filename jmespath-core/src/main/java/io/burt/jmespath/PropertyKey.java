@@ -0,0 +1,63 @@
+package io.burt.jmespath;
+
+/**
+ * The name of a property that is known when an expression is compiled, like
+ * <code>foo</code> in <code>foo.bar</code>, prepared for looking up the
+ * property in objects with {@link Adapter#getProperty(Object, PropertyKey)}.
+ * <p>
+ * A key holds the name both as a Java string and as a string value of the
+ * runtime that created it, so that neither has to be created on each lookup.
+ * <p>
+ * Runtimes that can resolve a property name ahead of time, for example to an
+ * index or a field of a particular kind of object, can return a subclass that
+ * carries that information from {@link Adapter#createPropertyKey}, and use it
+ * in an override of {@link Adapter#getProperty(Object, PropertyKey)}. Such an
+ * override bypasses {@link Adapter#getProperty(Object, Object)}, so it should
+ * only be made where subclasses can't override that method, or where they are
+ * expected to override both.
+ */
+public class PropertyKey<T> {
+  private final String name;
+  private final T value;
+
+  public PropertyKey(String name, T value) {
+    this.name = name;
+    this.value = value;
+  }
+
+  /**
+   * Returns the name of the property.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the property as a string value of the runtime that
+   * created the key.
+   */
+  public T value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof PropertyKey)) {
+      return false;
+    }
+    PropertyKey<?> other = (PropertyKey<?>) o;
+    return name.equals(other.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
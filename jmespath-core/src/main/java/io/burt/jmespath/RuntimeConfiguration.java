@@ -1,14 +1,32 @@
 package io.burt.jmespath;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.parser.ParserType;
 
 public class RuntimeConfiguration {
   private final FunctionRegistry functionRegistry;
   private final boolean silentTypeErrors;
+  private final int expressionCacheSize;
+  private final ParserType parserType;
+  private final boolean expressionOptimization;
+  private final boolean bytecodeCompilation;
+  private final int parallelThreshold;
+  private final Executor parallelExecutor;
+  private final boolean profiling;
 
   private RuntimeConfiguration(Builder builder) {
     this.functionRegistry = builder.functionRegistry;
     this.silentTypeErrors = builder.silentTypeErrors;
+    this.expressionCacheSize = builder.expressionCacheSize;
+    this.parserType = builder.parserType;
+    this.expressionOptimization = builder.expressionOptimization;
+    this.bytecodeCompilation = builder.bytecodeCompilation;
+    this.parallelThreshold = builder.parallelThreshold;
+    this.parallelExecutor = builder.parallelExecutor;
+    this.profiling = builder.profiling;
   }
 
   public FunctionRegistry functionRegistry() {
@@ -19,6 +37,62 @@ public class RuntimeConfiguration {
     return silentTypeErrors;
   }
 
+  /**
+   * The maximum number of compiled expressions a runtime keeps, zero means
+   * that expressions are compiled every time.
+   */
+  public int expressionCacheSize() {
+    return expressionCacheSize;
+  }
+
+  /**
+   * The parser used to compile expressions.
+   */
+  public ParserType parserType() {
+    return parserType;
+  }
+
+  /**
+   * Whether compiled expressions are rewritten into simpler, but equivalent,
+   * expressions (see {@link io.burt.jmespath.node.ExpressionOptimizer}).
+   */
+  public boolean expressionOptimization() {
+    return expressionOptimization;
+  }
+
+  /**
+   * Whether compiled expressions are turned into generated classes instead of
+   * being interpreted (see {@link io.burt.jmespath.bytecode.BytecodeCompiler}).
+   */
+  public boolean bytecodeCompilation() {
+    return bytecodeCompilation;
+  }
+
+  /**
+   * The number of elements an array must have for projections and filters
+   * over it to be split up and evaluated in parallel, zero means that they are
+   * always evaluated on the calling thread.
+   */
+  public int parallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * The executor that evaluates parallel projections and filters (see
+   * {@link #parallelThreshold}).
+   */
+  public Executor parallelExecutor() {
+    return parallelExecutor;
+  }
+
+  /**
+   * Whether the nodes of compiled expressions record how they are evaluated
+   * (see {@link io.burt.jmespath.node.ProfiledNode}).
+   */
+  public boolean profiling() {
+    return profiling;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -30,9 +104,18 @@ public class RuntimeConfiguration {
   public static class Builder {
     protected FunctionRegistry functionRegistry;
     protected boolean silentTypeErrors;
+    protected int expressionCacheSize;
+    protected ParserType parserType;
+    protected boolean expressionOptimization;
+    protected boolean bytecodeCompilation;
+    protected int parallelThreshold;
+    protected Executor parallelExecutor;
+    protected boolean profiling;
 
     public Builder() {
       this.functionRegistry = FunctionRegistry.defaultRegistry();
+      this.parserType = ParserType.RECURSIVE_DESCENT;
+      this.parallelExecutor = ForkJoinPool.commonPool();
     }
 
     public RuntimeConfiguration build() {
@@ -48,5 +131,46 @@ public class RuntimeConfiguration {
       this.silentTypeErrors = silentTypeErrors;
       return this;
     }
+
+    public Builder withExpressionCacheSize(int expressionCacheSize) {
+      if (expressionCacheSize < 0) {
+        throw new IllegalArgumentException(String.format("Expression cache size must not be negative, was %d", expressionCacheSize));
+      }
+      this.expressionCacheSize = expressionCacheSize;
+      return this;
+    }
+
+    public Builder withParserType(ParserType parserType) {
+      this.parserType = parserType;
+      return this;
+    }
+
+    public Builder withExpressionOptimization(boolean expressionOptimization) {
+      this.expressionOptimization = expressionOptimization;
+      return this;
+    }
+
+    public Builder withBytecodeCompilation(boolean bytecodeCompilation) {
+      this.bytecodeCompilation = bytecodeCompilation;
+      return this;
+    }
+
+    public Builder withParallelThreshold(int parallelThreshold) {
+      if (parallelThreshold < 0) {
+        throw new IllegalArgumentException(String.format("Parallel threshold must not be negative, was %d", parallelThreshold));
+      }
+      this.parallelThreshold = parallelThreshold;
+      return this;
+    }
+
+    public Builder withParallelExecutor(Executor parallelExecutor) {
+      this.parallelExecutor = parallelExecutor;
+      return this;
+    }
+
+    public Builder withProfiling(boolean profiling) {
+      this.profiling = profiling;
+      return this;
+    }
   }
 }
@@ -0,0 +1,703 @@
+package io.burt.jmespath.bytecode;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.node.AndNode;
+import io.burt.jmespath.node.ComparisonNode;
+import io.burt.jmespath.node.CreateArrayNode;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.CurrentNode;
+import io.burt.jmespath.node.ExpressionReferenceNode;
+import io.burt.jmespath.node.FlattenArrayNode;
+import io.burt.jmespath.node.FlattenObjectNode;
+import io.burt.jmespath.node.FunctionCallNode;
+import io.burt.jmespath.node.IndexNode;
+import io.burt.jmespath.node.JsonLiteralNode;
+import io.burt.jmespath.node.NegateNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.Operator;
+import io.burt.jmespath.node.OrNode;
+import io.burt.jmespath.node.ProjectionNode;
+import io.burt.jmespath.node.PropertyNode;
+import io.burt.jmespath.node.SelectionNode;
+import io.burt.jmespath.node.SequenceNode;
+import io.burt.jmespath.node.StringNode;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Compiles expression trees into classes that evaluate the expression without
+ * walking the tree.
+ * <p>
+ * Each compiled expression becomes a class of its own, where chains of
+ * properties and sequences are evaluated inline and projections, selections,
+ * operators and function calls become private methods. Calls to the runtime
+ * are made directly to the runtime's class instead of through the
+ * {@link Adapter} interface, when that class is public, so that the JIT can
+ * inline them.
+ * <p>
+ * Only the standard node classes are compiled, nodes of other classes (for
+ * example slices, or nodes created by a custom node factory) are kept as they
+ * are and called from the compiled code. When the root of the tree can't be
+ * compiled, or the class can't be generated or loaded, the expression is
+ * returned unchanged.
+ */
+public class BytecodeCompiler<T> {
+  private static final AtomicLong classCounter = new AtomicLong();
+
+  private static final String OBJECT = Type.getInternalName(Object.class);
+  private static final String OBJECT_DESCRIPTOR = Type.getDescriptor(Object.class);
+  private static final String LIST = Type.getInternalName(List.class);
+  private static final String ITERATOR = "java/util/Iterator";
+  private static final String ARRAY_LIST = Type.getInternalName(ArrayList.class);
+  private static final String LINKED_HASH_MAP = Type.getInternalName(LinkedHashMap.class);
+  private static final String ADAPTER = Type.getInternalName(Adapter.class);
+  private static final String EXPRESSION = Type.getInternalName(Expression.class);
+  private static final String EXPRESSION_DESCRIPTOR = Type.getDescriptor(Expression.class);
+  private static final String FUNCTION = Type.getInternalName(Function.class);
+  private static final String FUNCTION_DESCRIPTOR = Type.getDescriptor(Function.class);
+  private static final String FUNCTION_ARGUMENT = Type.getInternalName(FunctionArgument.class);
+  private static final String FUNCTION_ARGUMENT_DESCRIPTOR = Type.getDescriptor(FunctionArgument.class);
+  private static final String JMESPATH_TYPE = Type.getInternalName(JmesPathType.class);
+  private static final String JMESPATH_TYPE_DESCRIPTOR = Type.getDescriptor(JmesPathType.class);
+  private static final String PROPERTY_KEY_DESCRIPTOR = Type.getDescriptor(PropertyKey.class);
+  private static final String COMPILED_EXPRESSION = Type.getInternalName(CompiledExpression.class);
+  private static final String SEARCH_DESCRIPTOR = "(Ljava/lang/Object;)Ljava/lang/Object;";
+
+  private static final Set<Class<?>> COMPILABLE_NODES = new HashSet<Class<?>>(Arrays.asList(
+    CurrentNode.class,
+    PropertyNode.class,
+    IndexNode.class,
+    SequenceNode.class,
+    ProjectionNode.class,
+    SelectionNode.class,
+    FlattenArrayNode.class,
+    FlattenObjectNode.class,
+    AndNode.class,
+    OrNode.class,
+    NegateNode.class,
+    JsonLiteralNode.class,
+    StringNode.class,
+    ComparisonNode.EqualsNode.class,
+    ComparisonNode.NotEqualsNode.class,
+    ComparisonNode.GreaterThanNode.class,
+    ComparisonNode.GreaterThanOrEqualsNode.class,
+    ComparisonNode.LessThanNode.class,
+    ComparisonNode.LessThanOrEqualsNode.class,
+    FunctionCallNode.class,
+    CreateArrayNode.class,
+    CreateObjectNode.class,
+    ExpressionReferenceNode.class
+  ));
+
+  private final Adapter<T> runtime;
+  private final Class<?> runtimeClass;
+
+  public BytecodeCompiler(Adapter<T> runtime) {
+    this.runtime = runtime;
+    if (Modifier.isPublic(runtime.getClass().getModifiers())) {
+      this.runtimeClass = runtime.getClass();
+    } else {
+      this.runtimeClass = Adapter.class;
+    }
+  }
+
+  /**
+   * Returns a compiled version of the expression, or the expression itself
+   * when it can't be compiled.
+   */
+  public Expression<T> compile(Expression<T> expression) {
+    if (!isCompilable(expression)) {
+      return expression;
+    }
+    try {
+      return new ClassGenerator(expression).generate();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return expression;
+    }
+  }
+
+  private static boolean isCompilable(Expression<?> expression) {
+    return COMPILABLE_NODES.contains(expression.getClass());
+  }
+
+  private static class GeneratedClassLoader extends ClassLoader {
+    public GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    public Class<?> define(String className, byte[] bytes) {
+      return defineClass(className, bytes, 0, bytes.length);
+    }
+  }
+
+  private static class PendingMethod<U> {
+    private final String name;
+    private final Expression<U> expression;
+
+    public PendingMethod(String name, Expression<U> expression) {
+      this.name = name;
+      this.expression = expression;
+    }
+  }
+
+  private class ClassGenerator {
+    private final Expression<T> source;
+    private final String className;
+    private final String runtimeType;
+    private final String runtimeDescriptor;
+    private final boolean runtimeIsInterface;
+    private final ClassWriter classWriter;
+    private final List<Object> constants;
+    private final List<String> constantDescriptors;
+    private final Deque<PendingMethod<T>> pendingMethods;
+    private int methodCount;
+
+    public ClassGenerator(Expression<T> source) {
+      this.source = source;
+      this.className = COMPILED_EXPRESSION + "$" + classCounter.incrementAndGet();
+      this.runtimeType = Type.getInternalName(runtimeClass);
+      this.runtimeDescriptor = Type.getDescriptor(runtimeClass);
+      this.runtimeIsInterface = runtimeClass.isInterface();
+      this.classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+          return OBJECT;
+        }
+      };
+      this.constants = new ArrayList<>();
+      this.constantDescriptors = new ArrayList<>();
+      this.pendingMethods = new ArrayDeque<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Expression<T> generate() throws ReflectiveOperationException {
+      classWriter.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, COMPILED_EXPRESSION, null);
+      classWriter.visitField(ACC_PRIVATE | ACC_FINAL, "runtime", runtimeDescriptor, null, null).visitEnd();
+      generateSearch();
+      while (!pendingMethods.isEmpty()) {
+        generateMethod(pendingMethods.removeFirst());
+      }
+      generateConstructor();
+      classWriter.visitEnd();
+      GeneratedClassLoader classLoader = new GeneratedClassLoader(runtime.getClass().getClassLoader());
+      Class<?> generatedClass = classLoader.define(className.replace('/', '.'), classWriter.toByteArray());
+      Constructor<?> constructor = generatedClass.getConstructor(Expression.class, runtimeClass, Object[].class);
+      return (Expression<T>) constructor.newInstance(source, runtime, constants.toArray());
+    }
+
+    private void generateConstructor() {
+      MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "<init>", "(" + EXPRESSION_DESCRIPTOR + runtimeDescriptor + "[Ljava/lang/Object;)V", null, null);
+      mv.visitCode();
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitVarInsn(ALOAD, 1);
+      mv.visitMethodInsn(INVOKESPECIAL, COMPILED_EXPRESSION, "<init>", "(" + EXPRESSION_DESCRIPTOR + ")V", false);
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitFieldInsn(PUTFIELD, className, "runtime", runtimeDescriptor);
+      for (int i = 0; i < constants.size(); i++) {
+        String descriptor = constantDescriptors.get(i);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitLdcInsn(i);
+        mv.visitInsn(AALOAD);
+        mv.visitTypeInsn(CHECKCAST, Type.getType(descriptor).getInternalName());
+        mv.visitFieldInsn(PUTFIELD, className, "c" + i, descriptor);
+      }
+      mv.visitInsn(RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    private void generateSearch() {
+      MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC, "search", SEARCH_DESCRIPTOR, null, null);
+      mv.visitCode();
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, source);
+      mv.visitInsn(ARETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    private void generateMethod(PendingMethod<T> method) {
+      MethodVisitor mv = classWriter.visitMethod(ACC_PRIVATE, method.name, SEARCH_DESCRIPTOR, null, null);
+      mv.visitCode();
+      Expression<T> expression = method.expression;
+      if (expression instanceof IndexNode) {
+        emitIndex(mv, (IndexNode<T>) expression);
+      } else if (expression instanceof ProjectionNode) {
+        emitProjection(mv, (ProjectionNode<T>) expression);
+      } else if (expression instanceof SelectionNode) {
+        emitSelection(mv, (SelectionNode<T>) expression);
+      } else if (expression instanceof FlattenArrayNode) {
+        emitFlattenArray(mv);
+      } else if (expression instanceof FlattenObjectNode) {
+        emitFlattenObject(mv);
+      } else if (expression instanceof AndNode) {
+        emitAndOr(mv, ((AndNode<T>) expression).operands(), true);
+      } else if (expression instanceof OrNode) {
+        emitAndOr(mv, ((OrNode<T>) expression).operands(), false);
+      } else if (expression instanceof NegateNode) {
+        emitNegate(mv, (NegateNode<T>) expression);
+      } else if (expression instanceof ComparisonNode) {
+        emitComparison(mv, (ComparisonNode<T>) expression);
+      } else if (expression instanceof FunctionCallNode) {
+        emitFunctionCall(mv, (FunctionCallNode<T>) expression);
+      } else if (expression instanceof CreateArrayNode) {
+        emitCreateArray(mv, (CreateArrayNode<T>) expression);
+      } else if (expression instanceof CreateObjectNode) {
+        emitCreateObject(mv, (CreateObjectNode<T>) expression);
+      } else {
+        throw new IllegalStateException(String.format("Unable to compile %s", expression));
+      }
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    /**
+     * Emits code that consumes the input from the top of the stack and leaves
+     * the result of the expression in its place. This code must not use local
+     * variables, since it is used inside the loops of the generated methods.
+     */
+    private void emitSearch(MethodVisitor mv, Expression<T> expression) {
+      Class<?> expressionClass = expression.getClass();
+      if (expressionClass == CurrentNode.class) {
+        return;
+      } else if (expressionClass == SequenceNode.class) {
+        for (Node<T> node : ((SequenceNode<T>) expression).nodes()) {
+          emitSearch(mv, node);
+        }
+      } else if (expressionClass == PropertyNode.class) {
+        loadRuntime(mv);
+        mv.visitInsn(SWAP);
+        loadConstant(mv, ((PropertyNode<T>) expression).propertyKey(), PROPERTY_KEY_DESCRIPTOR);
+        invokeRuntime(mv, "getProperty", "(Ljava/lang/Object;" + PROPERTY_KEY_DESCRIPTOR + ")Ljava/lang/Object;");
+      } else if (expressionClass == JsonLiteralNode.class || expressionClass == StringNode.class) {
+        mv.visitInsn(POP);
+        loadConstant(mv, expression.search(runtime.createNull()), OBJECT_DESCRIPTOR);
+      } else if (expressionClass == ExpressionReferenceNode.class) {
+        emitSearch(mv, ((ExpressionReferenceNode<T>) expression).expression());
+      } else if (isCompilable(expression)) {
+        String methodName = "m" + methodCount++;
+        pendingMethods.addLast(new PendingMethod<>(methodName, expression));
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(SWAP);
+        mv.visitMethodInsn(INVOKESPECIAL, className, methodName, SEARCH_DESCRIPTOR, false);
+      } else {
+        loadConstant(mv, expression, EXPRESSION_DESCRIPTOR);
+        mv.visitInsn(SWAP);
+        mv.visitMethodInsn(INVOKEINTERFACE, EXPRESSION, "search", SEARCH_DESCRIPTOR, true);
+      }
+    }
+
+    private void emitIndex(MethodVisitor mv, IndexNode<T> node) {
+      Label returnNull = new Label();
+      emitTypeCheck(mv, 1, "ARRAY", returnNull);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 1);
+      invokeRuntime(mv, "toList", "(Ljava/lang/Object;)Ljava/util/List;");
+      mv.visitVarInsn(ASTORE, 2);
+      mv.visitLdcInsn(node.index());
+      if (node.index() < 0) {
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEINTERFACE, LIST, "size", "()I", true);
+        mv.visitInsn(IADD);
+      }
+      mv.visitVarInsn(ISTORE, 3);
+      mv.visitVarInsn(ILOAD, 3);
+      mv.visitJumpInsn(IFLT, returnNull);
+      mv.visitVarInsn(ILOAD, 3);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "size", "()I", true);
+      mv.visitJumpInsn(IF_ICMPGE, returnNull);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitVarInsn(ILOAD, 3);
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "get", "(I)Ljava/lang/Object;", true);
+      mv.visitInsn(ARETURN);
+      mv.visitLabel(returnNull);
+      emitReturnNull(mv);
+    }
+
+    private void emitProjection(MethodVisitor mv, ProjectionNode<T> node) {
+      Label returnNull = new Label();
+      Label loop = new Label();
+      Label done = new Label();
+      emitTypeCheck(mv, 1, "ARRAY", returnNull);
+      emitLoopStart(mv, loop, done);
+      emitSearch(mv, node.projection());
+      mv.visitVarInsn(ASTORE, 5);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 5);
+      invokeRuntime(mv, "typeOf", "(Ljava/lang/Object;)" + JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitFieldInsn(GETSTATIC, JMESPATH_TYPE, "NULL", JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitJumpInsn(IF_ACMPEQ, loop);
+      mv.visitVarInsn(ALOAD, 3);
+      mv.visitVarInsn(ALOAD, 5);
+      emitListAdd(mv);
+      mv.visitJumpInsn(GOTO, loop);
+      emitLoopEnd(mv, done);
+      mv.visitLabel(returnNull);
+      emitReturnNull(mv);
+    }
+
+    private void emitSelection(MethodVisitor mv, SelectionNode<T> node) {
+      Label returnNull = new Label();
+      Label loop = new Label();
+      Label done = new Label();
+      emitTypeCheck(mv, 1, "ARRAY", returnNull);
+      emitLoopStart(mv, loop, done);
+      mv.visitInsn(DUP);
+      mv.visitVarInsn(ASTORE, 5);
+      emitSearch(mv, node.test());
+      loadRuntime(mv);
+      mv.visitInsn(SWAP);
+      invokeRuntime(mv, "isTruthy", "(Ljava/lang/Object;)Z");
+      mv.visitJumpInsn(IFEQ, loop);
+      mv.visitVarInsn(ALOAD, 3);
+      mv.visitVarInsn(ALOAD, 5);
+      emitListAdd(mv);
+      mv.visitJumpInsn(GOTO, loop);
+      emitLoopEnd(mv, done);
+      mv.visitLabel(returnNull);
+      emitReturnNull(mv);
+    }
+
+    private void emitFlattenArray(MethodVisitor mv) {
+      Label returnNull = new Label();
+      Label loop = new Label();
+      Label done = new Label();
+      Label notArray = new Label();
+      emitTypeCheck(mv, 1, "ARRAY", returnNull);
+      emitLoopStart(mv, loop, done);
+      mv.visitVarInsn(ASTORE, 5);
+      emitTypeCheck(mv, 5, "ARRAY", notArray);
+      mv.visitVarInsn(ALOAD, 3);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 5);
+      invokeRuntime(mv, "toList", "(Ljava/lang/Object;)Ljava/util/List;");
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "addAll", "(Ljava/util/Collection;)Z", true);
+      mv.visitInsn(POP);
+      mv.visitJumpInsn(GOTO, loop);
+      mv.visitLabel(notArray);
+      mv.visitVarInsn(ALOAD, 3);
+      mv.visitVarInsn(ALOAD, 5);
+      emitListAdd(mv);
+      mv.visitJumpInsn(GOTO, loop);
+      emitLoopEnd(mv, done);
+      mv.visitLabel(returnNull);
+      emitReturnNull(mv);
+    }
+
+    private void emitFlattenObject(MethodVisitor mv) {
+      Label returnNull = new Label();
+      emitTypeCheck(mv, 1, "OBJECT", returnNull);
+      loadRuntime(mv);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 1);
+      invokeRuntime(mv, "toList", "(Ljava/lang/Object;)Ljava/util/List;");
+      invokeRuntime(mv, "createArray", "(Ljava/util/Collection;)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+      mv.visitLabel(returnNull);
+      emitReturnNull(mv);
+    }
+
+    private void emitAndOr(MethodVisitor mv, List<Expression<T>> operands, boolean and) {
+      Label returnLeft = new Label();
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, operands.get(0));
+      mv.visitVarInsn(ASTORE, 2);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 2);
+      invokeRuntime(mv, "isTruthy", "(Ljava/lang/Object;)Z");
+      mv.visitJumpInsn(and ? IFEQ : IFNE, returnLeft);
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, operands.get(1));
+      mv.visitInsn(ARETURN);
+      mv.visitLabel(returnLeft);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitInsn(ARETURN);
+    }
+
+    private void emitNegate(MethodVisitor mv, NegateNode<T> node) {
+      loadRuntime(mv);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, node.negated());
+      invokeRuntime(mv, "isTruthy", "(Ljava/lang/Object;)Z");
+      mv.visitInsn(ICONST_1);
+      mv.visitInsn(IXOR);
+      invokeRuntime(mv, "createBoolean", "(Z)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+    }
+
+    private void emitComparison(MethodVisitor mv, ComparisonNode<T> node) {
+      Operator operator = node.operator();
+      Label compareObjects = new Label();
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, node.operands().get(0));
+      mv.visitVarInsn(ASTORE, 2);
+      mv.visitVarInsn(ALOAD, 1);
+      emitSearch(mv, node.operands().get(1));
+      mv.visitVarInsn(ASTORE, 3);
+      emitTypeCheck(mv, 2, "NUMBER", compareObjects);
+      emitTypeCheck(mv, 3, "NUMBER", compareObjects);
+      emitCompare(mv, operator);
+      mv.visitLabel(compareObjects);
+      if (operator == Operator.EQUALS || operator == Operator.NOT_EQUALS) {
+        emitCompare(mv, operator);
+      } else {
+        emitReturnNull(mv);
+      }
+    }
+
+    private void emitCompare(MethodVisitor mv, Operator operator) {
+      Label isFalse = new Label();
+      Label createBoolean = new Label();
+      loadRuntime(mv);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitVarInsn(ALOAD, 3);
+      invokeRuntime(mv, "compare", "(Ljava/lang/Object;Ljava/lang/Object;)I");
+      switch (operator) {
+        case EQUALS:
+          mv.visitJumpInsn(IFNE, isFalse);
+          break;
+        case NOT_EQUALS:
+          mv.visitJumpInsn(IFEQ, isFalse);
+          break;
+        case GREATER_THAN:
+          mv.visitJumpInsn(IFLE, isFalse);
+          break;
+        case GREATER_THAN_OR_EQUALS:
+          mv.visitJumpInsn(IFLT, isFalse);
+          break;
+        case LESS_THAN:
+          mv.visitJumpInsn(IFGE, isFalse);
+          break;
+        case LESS_THAN_OR_EQUALS:
+          mv.visitJumpInsn(IFGT, isFalse);
+          break;
+        default:
+          throw new IllegalStateException(String.format("Unknown operator encountered: %s", operator));
+      }
+      mv.visitInsn(ICONST_1);
+      mv.visitJumpInsn(GOTO, createBoolean);
+      mv.visitLabel(isFalse);
+      mv.visitInsn(ICONST_0);
+      mv.visitLabel(createBoolean);
+      invokeRuntime(mv, "createBoolean", "(Z)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+    }
+
+    private void emitFunctionCall(MethodVisitor mv, FunctionCallNode<T> node) {
+      List<Expression<T>> args = node.args();
+      if (!node.argumentsChecked() && args.size() >= 1 && args.size() <= 3 && !hasExpressionReference(args)) {
+        loadConstant(mv, node.implementation(), FUNCTION_DESCRIPTOR);
+        loadRuntime(mv);
+        StringBuilder descriptor = new StringBuilder("(L").append(ADAPTER).append(';');
+        for (Expression<T> arg : args) {
+          mv.visitVarInsn(ALOAD, 1);
+          emitSearch(mv, arg);
+          descriptor.append(OBJECT_DESCRIPTOR);
+        }
+        descriptor.append(')').append(OBJECT_DESCRIPTOR);
+        mv.visitMethodInsn(INVOKEINTERFACE, FUNCTION, "call" + args.size(), descriptor.toString(), true);
+        mv.visitInsn(ARETURN);
+        return;
+      }
+      emitNewList(mv, args.size(), 2);
+      for (Expression<T> arg : args) {
+        mv.visitVarInsn(ALOAD, 2);
+        if (arg instanceof ExpressionReferenceNode) {
+          Expression<T> compiledArg = compile(((ExpressionReferenceNode<T>) arg).expression());
+          loadConstant(mv, FunctionArgument.of(compiledArg), FUNCTION_ARGUMENT_DESCRIPTOR);
+        } else {
+          mv.visitVarInsn(ALOAD, 1);
+          emitSearch(mv, arg);
+          mv.visitMethodInsn(INVOKESTATIC, FUNCTION_ARGUMENT, "of", "(Ljava/lang/Object;)" + FUNCTION_ARGUMENT_DESCRIPTOR, false);
+        }
+        emitListAdd(mv);
+      }
+      loadConstant(mv, node.implementation(), FUNCTION_DESCRIPTOR);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 2);
+      String method = node.argumentsChecked() ? "callUnchecked" : "call";
+      mv.visitMethodInsn(INVOKEINTERFACE, FUNCTION, method, "(L" + ADAPTER + ";Ljava/util/List;)Ljava/lang/Object;", true);
+      mv.visitInsn(ARETURN);
+    }
+
+    private boolean hasExpressionReference(List<Expression<T>> args) {
+      for (Expression<T> arg : args) {
+        if (arg instanceof ExpressionReferenceNode) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void emitCreateArray(MethodVisitor mv, CreateArrayNode<T> node) {
+      Label returnInput = new Label();
+      emitNullCheck(mv, returnInput);
+      List<Expression<T>> entries = node.entries();
+      emitNewList(mv, entries.size(), 2);
+      for (Expression<T> entry : entries) {
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 1);
+        emitSearch(mv, entry);
+        emitListAdd(mv);
+      }
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 2);
+      invokeRuntime(mv, "createArray", "(Ljava/util/Collection;)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+      mv.visitLabel(returnInput);
+      mv.visitVarInsn(ALOAD, 1);
+      mv.visitInsn(ARETURN);
+    }
+
+    private void emitCreateObject(MethodVisitor mv, CreateObjectNode<T> node) {
+      Label returnInput = new Label();
+      emitNullCheck(mv, returnInput);
+      mv.visitTypeInsn(NEW, LINKED_HASH_MAP);
+      mv.visitInsn(DUP);
+      mv.visitMethodInsn(INVOKESPECIAL, LINKED_HASH_MAP, "<init>", "()V", false);
+      mv.visitVarInsn(ASTORE, 2);
+      for (CreateObjectNode.Entry<T> entry : node.entries()) {
+        mv.visitVarInsn(ALOAD, 2);
+        loadConstant(mv, runtime.createString(entry.key()), OBJECT_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 1);
+        emitSearch(mv, entry.value());
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+        mv.visitInsn(POP);
+      }
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 2);
+      invokeRuntime(mv, "createObject", "(Ljava/util/Map;)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+      mv.visitLabel(returnInput);
+      mv.visitVarInsn(ALOAD, 1);
+      mv.visitInsn(ARETURN);
+    }
+
+    /**
+     * Emits the start of a loop over the elements of the input array: the
+     * elements are in local 2, the results list in local 3, the iterator in
+     * local 4 and the current element is left on the stack.
+     */
+    private void emitLoopStart(MethodVisitor mv, Label loop, Label done) {
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 1);
+      invokeRuntime(mv, "toList", "(Ljava/lang/Object;)Ljava/util/List;");
+      mv.visitVarInsn(ASTORE, 2);
+      mv.visitTypeInsn(NEW, ARRAY_LIST);
+      mv.visitInsn(DUP);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "size", "()I", true);
+      mv.visitMethodInsn(INVOKESPECIAL, ARRAY_LIST, "<init>", "(I)V", false);
+      mv.visitVarInsn(ASTORE, 3);
+      mv.visitVarInsn(ALOAD, 2);
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "iterator", "()Ljava/util/Iterator;", true);
+      mv.visitVarInsn(ASTORE, 4);
+      mv.visitLabel(loop);
+      mv.visitVarInsn(ALOAD, 4);
+      mv.visitMethodInsn(INVOKEINTERFACE, ITERATOR, "hasNext", "()Z", true);
+      mv.visitJumpInsn(IFEQ, done);
+      mv.visitVarInsn(ALOAD, 4);
+      mv.visitMethodInsn(INVOKEINTERFACE, ITERATOR, "next", "()Ljava/lang/Object;", true);
+    }
+
+    /**
+     * Emits the end of a loop started with {@link #emitLoopStart}, which
+     * returns the results list as an array.
+     */
+    private void emitLoopEnd(MethodVisitor mv, Label done) {
+      mv.visitLabel(done);
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 3);
+      invokeRuntime(mv, "createArray", "(Ljava/util/Collection;)Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+    }
+
+    private void emitNewList(MethodVisitor mv, int size, int local) {
+      mv.visitTypeInsn(NEW, ARRAY_LIST);
+      mv.visitInsn(DUP);
+      mv.visitLdcInsn(size);
+      mv.visitMethodInsn(INVOKESPECIAL, ARRAY_LIST, "<init>", "(I)V", false);
+      mv.visitVarInsn(ASTORE, local);
+    }
+
+    private void emitListAdd(MethodVisitor mv) {
+      mv.visitMethodInsn(INVOKEINTERFACE, LIST, "add", "(Ljava/lang/Object;)Z", true);
+      mv.visitInsn(POP);
+    }
+
+    private void emitTypeCheck(MethodVisitor mv, int local, String type, Label otherwise) {
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, local);
+      invokeRuntime(mv, "typeOf", "(Ljava/lang/Object;)" + JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitFieldInsn(GETSTATIC, JMESPATH_TYPE, type, JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitJumpInsn(IF_ACMPNE, otherwise);
+    }
+
+    private void emitNullCheck(MethodVisitor mv, Label isNull) {
+      loadRuntime(mv);
+      mv.visitVarInsn(ALOAD, 1);
+      invokeRuntime(mv, "typeOf", "(Ljava/lang/Object;)" + JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitFieldInsn(GETSTATIC, JMESPATH_TYPE, "NULL", JMESPATH_TYPE_DESCRIPTOR);
+      mv.visitJumpInsn(IF_ACMPEQ, isNull);
+    }
+
+    private void emitReturnNull(MethodVisitor mv) {
+      loadRuntime(mv);
+      invokeRuntime(mv, "createNull", "()Ljava/lang/Object;");
+      mv.visitInsn(ARETURN);
+    }
+
+    private void loadRuntime(MethodVisitor mv) {
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitFieldInsn(GETFIELD, className, "runtime", runtimeDescriptor);
+    }
+
+    private void invokeRuntime(MethodVisitor mv, String name, String descriptor) {
+      if (runtimeIsInterface) {
+        mv.visitMethodInsn(INVOKEINTERFACE, runtimeType, name, descriptor, true);
+      } else {
+        mv.visitMethodInsn(INVOKEVIRTUAL, runtimeType, name, descriptor, false);
+      }
+    }
+
+    /**
+     * Adds the value to the constants of the generated class, the constants
+     * are passed to the constructor and kept in final fields.
+     */
+    private void loadConstant(MethodVisitor mv, Object value, String descriptor) {
+      int index = constants.size();
+      constants.add(value);
+      constantDescriptors.add(descriptor);
+      classWriter.visitField(ACC_PRIVATE | ACC_FINAL, "c" + index, descriptor, null, null).visitEnd();
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitFieldInsn(GETFIELD, className, "c" + index, descriptor);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package io.burt.jmespath.bytecode;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Base class of the expression classes generated by {@link BytecodeCompiler}.
+ * <p>
+ * Compiled expressions are equal when the expressions they were compiled from
+ * are equal.
+ */
+public abstract class CompiledExpression<T> implements Expression<T> {
+  private final Expression<T> source;
+
+  protected CompiledExpression(Expression<T> source) {
+    this.source = source;
+  }
+
+  /**
+   * Returns the expression that this expression was compiled from.
+   */
+  public Expression<T> source() {
+    return source;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Compiled(%s)", source);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompiledExpression)) {
+      return false;
+    }
+    CompiledExpression<?> other = (CompiledExpression<?>) o;
+    return source.equals(other.source);
+  }
+
+  @Override
+  public int hashCode() {
+    return source.hashCode();
+  }
+}
@@ -27,6 +27,23 @@ public interface ArgumentConstraint {
    */
   <T> Iterator<ArgumentError> check(Adapter<T> runtime, Iterator<FunctionArgument<T>> arguments, boolean expectNoRemainingArguments);
 
+  /**
+   * Check that arguments of the specified types comply with the constraints
+   * whatever their values turn out to be.
+   * <p>
+   * This is used when an expression is compiled, and when it returns true
+   * the arguments will not be checked again when the function is called. It
+   * must return false when the arguments don't comply, and when it can't be
+   * known whether they do. Types are consumed from the iterator in the same
+   * way as {@link #check} consumes arguments.
+   * <p>
+   * The default implementation returns false, which means that the arguments
+   * are always checked when the function is called.
+   */
+  default boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+    return false;
+  }
+
   /**
    * @return the minimum number of arguments required.
    */
@@ -134,6 +134,10 @@ public final class ArgumentConstraints {
       }
     }
 
+    protected boolean noRemainingArgumentTypes(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      return !(expectNoRemainingArguments && argumentTypes.hasNext());
+    }
+
     @Override
     public int minArity() {
       return minArity;
@@ -194,6 +198,22 @@ public final class ArgumentConstraints {
       }
       return checkNoRemainingArguments(arguments, expectNoRemainingArguments);
     }
+
+    @Override
+    public boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      int i = 0;
+      for (; i < minArity(); i++) {
+        if (!argumentTypes.hasNext() || !subConstraint.isSatisfiedBy(argumentTypes, false)) {
+          return false;
+        }
+      }
+      for (; i < maxArity() && argumentTypes.hasNext(); i++) {
+        if (!subConstraint.isSatisfiedBy(argumentTypes, false)) {
+          return false;
+        }
+      }
+      return noRemainingArgumentTypes(argumentTypes, expectNoRemainingArguments);
+    }
   }
 
   private static class HeterogeneousListOf extends BaseArgumentConstraint {
@@ -234,6 +254,16 @@ public final class ArgumentConstraints {
       }
       return checkNoRemainingArguments(arguments, expectNoRemainingArguments);
     }
+
+    @Override
+    public boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      for (ArgumentConstraint subConstraint : subConstraints) {
+        if (!argumentTypes.hasNext() || !subConstraint.isSatisfiedBy(argumentTypes, false)) {
+          return false;
+        }
+      }
+      return noRemainingArgumentTypes(argumentTypes, expectNoRemainingArguments);
+    }
   }
 
   private static class VariadicListOf extends BaseArgumentConstraint {
@@ -260,6 +290,17 @@ public final class ArgumentConstraints {
       }
     }
 
+    @Override
+    public boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      int i = 0;
+      for (; argumentTypes.hasNext(); i++) {
+        if (!subConstraint.isSatisfiedBy(argumentTypes, false)) {
+          return false;
+        }
+      }
+      return i >= minArity();
+    }
+
     @Override
     public boolean arityViolated(int n) { return n < minArity(); }
   }
@@ -285,6 +326,15 @@ public final class ArgumentConstraints {
     }
 
     protected abstract <T> Iterator<ArgumentError> checkType(Adapter<T> runtime, FunctionArgument<T> argument);
+
+    @Override
+    public boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      return argumentTypes.hasNext()
+        && isSatisfiedBy(argumentTypes.next())
+        && noRemainingArgumentTypes(argumentTypes, expectNoRemainingArguments);
+    }
+
+    protected abstract boolean isSatisfiedBy(ArgumentType argumentType);
   }
 
   private static class AnyValue extends TypeCheck {
@@ -300,6 +350,11 @@ public final class ArgumentConstraints {
         return emptyIterator();
       }
     }
+
+    @Override
+    protected boolean isSatisfiedBy(ArgumentType argumentType) {
+      return !argumentType.isExpression();
+    }
   }
 
   private static class TypeOf extends TypeCheck {
@@ -322,6 +377,11 @@ public final class ArgumentConstraints {
       }
       return emptyIterator();
     }
+
+    @Override
+    protected boolean isSatisfiedBy(ArgumentType argumentType) {
+      return argumentType.type() == expectedType;
+    }
   }
 
   private static class TypeOfEither extends TypeCheck {
@@ -359,6 +419,16 @@ public final class ArgumentConstraints {
         return singletonIterator((ArgumentError) ArgumentError.createArgumentTypeError(expectedType(), actualType.toString()));
       }
     }
+
+    @Override
+    protected boolean isSatisfiedBy(ArgumentType argumentType) {
+      for (int i = 0; i < expectedTypes.length; i++) {
+        if (expectedTypes[i] == argumentType.type()) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 
   private static class Expression extends TypeCheck {
@@ -374,6 +444,11 @@ public final class ArgumentConstraints {
         return emptyIterator();
       }
     }
+
+    @Override
+    protected boolean isSatisfiedBy(ArgumentType argumentType) {
+      return argumentType.isExpression();
+    }
   }
 
   private static class ArrayOf extends BaseArgumentConstraint {
@@ -408,6 +483,23 @@ public final class ArgumentConstraints {
       }
     }
 
+    /**
+     * The elements of an array must all have the same type, so the element
+     * type must be known even when the sub constraint accepts any value.
+     */
+    @Override
+    public boolean isSatisfiedBy(Iterator<ArgumentType> argumentTypes, boolean expectNoRemainingArguments) {
+      if (argumentTypes.hasNext()) {
+        ArgumentType argumentType = argumentTypes.next();
+        return argumentType.type() == JmesPathType.ARRAY
+          && argumentType.elementType().type() != null
+          && subConstraint.isSatisfiedBy(Collections.singleton(argumentType.elementType()).iterator(), true)
+          && noRemainingArgumentTypes(argumentTypes, expectNoRemainingArguments);
+      } else {
+        return false;
+      }
+    }
+
     private <T> Iterator<ArgumentError> checkElements(Adapter<T> runtime, T value) {
       List<T> elements = runtime.toList(value);
       if (!elements.isEmpty()) {
@@ -0,0 +1,111 @@
+package io.burt.jmespath.function;
+
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * Describes what is known about a function argument before the function is
+ * called, i.e. when the expression that calls it is compiled.
+ * <p>
+ * An argument is either an expression, or a value. The type of a value is
+ * known when it is produced by a literal, or by a function that always returns
+ * the same type, and the type of the elements of an array is known when all
+ * of them have the same type.
+ *
+ * @see ArgumentConstraint#isSatisfiedBy
+ */
+public final class ArgumentType {
+  private static final ArgumentType EXPRESSION = new ArgumentType(true, null, null);
+  private static final ArgumentType ANY_VALUE = new ArgumentType(false, null, null);
+
+  private final boolean expression;
+  private final JmesPathType type;
+  private final ArgumentType elementType;
+
+  private ArgumentType(boolean expression, JmesPathType type, ArgumentType elementType) {
+    this.expression = expression;
+    this.type = type;
+    this.elementType = elementType;
+  }
+
+  /**
+   * An expression argument.
+   */
+  public static ArgumentType expression() {
+    return EXPRESSION;
+  }
+
+  /**
+   * A value argument whose type is not known.
+   */
+  public static ArgumentType anyValue() {
+    return ANY_VALUE;
+  }
+
+  /**
+   * A value argument of the specified type. When the type is array the type of
+   * its elements is not known.
+   */
+  public static ArgumentType of(JmesPathType type) {
+    return new ArgumentType(false, type, type == JmesPathType.ARRAY ? ANY_VALUE : null);
+  }
+
+  /**
+   * An array argument whose elements all are of the specified type.
+   */
+  public static ArgumentType arrayOf(ArgumentType elementType) {
+    return new ArgumentType(false, JmesPathType.ARRAY, elementType);
+  }
+
+  public boolean isExpression() {
+    return expression;
+  }
+
+  /**
+   * @return the type of the value, or null when the argument is an expression
+   *   or the type is not known
+   */
+  public JmesPathType type() {
+    return type;
+  }
+
+  /**
+   * @return the type of the elements when the argument is an array, or null
+   *   when it is not
+   */
+  public ArgumentType elementType() {
+    return elementType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof ArgumentType)) {
+      return false;
+    }
+    ArgumentType other = (ArgumentType) o;
+    return expression == other.expression
+      && type == other.type
+      && (elementType == null ? other.elementType == null : elementType.equals(other.elementType));
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+    h = h * 31 + (expression ? 1 : 0);
+    h = h * 31 + (type == null ? 0 : type.hashCode());
+    h = h * 31 + (elementType == null ? 0 : elementType.hashCode());
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    if (expression) {
+      return "expression";
+    } else if (type == null) {
+      return "any value";
+    } else if (type == JmesPathType.ARRAY) {
+      return String.format("array of %s", elementType);
+    } else {
+      return type.toString();
+    }
+  }
+}
@@ -10,6 +10,30 @@ public class AvgFunction extends ArrayMathFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
   }
 
+  /**
+   * Checks the type of each element while summing, and falls back on the
+   * regular argument checks to report errors.
+   */
+  @Override
+  public <T> T call1(Adapter<T> runtime, T array) {
+    if (runtime.typeOf(array) == JmesPathType.ARRAY) {
+      List<T> values = runtime.toList(array);
+      if (values.isEmpty()) {
+        return runtime.createNull();
+      }
+      double sum = 0;
+      for (T n : values) {
+        if (runtime.typeOf(n) != JmesPathType.NUMBER) {
+          return super.call1(runtime, array);
+        }
+        sum += runtime.doubleValue(n);
+      }
+      return runtime.createNumber(sum/values.size());
+    } else {
+      return super.call1(runtime, array);
+    }
+  }
+
   @Override
   protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
     if (values.isEmpty()) {
@@ -18,7 +42,7 @@ public class AvgFunction extends ArrayMathFunction {
       double sum = 0;
       int count = 0;
       for (T n : values) {
-        sum += runtime.toNumber(n).doubleValue();
+        sum += runtime.doubleValue(n);
         count += 1;
       }
       return runtime.createNumber(sum/count);
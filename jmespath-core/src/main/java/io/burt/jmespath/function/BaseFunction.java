@@ -128,6 +128,15 @@ public abstract class BaseFunction implements Function {
     }
   }
 
+  /**
+   * Call this function with a list of arguments that are known to comply with
+   * the function's argument constraints, without checking them again.
+   */
+  @Override
+  public <T> T callUnchecked(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return callFunction(runtime, arguments);
+  }
+
   /**
    * Called from {@link #call} after the argument constraints have been checked
    * against the arguments.
@@ -1,5 +1,7 @@
 package io.burt.jmespath.function;
 
+import java.util.List;
+
 import io.burt.jmespath.Adapter;
 
 /**
@@ -12,6 +14,22 @@ public abstract class CompareByFunction extends TransformByFunction {
    */
   protected abstract boolean sortsBefore(int compareResult);
 
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    List<T> elements = runtime.toList(arguments.get(0).value());
+    SortKeys keys = extractSortKeys(runtime, elements, arguments.get(1).expression());
+    if (keys == null) {
+      return super.callFunction(runtime, arguments);
+    }
+    int result = 0;
+    for (int i = 1; i < keys.size(); i++) {
+      if (sortsBefore(keys.compare(i, result))) {
+        result = i;
+      }
+    }
+    return elements.get(result);
+  }
+
   @Override
   protected <T> TransformByFunction.Aggregator<T> createAggregator(Adapter<T> runtime, int elementCount, T element, T elementValue) {
     return new ComparingAggregator<T>(runtime, element, elementValue);
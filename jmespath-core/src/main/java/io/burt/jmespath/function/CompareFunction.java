@@ -20,6 +20,37 @@ public abstract class CompareFunction extends ArrayMathFunction {
    */
   protected abstract boolean sortsBefore(int compareResult);
 
+  /**
+   * Checks that the elements are all numbers or all strings while comparing
+   * them, and falls back on the regular argument checks to report errors.
+   */
+  @Override
+  public <T> T call1(Adapter<T> runtime, T array) {
+    if (runtime.typeOf(array) == JmesPathType.ARRAY) {
+      Iterator<T> vs = runtime.toList(array).iterator();
+      if (!vs.hasNext()) {
+        return runtime.createNull();
+      }
+      T result = vs.next();
+      JmesPathType type = runtime.typeOf(result);
+      if (type != JmesPathType.NUMBER && type != JmesPathType.STRING) {
+        return super.call1(runtime, array);
+      }
+      while (vs.hasNext()) {
+        T candidate = vs.next();
+        if (runtime.typeOf(candidate) != type) {
+          return super.call1(runtime, array);
+        }
+        if (sortsBefore(runtime.compare(candidate, result))) {
+          result = candidate;
+        }
+      }
+      return result;
+    } else {
+      return super.call1(runtime, array);
+    }
+  }
+
   @Override
   protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
     if (values.isEmpty()) {
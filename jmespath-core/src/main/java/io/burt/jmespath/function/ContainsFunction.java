@@ -5,6 +5,12 @@ import java.util.List;
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 
+/**
+ * Elements of an array are compared to the needle with {@link Adapter#compare},
+ * like <code>==</code> does. When the haystack is a literal array the node
+ * factory indexes it with a {@link io.burt.jmespath.util.ValueSet} when the
+ * expression is compiled.
+ */
 public class ContainsFunction extends BaseFunction {
   public ContainsFunction() {
     super(
@@ -13,13 +19,35 @@ public class ContainsFunction extends BaseFunction {
     );
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.BOOLEAN);
+  }
+
+  @Override
+  public <T> T call2(Adapter<T> runtime, T haystack, T needle) {
+    JmesPathType haystackType = runtime.typeOf(haystack);
+    if (haystackType == JmesPathType.ARRAY || haystackType == JmesPathType.STRING) {
+      return contains(runtime, haystack, needle);
+    } else {
+      return super.call2(runtime, haystack, needle);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T haystack = arguments.get(0).value();
-    T needle = arguments.get(1).value();
+    return contains(runtime, arguments.get(0).value(), arguments.get(1).value());
+  }
+
+  private static <T> T contains(Adapter<T> runtime, T haystack, T needle) {
     JmesPathType haystackType = runtime.typeOf(haystack);
     if (haystackType == JmesPathType.ARRAY) {
-      return runtime.createBoolean(runtime.toList(haystack).contains(needle));
+      for (T element : runtime.toList(haystack)) {
+        if (runtime.compare(element, needle) == 0) {
+          return runtime.createBoolean(true);
+        }
+      }
+      return runtime.createBoolean(false);
     } else {
       return runtime.createBoolean(runtime.toString(haystack).contains(runtime.toString(needle)));
     }
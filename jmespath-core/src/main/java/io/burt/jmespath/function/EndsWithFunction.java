@@ -13,10 +13,26 @@ public class EndsWithFunction extends BaseFunction {
     );
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.BOOLEAN);
+  }
+
+  @Override
+  public <T> T call2(Adapter<T> runtime, T subject, T suffix) {
+    if (runtime.typeOf(subject) == JmesPathType.STRING && runtime.typeOf(suffix) == JmesPathType.STRING) {
+      return endsWith(runtime, subject, suffix);
+    } else {
+      return super.call2(runtime, subject, suffix);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T subject = arguments.get(0).value();
-    T suffix = arguments.get(1).value();
+    return endsWith(runtime, arguments.get(0).value(), arguments.get(1).value());
+  }
+
+  private static <T> T endsWith(Adapter<T> runtime, T subject, T suffix) {
     return runtime.createBoolean(runtime.toString(subject).endsWith(runtime.toString(suffix)));
   }
 }
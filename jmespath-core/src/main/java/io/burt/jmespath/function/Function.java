@@ -1,5 +1,6 @@
 package io.burt.jmespath.function;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
@@ -35,4 +36,66 @@ public interface Function {
    * @throws ArityException when the function is called with the wrong number of arguments
    */
   <T> T call(Adapter<T> runtime, List<FunctionArgument<T>> arguments);
+
+  /**
+   * Call this function with a list of arguments that are known to comply with
+   * the function's argument constraints, which means that checking them again
+   * can be skipped.
+   * <p>
+   * This is used for calls whose arguments were checked by
+   * {@link ArgumentConstraint#isSatisfiedBy} when the expression was compiled.
+   * The default implementation calls {@link #call(Adapter, List)}.
+   */
+  default <T> T callUnchecked(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return call(runtime, arguments);
+  }
+
+  /**
+   * Returns the type of the values returned by this function when it is called
+   * with arguments that comply with its argument constraints.
+   * <p>
+   * This is used to check the constraints of function calls that have calls to
+   * this function as arguments when the expression is compiled. The default
+   * implementation returns {@link ArgumentType#anyValue}, which means that the
+   * type is not known. Functions that override this method must always return
+   * values of that type, they must for example not return null for some inputs.
+   */
+  default ArgumentType resultType() {
+    return ArgumentType.anyValue();
+  }
+
+  /**
+   * Call this function with a single value argument.
+   * <p>
+   * This is the same as calling {@link #call(Adapter, List)} with a list that
+   * contains the argument, which is what the default implementation does.
+   * Functions can override this method to avoid allocating the list when they
+   * are called from an expression with one argument.
+   */
+  default <T> T call1(Adapter<T> runtime, T argument) {
+    List<FunctionArgument<T>> arguments = new ArrayList<>(1);
+    arguments.add(FunctionArgument.of(argument));
+    return call(runtime, arguments);
+  }
+
+  /**
+   * Call this function with two value arguments, see {@link #call1}.
+   */
+  default <T> T call2(Adapter<T> runtime, T argument1, T argument2) {
+    List<FunctionArgument<T>> arguments = new ArrayList<>(2);
+    arguments.add(FunctionArgument.of(argument1));
+    arguments.add(FunctionArgument.of(argument2));
+    return call(runtime, arguments);
+  }
+
+  /**
+   * Call this function with three value arguments, see {@link #call1}.
+   */
+  default <T> T call3(Adapter<T> runtime, T argument1, T argument2, T argument3) {
+    List<FunctionArgument<T>> arguments = new ArrayList<>(3);
+    arguments.add(FunctionArgument.of(argument1));
+    arguments.add(FunctionArgument.of(argument2));
+    arguments.add(FunctionArgument.of(argument3));
+    return call(runtime, arguments);
+  }
 }
@@ -14,6 +14,37 @@ public class JoinFunction extends BaseFunction {
     );
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.STRING);
+  }
+
+  /**
+   * Checks that the components are strings while joining them, and falls back
+   * on the regular argument checks to report errors.
+   */
+  @Override
+  public <T> T call2(Adapter<T> runtime, T glue, T components) {
+    if (runtime.typeOf(glue) == JmesPathType.STRING && runtime.typeOf(components) == JmesPathType.ARRAY) {
+      String glueString = runtime.toString(glue);
+      StringBuilder buffer = new StringBuilder();
+      boolean first = true;
+      for (T component : runtime.toList(components)) {
+        if (runtime.typeOf(component) != JmesPathType.STRING) {
+          return super.call2(runtime, glue, components);
+        }
+        if (!first) {
+          buffer.append(glueString);
+        }
+        buffer.append(runtime.toString(component));
+        first = false;
+      }
+      return runtime.createString(buffer.toString());
+    } else {
+      return super.call2(runtime, glue, components);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T glue = arguments.get(0).value();
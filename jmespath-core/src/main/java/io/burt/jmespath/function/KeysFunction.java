@@ -10,6 +10,11 @@ public class KeysFunction extends BaseFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.OBJECT));
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.arrayOf(ArgumentType.of(JmesPathType.STRING));
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     return runtime.createArray(runtime.getPropertyNames(arguments.get(0).value()));
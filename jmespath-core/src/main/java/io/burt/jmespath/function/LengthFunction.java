@@ -10,11 +10,28 @@ public class LengthFunction extends BaseFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.STRING, JmesPathType.ARRAY, JmesPathType.OBJECT));
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.NUMBER);
+  }
+
+  @Override
+  public <T> T call1(Adapter<T> runtime, T subject) {
+    JmesPathType subjectType = runtime.typeOf(subject);
+    if (subjectType == JmesPathType.STRING) {
+      return runtime.createNumber(runtime.stringLength(subject));
+    } else if (subjectType == JmesPathType.ARRAY || subjectType == JmesPathType.OBJECT) {
+      return runtime.createNumber(runtime.toList(subject).size());
+    } else {
+      return super.call1(runtime, subject);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T subject = arguments.get(0).value();
     if (runtime.typeOf(subject) == JmesPathType.STRING) {
-      return runtime.createNumber(runtime.toString(subject).length());
+      return runtime.createNumber(runtime.stringLength(subject));
     } else {
       return runtime.createNumber(runtime.toList(subject).size());
     }
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
 
 public class MapFunction extends BaseFunction {
   public MapFunction() {
@@ -14,6 +15,11 @@ public class MapFunction extends BaseFunction {
     );
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.ARRAY);
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     Expression<T> expression = arguments.get(0).expression();
@@ -14,6 +14,20 @@ public abstract class MathFunction extends BaseFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.NUMBER);
+  }
+
+  @Override
+  public <T> T call1(Adapter<T> runtime, T value) {
+    if (runtime.typeOf(value) == JmesPathType.NUMBER) {
+      return runtime.createNumber(performMathOperation(runtime.toNumber(value).doubleValue()));
+    } else {
+      return super.call1(runtime, value);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T value = arguments.get(0).value();
@@ -10,6 +10,21 @@ public class NotNullFunction extends BaseFunction {
     super(ArgumentConstraints.listOf(1, Integer.MAX_VALUE, ArgumentConstraints.anyValue()));
   }
 
+  @Override
+  public <T> T call1(Adapter<T> runtime, T argument) {
+    return runtime.typeOf(argument) != JmesPathType.NULL ? argument : runtime.createNull();
+  }
+
+  @Override
+  public <T> T call2(Adapter<T> runtime, T argument1, T argument2) {
+    return runtime.typeOf(argument1) != JmesPathType.NULL ? argument1 : call1(runtime, argument2);
+  }
+
+  @Override
+  public <T> T call3(Adapter<T> runtime, T argument1, T argument2, T argument3) {
+    return runtime.typeOf(argument1) != JmesPathType.NULL ? argument1 : call2(runtime, argument2, argument3);
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     for (FunctionArgument<T> argument : arguments) {
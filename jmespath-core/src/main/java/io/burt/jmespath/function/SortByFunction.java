@@ -8,6 +8,21 @@ import java.util.Comparator;
 import io.burt.jmespath.Adapter;
 
 public class SortByFunction extends TransformByFunction {
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    List<T> elements = runtime.toList(arguments.get(0).value());
+    SortKeys keys = extractSortKeys(runtime, elements, arguments.get(1).expression());
+    if (keys == null) {
+      return super.callFunction(runtime, arguments);
+    }
+    int[] indexes = keys.sortedIndexes();
+    List<T> sorted = new ArrayList<>(indexes.length);
+    for (int index : indexes) {
+      sorted.add(elements.get(index));
+    }
+    return runtime.createArray(sorted);
+  }
+
   @Override
   protected <T> TransformByFunction.Aggregator<T> createAggregator(Adapter<T> runtime, int elementCount, T element, T elementValue) {
     return new SortingAggregator<T>(runtime, elementCount, element, elementValue);
@@ -16,6 +16,32 @@ public class SortFunction extends BaseFunction {
     );
   }
 
+  /**
+   * Checks that the elements are all numbers or all strings while copying
+   * them, and falls back on the regular argument checks to report errors.
+   */
+  @Override
+  public <T> T call1(Adapter<T> runtime, T array) {
+    if (runtime.typeOf(array) == JmesPathType.ARRAY) {
+      List<T> values = runtime.toList(array);
+      List<T> elements = new ArrayList<>(values.size());
+      JmesPathType type = null;
+      for (T element : values) {
+        JmesPathType elementType = runtime.typeOf(element);
+        if (type == null && (elementType == JmesPathType.NUMBER || elementType == JmesPathType.STRING)) {
+          type = elementType;
+        } else if (elementType != type) {
+          return super.call1(runtime, array);
+        }
+        elements.add(element);
+      }
+      Collections.sort(elements, runtime);
+      return runtime.createArray(elements);
+    } else {
+      return super.call1(runtime, array);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     List<T> elements = new ArrayList<>(runtime.toList(arguments.get(0).value()));
@@ -13,10 +13,26 @@ public class StartsWithFunction extends BaseFunction {
     );
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.BOOLEAN);
+  }
+
+  @Override
+  public <T> T call2(Adapter<T> runtime, T subject, T prefix) {
+    if (runtime.typeOf(subject) == JmesPathType.STRING && runtime.typeOf(prefix) == JmesPathType.STRING) {
+      return startsWith(runtime, subject, prefix);
+    } else {
+      return super.call2(runtime, subject, prefix);
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T subject = arguments.get(0).value();
-    T prefix = arguments.get(1).value();
+    return startsWith(runtime, arguments.get(0).value(), arguments.get(1).value());
+  }
+
+  private static <T> T startsWith(Adapter<T> runtime, T subject, T prefix) {
     return runtime.createBoolean(runtime.toString(subject).startsWith(runtime.toString(prefix)));
   }
 }
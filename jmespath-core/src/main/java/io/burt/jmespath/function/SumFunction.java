@@ -10,11 +10,36 @@ public class SumFunction extends ArrayMathFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.NUMBER);
+  }
+
+  /**
+   * Checks the type of each element while summing, and falls back on the
+   * regular argument checks to report errors.
+   */
+  @Override
+  public <T> T call1(Adapter<T> runtime, T array) {
+    if (runtime.typeOf(array) == JmesPathType.ARRAY) {
+      double sum = 0;
+      for (T n : runtime.toList(array)) {
+        if (runtime.typeOf(n) != JmesPathType.NUMBER) {
+          return super.call1(runtime, array);
+        }
+        sum += runtime.doubleValue(n);
+      }
+      return runtime.createNumber(sum);
+    } else {
+      return super.call1(runtime, array);
+    }
+  }
+
   @Override
   protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
     double sum = 0;
     for (T n : values) {
-      sum += runtime.toNumber(n).doubleValue();
+      sum += runtime.doubleValue(n);
     }
     return runtime.createNumber(sum);
   }
@@ -12,6 +12,11 @@ public class ToArrayFunction extends BaseFunction {
     super(ArgumentConstraints.anyValue());
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.ARRAY);
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T subject = arguments.get(0).value();
@@ -11,8 +11,7 @@ public class ToNumberFunction extends BaseFunction {
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T subject = arguments.get(0).value();
+  public <T> T call1(Adapter<T> runtime, T subject) {
     JmesPathType subjectType = runtime.typeOf(subject);
     if (subjectType == JmesPathType.NUMBER) {
       return subject;
@@ -31,4 +30,9 @@ public class ToNumberFunction extends BaseFunction {
       return runtime.createNull();
     }
   }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return call1(runtime, arguments.get(0).value());
+  }
 }
@@ -11,12 +11,21 @@ public class ToStringFunction extends BaseFunction {
   }
 
   @Override
-  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    T subject = arguments.get(0).value();
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.STRING);
+  }
+
+  @Override
+  public <T> T call1(Adapter<T> runtime, T subject) {
     if (runtime.typeOf(subject) == JmesPathType.STRING) {
       return subject;
     } else {
       return runtime.createString(runtime.toString(subject));
     }
   }
+
+  @Override
+  protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+    return call1(runtime, arguments.get(0).value());
+  }
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 import io.burt.jmespath.Expression;
+import io.burt.jmespath.util.NumberComparison;
 
 /**
  * Helper base class for higher order comparison functions like sort_by, max_by and min_by.
@@ -49,6 +50,131 @@ public abstract class TransformByFunction extends BaseFunction {
     }
   }
 
+  /**
+   * Evaluates the expression against each element and extracts the results
+   * into {@link SortKeys}, or returns null when there are no elements or when
+   * the results are not all numbers or all strings.
+   * <p>
+   * Subclasses use this to compare the elements without going through the
+   * runtime, and fall back on {@link #callFunction} when it returns null, which
+   * reports type errors.
+   */
+  protected <T> SortKeys extractSortKeys(Adapter<T> runtime, List<T> elements, Expression<T> expression) {
+    int size = elements.size();
+    if (size == 0) {
+      return null;
+    }
+    T value = expression.search(elements.get(0));
+    JmesPathType type = runtime.typeOf(value);
+    if (type == JmesPathType.NUMBER) {
+      boolean[] integral = new boolean[size];
+      long[] integers = new long[size];
+      double[] numbers = new double[size];
+      for (int i = 0; i < size; i++) {
+        if (i > 0) {
+          value = expression.search(elements.get(i));
+          if (runtime.typeOf(value) != JmesPathType.NUMBER) {
+            return null;
+          }
+        }
+        if (runtime.isIntegral(value)) {
+          integral[i] = true;
+          integers[i] = runtime.longValue(value);
+        } else {
+          numbers[i] = runtime.doubleValue(value);
+        }
+      }
+      return new SortKeys(integral, integers, numbers, null);
+    } else if (type == JmesPathType.STRING) {
+      String[] strings = new String[size];
+      strings[0] = runtime.toString(value);
+      for (int i = 1; i < size; i++) {
+        value = expression.search(elements.get(i));
+        if (runtime.typeOf(value) != JmesPathType.STRING) {
+          return null;
+        }
+        strings[i] = runtime.toString(value);
+      }
+      return new SortKeys(null, null, null, strings);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * The sort keys of the elements of an array, extracted once into arrays of
+   * longs and doubles or an array of strings. Keys are compared like
+   * {@link io.burt.jmespath.BaseRuntime#compare} compares numbers and strings:
+   * numbers that are integers that fit in a long are read as longs, and other
+   * numbers as doubles.
+   */
+  protected static final class SortKeys {
+    private final boolean[] integral;
+    private final long[] integers;
+    private final double[] numbers;
+    private final String[] strings;
+
+    private SortKeys(boolean[] integral, long[] integers, double[] numbers, String[] strings) {
+      this.integral = integral;
+      this.integers = integers;
+      this.numbers = numbers;
+      this.strings = strings;
+    }
+
+    public int size() {
+      return numbers != null ? numbers.length : strings.length;
+    }
+
+    /**
+     * Compares the keys of the elements at the specified indexes.
+     */
+    public int compare(int i, int j) {
+      if (strings != null) {
+        return strings[i].compareTo(strings[j]);
+      } else if (integral[i] && integral[j]) {
+        return Long.compare(integers[i], integers[j]);
+      } else if (integral[i]) {
+        return NumberComparison.compare(integers[i], numbers[j]);
+      } else if (integral[j]) {
+        return -NumberComparison.compare(integers[j], numbers[i]);
+      } else {
+        return Double.compare(numbers[i], numbers[j]);
+      }
+    }
+
+    /**
+     * Returns the indexes of the elements in the order of their keys. The sort
+     * is stable, elements with equal keys keep their order.
+     */
+    public int[] sortedIndexes() {
+      int size = size();
+      int[] indexes = new int[size];
+      for (int i = 0; i < size; i++) {
+        indexes[i] = i;
+      }
+      int[] buffer = new int[size];
+      for (int width = 1; width < size; width *= 2) {
+        for (int start = 0; start < size - width; start += 2 * width) {
+          merge(indexes, buffer, start, start + width, Math.min(start + 2 * width, size));
+        }
+      }
+      return indexes;
+    }
+
+    private void merge(int[] indexes, int[] buffer, int start, int middle, int end) {
+      System.arraycopy(indexes, start, buffer, start, end - start);
+      int left = start;
+      int right = middle;
+      for (int i = start; i < end; i++) {
+        if (right >= end || (left < middle && compare(buffer[left], buffer[right]) <= 0)) {
+          indexes[i] = buffer[left++];
+        } else {
+          indexes[i] = buffer[right++];
+        }
+      }
+    }
+  }
+
   protected abstract <T> Aggregator<T> createAggregator(Adapter<T> runtime, int elementCount, T element, T elementValue);
 
   protected abstract <T> T createNullValue(Adapter<T> runtime);
@@ -3,14 +3,25 @@ package io.burt.jmespath.function;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
 
 public class TypeFunction extends BaseFunction {
   public TypeFunction() {
     super(ArgumentConstraints.anyValue());
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.STRING);
+  }
+
+  @Override
+  public <T> T call1(Adapter<T> runtime, T subject) {
+    return runtime.createString(runtime.typeOf(subject).toString());
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
-    return runtime.createString(runtime.typeOf(arguments.get(0).value()).toString());
+    return call1(runtime, arguments.get(0).value());
   }
 }
@@ -10,6 +10,11 @@ public class ValuesFunction extends BaseFunction {
     super(ArgumentConstraints.typeOf(JmesPathType.OBJECT));
   }
 
+  @Override
+  public ArgumentType resultType() {
+    return ArgumentType.of(JmesPathType.ARRAY);
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     return runtime.createArray(runtime.toList(arguments.get(0).value()));
@@ -1,13 +1,17 @@
 package io.burt.jmespath.jcf;
 
+import java.util.AbstractList;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Collection;
 import java.util.Collections;
 
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.util.StringEscapeHelper;
 
@@ -38,6 +42,58 @@ public class JcfRuntime extends BaseRuntime<Object> {
     return JsonParser.fromString(string, this);
   }
 
+  /**
+   * A read only list view of a collection that is not a list, like the values
+   * of a map. Iterating over the view iterates over the collection, and the
+   * elements are only copied the first time one of them is accessed by index.
+   * After that the view only uses the copy, so that its size, elements and
+   * iteration order agree even if the collection is modified.
+   * <p>
+   * Views are only used while searching, {@link #createArray} copies them so
+   * that results don't depend on the input.
+   */
+  private static class CollectionListView extends AbstractList<Object> {
+    private final Collection<Object> collection;
+    private volatile Object[] elements;
+
+    CollectionListView(Collection<Object> collection) {
+      this.collection = collection;
+    }
+
+    @Override
+    public Object get(int index) {
+      Object[] elements = this.elements;
+      if (elements == null) {
+        elements = collection.toArray();
+        this.elements = elements;
+      }
+      if (index < 0 || index >= elements.length) {
+        throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, elements.length));
+      }
+      return elements[index];
+    }
+
+    @Override
+    public int size() {
+      Object[] elements = this.elements;
+      return elements == null ? collection.size() : elements.length;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+      Object[] elements = this.elements;
+      if (elements == null) {
+        return Collections.unmodifiableCollection(collection).iterator();
+      } else {
+        return Collections.unmodifiableList(Arrays.asList(elements)).iterator();
+      }
+    }
+  }
+
+  /**
+   * Returns arrays that are lists as they are, and other arrays and the values
+   * of objects as read only views, without copying.
+   */
   @Override
   @SuppressWarnings("unchecked")
   public List<Object> toList(Object value) {
@@ -46,11 +102,11 @@ public class JcfRuntime extends BaseRuntime<Object> {
         if (value instanceof List) {
           return (List<Object>) value;
         } else {
-          return new ArrayList<>((Collection<Object>) value);
+          return new CollectionListView((Collection<Object>) value);
         }
       case OBJECT:
         Map<Object, Object> object = (Map<Object, Object>) value;
-        return new ArrayList<>(object.values());
+        return new CollectionListView(object.values());
       default:
         return Collections.emptyList();
     }
@@ -74,6 +130,31 @@ public class JcfRuntime extends BaseRuntime<Object> {
     }
   }
 
+  @Override
+  public double doubleValue(Object n) {
+    return ((Number) n).doubleValue();
+  }
+
+  @Override
+  public long longValue(Object n) {
+    return ((Number) n).longValue();
+  }
+
+  @Override
+  public boolean isIntegral(Object n) {
+    return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+  }
+
+  @Override
+  public boolean stringEquals(Object value, String str) {
+    return str.equals(value);
+  }
+
+  @Override
+  public int stringLength(Object str) {
+    return ((String) str).length();
+  }
+
   @Override
   public JmesPathType typeOf(Object value) {
     if (value == null) {
@@ -124,6 +205,38 @@ public class JcfRuntime extends BaseRuntime<Object> {
     }
   }
 
+  /**
+   * A key for looking up properties directly by name, created when
+   * {@link #getProperty(Object, Object)} has not been overridden.
+   */
+  private static final class DirectPropertyKey extends PropertyKey<Object> {
+    public DirectPropertyKey(String name, Object value) {
+      super(name, value);
+    }
+  }
+
+  @Override
+  public PropertyKey<Object> createPropertyKey(String name) {
+    if (overridesGetProperty(JcfRuntime.class)) {
+      return super.createPropertyKey(name);
+    } else {
+      return new DirectPropertyKey(name, createString(name));
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Object getProperty(Object value, PropertyKey<Object> key) {
+    if (!(key instanceof DirectPropertyKey)) {
+      return getProperty(value, key.value());
+    }
+    if (typeOf(value) == OBJECT) {
+      return ((Map<Object, Object>) value).get(key.name());
+    } else {
+      return null;
+    }
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public Collection<Object> getPropertyNames(Object value) {
@@ -141,7 +254,7 @@ public class JcfRuntime extends BaseRuntime<Object> {
 
   @Override
   public Object createArray(Collection<Object> elements) {
-    if (elements instanceof List) {
+    if (elements instanceof List && !(elements instanceof CollectionListView)) {
       return elements;
     } else {
       return new ArrayList<>(elements);
@@ -3,7 +3,19 @@ package io.burt.jmespath.node;
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
-
+import io.burt.jmespath.util.NumberComparison;
+
+/**
+ * A comparison of two values.
+ * <p>
+ * When one of the operands is a number literal, like in
+ * <code>[?price &gt; `100`]</code>, or a string literal that is compared for
+ * equality, like in <code>[?type == 'x']</code>, the literal is converted to a
+ * Java value once, and the other operand is compared with it using
+ * {@link Adapter#longValue}, {@link Adapter#doubleValue} or
+ * {@link Adapter#stringEquals} without going through {@link Adapter#compare}.
+ * The result is the same as with {@link io.burt.jmespath.BaseRuntime#compare}.
+ */
 public abstract class ComparisonNode<T> extends OperatorNode<T> {
   public static class EqualsNode<T> extends ComparisonNode<T> {
     public EqualsNode(Adapter<T> runtime, Expression<T> left, Expression<T> right) {
@@ -12,12 +24,12 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
     @Override
     protected T compareObjects(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) == 0);
+      return runtime.createBoolean(isSatisfiedBy(comparisonResult(leftResult, rightResult)));
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) == 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult == 0;
     }
 
     @Override
@@ -33,12 +45,12 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
     @Override
     protected T compareObjects(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) != 0);
+      return runtime.createBoolean(isSatisfiedBy(comparisonResult(leftResult, rightResult)));
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) != 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult != 0;
     }
 
     @Override
@@ -53,8 +65,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) > 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult > 0;
     }
 
     @Override
@@ -69,8 +81,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) >= 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult >= 0;
     }
 
     @Override
@@ -85,8 +97,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) < 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult < 0;
     }
 
     @Override
@@ -101,8 +113,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) <= 0);
+    protected boolean isSatisfiedBy(int comparisonResult) {
+      return comparisonResult <= 0;
     }
 
     @Override
@@ -111,8 +123,47 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
   }
 
+  private final int constantOperand;
+  private final T constant;
+  private final JmesPathType constantType;
+  private final boolean constantIsIntegral;
+  private final long constantLong;
+  private final double constantDouble;
+  private final String constantString;
+
   protected ComparisonNode(Adapter<T> runtime, Expression<T> left, Expression<T> right) {
     super(runtime, left, right);
+    if (isConstant(right)) {
+      this.constantOperand = 1;
+    } else if (isConstant(left)) {
+      this.constantOperand = 0;
+    } else {
+      this.constantOperand = -1;
+    }
+    this.constant = constantOperand == -1 ? null : operand(constantOperand).search(runtime.createNull());
+    this.constantType = constantOperand == -1 ? null : runtime.typeOf(constant);
+    this.constantIsIntegral = constantType == JmesPathType.NUMBER && runtime.isIntegral(constant);
+    this.constantLong = constantIsIntegral ? runtime.longValue(constant) : 0;
+    this.constantDouble = constantType == JmesPathType.NUMBER ? runtime.doubleValue(constant) : 0;
+    this.constantString = constantType == JmesPathType.STRING ? runtime.toString(constant) : null;
+  }
+
+  /**
+   * Returns true for literals that the comparison has a faster path for:
+   * numbers, and strings when the operator is equality or inequality, since
+   * strings can't be ordered.
+   */
+  private boolean isConstant(Expression<T> expression) {
+    if (expression instanceof JsonLiteralNode || expression instanceof StringNode) {
+      JmesPathType type = runtime.typeOf(expression.search(runtime.createNull()));
+      if (type == JmesPathType.NUMBER) {
+        return true;
+      } else if (type == JmesPathType.STRING) {
+        Operator operator = operator();
+        return operator == Operator.EQUALS || operator == Operator.NOT_EQUALS;
+      }
+    }
+    return false;
   }
 
   public static <U> Node<U> create(Adapter<U> runtime, Operator operator, Expression<U> left, Expression<U> right) {
@@ -136,6 +187,23 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
   @Override
   public T search(T input) {
+    if (constantOperand != -1) {
+      T result = operand(1 - constantOperand).search(input);
+      int comparison;
+      if (constantType == JmesPathType.STRING) {
+        comparison = runtime.stringEquals(result, constantString) ? 0 : -1;
+      } else if (runtime.typeOf(result) != JmesPathType.NUMBER) {
+        return constantOperand == 1 ? compareObjects(result, constant) : compareObjects(constant, result);
+      } else if (runtime.isIntegral(result)) {
+        long value = runtime.longValue(result);
+        comparison = constantIsIntegral ? Long.compare(value, constantLong) : NumberComparison.compare(value, constantDouble);
+      } else if (constantIsIntegral) {
+        comparison = -NumberComparison.compare(constantLong, runtime.doubleValue(result));
+      } else {
+        comparison = Double.compare(runtime.doubleValue(result), constantDouble);
+      }
+      return runtime.createBoolean(isSatisfiedBy(constantOperand == 1 ? comparison : -comparison));
+    }
     T leftResult = operand(0).search(input);
     T rightResult = operand(1).search(input);
     JmesPathType leftType = runtime.typeOf(leftResult);
@@ -155,7 +223,15 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     return runtime.createNull();
   }
 
-  protected abstract T compareNumbers(T leftResult, T rightResult);
+  protected T compareNumbers(T leftResult, T rightResult) {
+    return runtime.createBoolean(isSatisfiedBy(comparisonResult(leftResult, rightResult)));
+  }
+
+  /**
+   * Returns whether the operator holds for two values that compare like
+   * {@link Adapter#compare} returned the argument.
+   */
+  protected abstract boolean isSatisfiedBy(int comparisonResult);
 
   @Override
   protected String internalToString() {
@@ -164,6 +240,10 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
   protected abstract String operatorToString();
 
+  public Operator operator() {
+    return Operator.fromString(operatorToString());
+  }
+
   @Override
   protected int internalHashCode() {
     return operatorToString().hashCode();
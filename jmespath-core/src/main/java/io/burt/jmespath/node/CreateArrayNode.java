@@ -15,6 +15,10 @@ public class CreateArrayNode<T> extends Node<T> {
     this.entries = new ArrayList<>(entries);
   }
 
+  public List<Expression<T>> entries() {
+    return entries;
+  }
+
   @Override
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.NULL) {
@@ -20,11 +20,11 @@ public class CreateObjectNode<T> extends Node<T> {
       this.value = value;
     }
 
-    protected String key() {
+    public String key() {
       return key;
     }
 
-    protected Expression<U> value() {
+    public Expression<U> value() {
       return value;
     }
 
@@ -54,6 +54,10 @@ public class CreateObjectNode<T> extends Node<T> {
     this.entries = entries;
   }
 
+  public List<Entry<T>> entries() {
+    return entries;
+  }
+
   @Override
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.NULL) {
@@ -0,0 +1,436 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathException;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.function.LengthFunction;
+import io.burt.jmespath.function.ReverseFunction;
+import io.burt.jmespath.function.SortByFunction;
+import io.burt.jmespath.function.SortFunction;
+
+/**
+ * Rewrites expression trees into simpler trees that give the same results.
+ * <p>
+ * The parsers build trees that mirror the expression as it was written, this
+ * class removes the parts that only exist because of how the expression was
+ * written: nested sequences are flattened, the current node is removed from
+ * sequences, and subtrees that only depend on literals are evaluated once and
+ * replaced by their result. This includes calls to the built in functions when
+ * all arguments are literals, comparisons of literals, and <code>&amp;&amp;</code>,
+ * <code>||</code> and <code>!</code> when the outcome is decided by a literal.
+ * Sorts that are followed by an index or a slice are replaced by a
+ * {@link PartialSortNode} that only sorts the elements that are selected, and
+ * runs of projections, filters, flattens and slices are replaced by a
+ * {@link PipelineNode} that doesn't create the arrays in between them.
+ * <p>
+ * Nodes that are unchanged are kept, new nodes are created with the runtime's
+ * node factory. Use {@link Node#toString} on the input and output to see what
+ * has been rewritten.
+ */
+public class ExpressionOptimizer<T> {
+  private final Adapter<T> runtime;
+
+  public ExpressionOptimizer(Adapter<T> runtime) {
+    this.runtime = runtime;
+  }
+
+  /**
+   * Returns an optimized version of the expression, or the expression itself
+   * when there is nothing to optimize.
+   */
+  public Expression<T> optimize(Expression<T> expression) {
+    if (expression instanceof Node) {
+      return optimizeNode((Node<T>) expression);
+    } else {
+      return expression;
+    }
+  }
+
+  private Node<T> optimizeNode(Node<T> node) {
+    if (node instanceof SequenceNode) {
+      return optimizeSequence((SequenceNode<T>) node);
+    } else if (node instanceof ProjectionNode) {
+      Expression<T> projection = ((ProjectionNode<T>) node).projection();
+      Expression<T> optimizedProjection = optimize(projection);
+      return optimizedProjection == projection ? node : runtime.nodeFactory().createProjection(optimizedProjection);
+    } else if (node instanceof SelectionNode) {
+      Expression<T> test = ((SelectionNode<T>) node).test();
+      Expression<T> optimizedTest = optimize(test);
+      return optimizedTest == test ? node : runtime.nodeFactory().createSelection(optimizedTest);
+    } else if (node instanceof ExpressionReferenceNode) {
+      Expression<T> expression = ((ExpressionReferenceNode<T>) node).expression();
+      Expression<T> optimizedExpression = optimize(expression);
+      return optimizedExpression == expression ? node : runtime.nodeFactory().createExpressionReference(optimizedExpression);
+    } else if (node instanceof NegateNode) {
+      return optimizeNegate((NegateNode<T>) node);
+    } else if (node instanceof AndNode) {
+      return optimizeAnd((AndNode<T>) node);
+    } else if (node instanceof OrNode) {
+      return optimizeOr((OrNode<T>) node);
+    } else if (node instanceof ComparisonNode) {
+      return optimizeComparison((ComparisonNode<T>) node);
+    } else if (node instanceof FunctionCallNode) {
+      return optimizeFunctionCall((FunctionCallNode<T>) node);
+    } else if (node instanceof CreateArrayNode) {
+      List<Expression<T>> entries = ((CreateArrayNode<T>) node).entries();
+      List<Expression<T>> optimizedEntries = optimizeAll(entries);
+      return optimizedEntries == entries ? node : runtime.nodeFactory().createCreateArray(optimizedEntries);
+    } else if (node instanceof CreateObjectNode) {
+      return optimizeCreateObject((CreateObjectNode<T>) node);
+    } else {
+      return node;
+    }
+  }
+
+  private Node<T> optimizeSequence(SequenceNode<T> node) {
+    List<Node<T>> nodes = node.nodes();
+    List<Node<T>> optimizedNodes = new ArrayList<>(nodes.size());
+    boolean changed = false;
+    for (Node<T> child : nodes) {
+      Node<T> optimizedChild = optimizeNode(child);
+      if (optimizedChild instanceof SequenceNode) {
+        optimizedNodes.addAll(((SequenceNode<T>) optimizedChild).nodes());
+        changed = true;
+      } else if (optimizedChild instanceof CurrentNode) {
+        changed = true;
+      } else {
+        optimizedNodes.add(optimizedChild);
+        changed |= optimizedChild != child;
+      }
+    }
+    changed |= combinePartialSorts(optimizedNodes);
+    changed |= combinePipelines(optimizedNodes);
+    if (optimizedNodes.isEmpty()) {
+      return nodes.isEmpty() ? node : runtime.nodeFactory().createCurrent();
+    } else if (optimizedNodes.size() == 1) {
+      return optimizedNodes.get(0);
+    } else if (changed) {
+      return runtime.nodeFactory().createSequence(optimizedNodes);
+    } else {
+      return node;
+    }
+  }
+
+  /**
+   * Replaces calls to <code>sort</code> and <code>sort_by</code>, possibly
+   * reversed, that are followed by an index or a slice with a node that only
+   * sorts the elements that are selected.
+   */
+  private boolean combinePartialSorts(List<Node<T>> nodes) {
+    boolean changed = false;
+    for (int i = 0; i < nodes.size() - 1; i++) {
+      Node<T> node = nodes.get(i);
+      Node<T> access = nodes.get(i + 1);
+      if (access instanceof IndexNode || access instanceof SliceNode) {
+        FunctionCallNode<T> sort = null;
+        Function reverse = null;
+        if (isSort(node)) {
+          sort = (FunctionCallNode<T>) node;
+        } else if (isReverseOfSort(node)) {
+          reverse = ((FunctionCallNode<T>) node).implementation();
+          sort = (FunctionCallNode<T>) ((FunctionCallNode<T>) node).args().get(0);
+        }
+        if (sort != null) {
+          nodes.set(i, new PartialSortNode<>(runtime, sort, reverse, access));
+          nodes.remove(i + 1);
+          changed = true;
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Replaces runs of projections, filters, flattens and slices, and the index
+   * or <code>length(@)</code> that follows them, with a node that evaluates
+   * them in one pass. A single step is only replaced when it is followed by an
+   * index or <code>length(@)</code>, since there is no array to avoid
+   * otherwise.
+   */
+  private boolean combinePipelines(List<Node<T>> nodes) {
+    boolean changed = false;
+    for (int i = 0; i < nodes.size(); i++) {
+      int end = i;
+      while (end < nodes.size() && isPipelineStep(nodes.get(end))) {
+        end++;
+      }
+      Node<T> terminal = null;
+      if (end < nodes.size() && isPipelineTerminal(nodes.get(end))) {
+        terminal = nodes.get(end);
+      }
+      if (end - i > 1 || (end - i == 1 && terminal != null)) {
+        List<Node<T>> run = nodes.subList(i, terminal == null ? end : end + 1);
+        List<Node<T>> steps = new ArrayList<>();
+        for (Node<T> step : nodes.subList(i, end)) {
+          if (step instanceof PipelineNode) {
+            steps.addAll(((PipelineNode<T>) step).nodes());
+          } else {
+            steps.add(step);
+          }
+        }
+        run.clear();
+        nodes.add(i, new PipelineNode<>(runtime, steps, terminal));
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Only the standard node classes are combined, nodes created by other node
+   * factories, like parallel projections, are kept as they are. Pipelines
+   * without an index or <code>length(@)</code> come from pipes that have
+   * already been optimized, and are combined with what follows them.
+   */
+  private boolean isPipelineStep(Node<T> node) {
+    Class<?> nodeClass = node.getClass();
+    return (node instanceof PipelineNode && ((PipelineNode<T>) node).isOpen())
+      || nodeClass == ProjectionNode.class
+      || nodeClass == SelectionNode.class
+      || nodeClass == FlattenArrayNode.class
+      || nodeClass == SliceNode.class;
+  }
+
+  private boolean isPipelineTerminal(Node<T> node) {
+    if (node.getClass() == IndexNode.class) {
+      return true;
+    } else if (node.getClass() == FunctionCallNode.class) {
+      return isLengthOfCurrent(node);
+    } else if (node instanceof ComparisonNode && node.getClass().getEnclosingClass() == ComparisonNode.class) {
+      ComparisonNode<T> comparison = (ComparisonNode<T>) node;
+      return (isLengthOfCurrent(comparison.operand(0)) && isNumberLiteral(comparison.operand(1)))
+        || (isNumberLiteral(comparison.operand(0)) && isLengthOfCurrent(comparison.operand(1)));
+    } else {
+      return false;
+    }
+  }
+
+  private boolean isLengthOfCurrent(Expression<T> expression) {
+    if (expression.getClass() == FunctionCallNode.class) {
+      FunctionCallNode<T> call = (FunctionCallNode<T>) expression;
+      return isPure(call.implementation())
+        && call.implementation() instanceof LengthFunction
+        && call.args().size() == 1
+        && call.args().get(0) instanceof CurrentNode;
+    } else {
+      return false;
+    }
+  }
+
+  private boolean isSort(Expression<T> expression) {
+    if (expression instanceof FunctionCallNode) {
+      FunctionCallNode<T> node = (FunctionCallNode<T>) expression;
+      Function function = node.implementation();
+      if (isPure(function) && function instanceof SortFunction) {
+        return node.args().size() == 1 && !(node.args().get(0) instanceof ExpressionReferenceNode);
+      } else if (isPure(function) && function instanceof SortByFunction) {
+        return node.args().size() == 2
+          && !(node.args().get(0) instanceof ExpressionReferenceNode)
+          && node.args().get(1) instanceof ExpressionReferenceNode;
+      }
+    }
+    return false;
+  }
+
+  private boolean isReverseOfSort(Node<T> node) {
+    if (node instanceof FunctionCallNode) {
+      FunctionCallNode<T> reverse = (FunctionCallNode<T>) node;
+      return isPure(reverse.implementation())
+        && reverse.implementation() instanceof ReverseFunction
+        && reverse.args().size() == 1
+        && isSort(reverse.args().get(0));
+    } else {
+      return false;
+    }
+  }
+
+  private Node<T> optimizeNegate(NegateNode<T> node) {
+    Expression<T> negated = optimize(node.negated());
+    if (isConstant(negated)) {
+      return evaluate(runtime.nodeFactory().createNegate(negated));
+    } else if (negated == node.negated()) {
+      return node;
+    } else {
+      return runtime.nodeFactory().createNegate(negated);
+    }
+  }
+
+  private Node<T> optimizeAnd(AndNode<T> node) {
+    Expression<T> left = optimize(node.operand(0));
+    Expression<T> right = optimize(node.operand(1));
+    Expression<T> outcome = null;
+    if (isConstant(left)) {
+      outcome = runtime.isTruthy(left.search(runtime.createNull())) ? right : left;
+    }
+    if (outcome instanceof Node) {
+      return (Node<T>) outcome;
+    } else if (left == node.operand(0) && right == node.operand(1)) {
+      return node;
+    } else {
+      return runtime.nodeFactory().createAnd(left, right);
+    }
+  }
+
+  private Node<T> optimizeOr(OrNode<T> node) {
+    Expression<T> left = optimize(node.operand(0));
+    Expression<T> right = optimize(node.operand(1));
+    Expression<T> outcome = null;
+    if (isConstant(left)) {
+      outcome = runtime.isTruthy(left.search(runtime.createNull())) ? left : right;
+    }
+    if (outcome instanceof Node) {
+      return (Node<T>) outcome;
+    } else if (left == node.operand(0) && right == node.operand(1)) {
+      return node;
+    } else {
+      return runtime.nodeFactory().createOr(left, right);
+    }
+  }
+
+  private Node<T> optimizeComparison(ComparisonNode<T> node) {
+    Expression<T> left = optimize(node.operand(0));
+    Expression<T> right = optimize(node.operand(1));
+    if (left == node.operand(0) && right == node.operand(1)) {
+      return isConstant(left) && isConstant(right) ? evaluate(node) : combineCountComparison(node);
+    } else {
+      Node<T> optimizedNode = runtime.nodeFactory().createComparison(node.operator(), left, right);
+      return isConstant(left) && isConstant(right) ? evaluate(optimizedNode) : combineCountComparison(optimizedNode);
+    }
+  }
+
+  /**
+   * Rewrites comparisons of the length of a projection or filter with a
+   * number, like <code>length(items[?x]) &gt; `0`</code>, into a pipeline that
+   * stops counting when the outcome is known. The comparison is kept as it
+   * is when its operand doesn't end in a pipeline.
+   */
+  private Node<T> combineCountComparison(Node<T> node) {
+    if (!(node instanceof ComparisonNode)) {
+      return node;
+    }
+    ComparisonNode<T> comparison = (ComparisonNode<T>) node;
+    int lengthOperand;
+    if (isLengthOfExpression(comparison.operand(0)) && isNumberLiteral(comparison.operand(1))) {
+      lengthOperand = 0;
+    } else if (isNumberLiteral(comparison.operand(0)) && isLengthOfExpression(comparison.operand(1))) {
+      lengthOperand = 1;
+    } else {
+      return node;
+    }
+    FunctionCallNode<T> length = (FunctionCallNode<T>) comparison.operand(lengthOperand);
+    Node<T> lengthOfCurrent = runtime.nodeFactory().createFunctionCall(length.implementation(), Collections.<Expression<T>>singletonList(runtime.nodeFactory().createCurrent()));
+    Node<T> countComparison;
+    if (lengthOperand == 0) {
+      countComparison = runtime.nodeFactory().createComparison(comparison.operator(), lengthOfCurrent, comparison.operand(1));
+    } else {
+      countComparison = runtime.nodeFactory().createComparison(comparison.operator(), comparison.operand(0), lengthOfCurrent);
+    }
+    List<Node<T>> nodes = new ArrayList<>(2);
+    nodes.add((Node<T>) length.args().get(0));
+    nodes.add(countComparison);
+    Node<T> sequence = optimizeNode(runtime.nodeFactory().createSequence(nodes));
+    Node<T> last = sequence;
+    if (sequence instanceof SequenceNode) {
+      List<Node<T>> sequenceNodes = ((SequenceNode<T>) sequence).nodes();
+      last = sequenceNodes.get(sequenceNodes.size() - 1);
+    }
+    return last instanceof PipelineNode ? sequence : node;
+  }
+
+  private boolean isLengthOfExpression(Expression<T> expression) {
+    if (expression instanceof FunctionCallNode) {
+      FunctionCallNode<T> call = (FunctionCallNode<T>) expression;
+      return isPure(call.implementation())
+        && call.implementation() instanceof LengthFunction
+        && call.args().size() == 1
+        && call.args().get(0) instanceof Node
+        && !(call.args().get(0) instanceof ExpressionReferenceNode)
+        && !(call.args().get(0) instanceof CurrentNode);
+    } else {
+      return false;
+    }
+  }
+
+  private boolean isNumberLiteral(Expression<T> expression) {
+    return expression instanceof JsonLiteralNode && runtime.typeOf(expression.search(runtime.createNull())) == JmesPathType.NUMBER;
+  }
+
+  private Node<T> optimizeFunctionCall(FunctionCallNode<T> node) {
+    List<Expression<T>> args = node.args();
+    List<Expression<T>> optimizedArgs = optimizeAll(args);
+    Node<T> optimizedNode = optimizedArgs == args ? node : runtime.nodeFactory().createFunctionCall(node.implementation(), optimizedArgs);
+    if (isPure(node.implementation())) {
+      for (Expression<T> arg : optimizedArgs) {
+        if (!isConstant(arg)) {
+          return optimizedNode;
+        }
+      }
+      try {
+        return evaluate(optimizedNode);
+      } catch (JmesPathException jpe) {
+        return optimizedNode;
+      }
+    } else {
+      return optimizedNode;
+    }
+  }
+
+  private Node<T> optimizeCreateObject(CreateObjectNode<T> node) {
+    List<CreateObjectNode.Entry<T>> entries = node.entries();
+    List<CreateObjectNode.Entry<T>> optimizedEntries = new ArrayList<>(entries.size());
+    boolean changed = false;
+    for (CreateObjectNode.Entry<T> entry : entries) {
+      Expression<T> optimizedValue = optimize(entry.value());
+      if (optimizedValue == entry.value()) {
+        optimizedEntries.add(entry);
+      } else {
+        optimizedEntries.add(new CreateObjectNode.Entry<>(entry.key(), optimizedValue));
+        changed = true;
+      }
+    }
+    return changed ? runtime.nodeFactory().createCreateObject(optimizedEntries) : node;
+  }
+
+  private List<Expression<T>> optimizeAll(List<Expression<T>> expressions) {
+    List<Expression<T>> optimizedExpressions = new ArrayList<>(expressions.size());
+    boolean changed = false;
+    for (Expression<T> expression : expressions) {
+      Expression<T> optimizedExpression = optimize(expression);
+      optimizedExpressions.add(optimizedExpression);
+      changed |= optimizedExpression != expression;
+    }
+    return changed ? optimizedExpressions : expressions;
+  }
+
+  private boolean isConstant(Expression<T> expression) {
+    return expression instanceof JsonLiteralNode || expression instanceof StringNode;
+  }
+
+  /**
+   * Only the built in functions are known to always return the same result for
+   * the same arguments, custom functions could depend on other state.
+   */
+  private boolean isPure(Function function) {
+    return function != null && FunctionRegistry.defaultRegistry().getFunction(function.name()) == function;
+  }
+
+  /**
+   * Evaluates a node whose result does not depend on its input and returns a
+   * literal node with the result.
+   */
+  private Node<T> evaluate(Node<T> node) {
+    T value = node.search(runtime.createNull());
+    if (runtime.typeOf(value) == JmesPathType.STRING) {
+      return runtime.nodeFactory().createString(runtime.toString(value));
+    } else {
+      return runtime.nodeFactory().createJsonLiteral(runtime.toString(value));
+    }
+  }
+}
@@ -11,24 +11,89 @@ import io.burt.jmespath.function.FunctionArgument;
 public class FunctionCallNode<T> extends Node<T> {
   private final Function implementation;
   private final List<Expression<T>> args;
+  private final List<FunctionArgument<T>> expressionArguments;
+  private final boolean argumentsChecked;
 
   public FunctionCallNode(Adapter<T> runtime, Function implementation, List<? extends Expression<T>> args) {
+    this(runtime, implementation, args, false);
+  }
+
+  /**
+   * When <code>argumentsChecked</code> is true the arguments are known to
+   * comply with the function's argument constraints, and the function is
+   * called without checking them again.
+   */
+  public FunctionCallNode(Adapter<T> runtime, Function implementation, List<? extends Expression<T>> args, boolean argumentsChecked) {
     super(runtime);
     this.implementation = implementation;
     this.args = new ArrayList<>(args);
+    this.expressionArguments = createExpressionArguments(this.args);
+    this.argumentsChecked = argumentsChecked;
+  }
+
+  /**
+   * Expression arguments don't depend on the input, so they are wrapped once.
+   * The list has the wrapped argument at the position of each expression
+   * argument and null elsewhere, or is null when there are no expression
+   * arguments.
+   */
+  private static <U> List<FunctionArgument<U>> createExpressionArguments(List<Expression<U>> args) {
+    List<FunctionArgument<U>> expressionArguments = null;
+    for (int i = 0; i < args.size(); i++) {
+      Expression<U> arg = args.get(i);
+      if (arg instanceof ExpressionReferenceNode) {
+        if (expressionArguments == null) {
+          expressionArguments = new ArrayList<>(args.size());
+          for (int j = 0; j < args.size(); j++) {
+            expressionArguments.add(null);
+          }
+        }
+        expressionArguments.set(i, FunctionArgument.of(arg));
+      }
+    }
+    return expressionArguments;
+  }
+
+  public Function implementation() {
+    return implementation;
+  }
+
+  public List<Expression<T>> args() {
+    return args;
+  }
+
+  public boolean argumentsChecked() {
+    return argumentsChecked;
   }
 
   @Override
   public T search(T input) {
+    if (expressionArguments == null && !argumentsChecked) {
+      switch (args.size()) {
+        case 1:
+          return implementation.call1(runtime, args.get(0).search(input));
+        case 2:
+          return implementation.call2(runtime, args.get(0).search(input), args.get(1).search(input));
+        case 3:
+          return implementation.call3(runtime, args.get(0).search(input), args.get(1).search(input), args.get(2).search(input));
+        default:
+          break;
+      }
+    }
     List<FunctionArgument<T>> arguments = new ArrayList<>(args.size());
-    for (Expression<T> arg : args) {
-      if (arg instanceof ExpressionReferenceNode) {
-        arguments.add(FunctionArgument.of(arg));
+    for (int i = 0; i < args.size(); i++) {
+      FunctionArgument<T> expressionArgument = expressionArguments == null ? null : expressionArguments.get(i);
+      if (expressionArgument != null) {
+        arguments.add(expressionArgument);
       } else {
-        arguments.add(FunctionArgument.of(arg.search(input)));
+        arguments.add(FunctionArgument.of(args.get(i).search(input)));
       }
     }
-    return implementation.call(runtime, arguments);
+    if (argumentsChecked) {
+      return implementation.callUnchecked(runtime, arguments);
+    } else {
+      return implementation.call(runtime, arguments);
+    }
   }
 
   @Override
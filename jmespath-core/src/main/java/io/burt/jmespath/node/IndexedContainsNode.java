@@ -0,0 +1,29 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.util.ValueSet;
+
+/**
+ * A call to <code>contains</code> with a literal array as haystack, like
+ * <code>contains(`["a", "b", "c"]`, @)</code>, that looks up the needle in a
+ * hash set of the array's elements instead of comparing it to each of them.
+ */
+public class IndexedContainsNode<T> extends FunctionCallNode<T> {
+  private final Expression<T> needle;
+  private final ValueSet<T> haystack;
+
+  IndexedContainsNode(Adapter<T> runtime, Function implementation, List<? extends Expression<T>> args, T haystack) {
+    super(runtime, implementation, args, true);
+    this.needle = args.get(1);
+    this.haystack = new ValueSet<>(runtime, runtime.toList(haystack));
+  }
+
+  @Override
+  public T search(T input) {
+    return runtime.createBoolean(haystack.contains(needle.search(input)));
+  }
+}
@@ -12,6 +12,16 @@ public class JsonLiteralNode<T> extends Node<T> {
     this.value = runtime.parseString(rawValue);
   }
 
+  public JsonLiteralNode(Adapter<T> runtime, String rawValue, T value) {
+    super(runtime);
+    this.rawValue = rawValue;
+    this.value = value;
+  }
+
+  public T value() {
+    return value;
+  }
+
   @Override
   public T search(T input) {
     return value;
@@ -19,6 +19,10 @@ public abstract class OperatorNode<T> extends Node<T> {
     return operands.get(index);
   }
 
+  public List<Expression<T>> operands() {
+    return operands;
+  }
+
   @Override
   protected String internalToString() {
     if (operands.isEmpty()) {
@@ -0,0 +1,136 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Splits arrays into chunks that are evaluated in parallel, with the first
+ * chunk evaluated on the calling thread, and joins the results in order.
+ * <p>
+ * Projections and filters that are evaluated as part of a chunk, for example
+ * the inner projection of <code>a[*].b[*].c</code>, are evaluated on the
+ * thread of the chunk. This keeps nested projections from waiting for each
+ * other when the executor has a fixed number of threads.
+ * <p>
+ * When the calling thread is done with its own chunk it evaluates the chunks
+ * that the executor has not started yet, and only waits for those that are
+ * running on other threads. It never waits for chunks that are queued, so
+ * searches don't deadlock when they run on the threads of the executor
+ * themselves, for example when the same fixed size pool is used for a
+ * {@link io.burt.jmespath.BatchSearch}.
+ */
+class ParallelExecution {
+  private static final ThreadLocal<Boolean> IN_CHUNK = new ThreadLocal<>();
+
+  private final Executor executor;
+  private final int threshold;
+  private final int parallelism;
+
+  public interface Chunk<T> {
+    /**
+     * Evaluates the elements and returns the results.
+     */
+    List<T> evaluate(List<T> elements);
+  }
+
+  public ParallelExecution(Executor executor, int threshold) {
+    this(executor, threshold, executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors());
+  }
+
+  ParallelExecution(Executor executor, int threshold, int parallelism) {
+    this.executor = executor;
+    this.threshold = threshold;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Returns whether an array of the specified size should be split up.
+   */
+  public boolean shouldSplit(int size) {
+    return size >= threshold && parallelism > 1 && IN_CHUNK.get() == null;
+  }
+
+  public <T> List<T> evaluate(List<T> elements, Chunk<T> chunk) {
+    int chunkCount = Math.min(parallelism, elements.size());
+    List<ChunkTask<T>> tasks = new ArrayList<>(chunkCount - 1);
+    for (int i = 1; i < chunkCount; i++) {
+      ChunkTask<T> task = new ChunkTask<>(chunk, elements.subList(i * elements.size() / chunkCount, (i + 1) * elements.size() / chunkCount));
+      tasks.add(task);
+      executor.execute(task);
+    }
+    List<T> results = new ArrayList<>(elements.size());
+    results.addAll(evaluateChunk(chunk, elements.subList(0, elements.size() / chunkCount)));
+    for (ChunkTask<T> task : tasks) {
+      if (task.claim()) {
+        results.addAll(evaluateChunk(chunk, task.elements));
+        continue;
+      }
+      try {
+        results.addAll(task.result.join());
+      } catch (CompletionException ce) {
+        if (ce.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ce.getCause();
+        } else if (ce.getCause() instanceof Error) {
+          throw (Error) ce.getCause();
+        } else {
+          throw ce;
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * A chunk that is evaluated by the executor, unless the calling thread
+   * claims it first.
+   */
+  private static class ChunkTask<T> implements Runnable {
+    private final Chunk<T> chunk;
+    private final List<T> elements;
+    private final CompletableFuture<List<T>> result;
+    private final AtomicBoolean claimed;
+
+    public ChunkTask(Chunk<T> chunk, List<T> elements) {
+      this.chunk = chunk;
+      this.elements = elements;
+      this.result = new CompletableFuture<>();
+      this.claimed = new AtomicBoolean();
+    }
+
+    /**
+     * Returns true when the chunk had not been started, and the caller must
+     * evaluate it.
+     */
+    public boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    @Override
+    public void run() {
+      if (claim()) {
+        try {
+          result.complete(evaluateChunk(chunk, elements));
+        } catch (Throwable t) {
+          result.completeExceptionally(t);
+        }
+      }
+    }
+  }
+
+  private static <T> List<T> evaluateChunk(Chunk<T> chunk, List<T> elements) {
+    Boolean inChunk = IN_CHUNK.get();
+    IN_CHUNK.set(Boolean.TRUE);
+    try {
+      return chunk.evaluate(elements);
+    } finally {
+      if (inChunk == null) {
+        IN_CHUNK.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package io.burt.jmespath.node;
+
+import java.util.concurrent.Executor;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * This node factory creates projections and filters that evaluate large arrays
+ * in parallel, and the standard nodes for everything else.
+ *
+ * @see io.burt.jmespath.RuntimeConfiguration#parallelThreshold
+ */
+public class ParallelNodeFactory<T> extends StandardNodeFactory<T> {
+  private final Adapter<T> runtime;
+  private final ParallelExecution parallelExecution;
+
+  public ParallelNodeFactory(Adapter<T> runtime, Executor executor, int threshold) {
+    super(runtime);
+    this.runtime = runtime;
+    this.parallelExecution = new ParallelExecution(executor, threshold);
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return new ParallelProjectionNode<>(runtime, expression, parallelExecution);
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return new ParallelSelectionNode<>(runtime, test, parallelExecution);
+  }
+}
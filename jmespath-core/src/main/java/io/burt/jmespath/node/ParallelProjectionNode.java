@@ -0,0 +1,31 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+public class ParallelProjectionNode<T> extends ProjectionNode<T> {
+  private final ParallelExecution parallelExecution;
+  private final ParallelExecution.Chunk<T> chunk;
+
+  ParallelProjectionNode(Adapter<T> runtime, Expression<T> projection, ParallelExecution parallelExecution) {
+    super(runtime, projection);
+    this.parallelExecution = parallelExecution;
+    this.chunk = new ParallelExecution.Chunk<T>() {
+      @Override
+      public List<T> evaluate(List<T> elements) {
+        return ParallelProjectionNode.super.project(elements);
+      }
+    };
+  }
+
+  @Override
+  protected List<T> project(List<T> elements) {
+    if (parallelExecution.shouldSplit(elements.size())) {
+      return parallelExecution.evaluate(elements, chunk);
+    } else {
+      return super.project(elements);
+    }
+  }
+}
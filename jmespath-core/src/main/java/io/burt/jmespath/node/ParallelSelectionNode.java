@@ -0,0 +1,31 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+public class ParallelSelectionNode<T> extends SelectionNode<T> {
+  private final ParallelExecution parallelExecution;
+  private final ParallelExecution.Chunk<T> chunk;
+
+  ParallelSelectionNode(Adapter<T> runtime, Expression<T> test, ParallelExecution parallelExecution) {
+    super(runtime, test);
+    this.parallelExecution = parallelExecution;
+    this.chunk = new ParallelExecution.Chunk<T>() {
+      @Override
+      public List<T> evaluate(List<T> elements) {
+        return ParallelSelectionNode.super.select(elements);
+      }
+    };
+  }
+
+  @Override
+  protected List<T> select(List<T> elements) {
+    if (parallelExecution.shouldSplit(elements.size())) {
+      return parallelExecution.evaluate(elements, chunk);
+    } else {
+      return super.select(elements);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.FunctionArgument;
+
+/**
+ * A call to <code>sort</code> or <code>sort_by</code>, possibly reversed,
+ * followed by an index or a slice, like <code>sort_by(items, &amp;score)[-10:]</code>
+ * or <code>reverse(sort(values))[0]</code>.
+ * <p>
+ * Instead of sorting the whole array only the elements that end up in the
+ * result are sorted. They are selected with a heap that holds at most as many
+ * elements as there are between the start of the sorted array and the last
+ * selected element, or between the first selected element and the end,
+ * whichever is fewer. Selecting k elements out of n takes O(n log k) time.
+ * Elements with equal keys keep their order, like with a full sort.
+ * <p>
+ * When the elements or their keys don't have the types that the function
+ * requires the function is called as usual, so that errors are reported in the
+ * same way as without this optimization.
+ */
+public class PartialSortNode<T> extends Node<T> {
+  private final FunctionCallNode<T> sort;
+  private final Function reverse;
+  private final Node<T> access;
+
+  /**
+   * @param sort a call to <code>sort</code> or <code>sort_by</code>
+   * @param reverse the <code>reverse</code> function when the sorted array is
+   *   reversed, or null when it isn't
+   * @param access an {@link IndexNode} or a {@link SliceNode}
+   */
+  public PartialSortNode(Adapter<T> runtime, FunctionCallNode<T> sort, Function reverse, Node<T> access) {
+    super(runtime);
+    this.sort = sort;
+    this.reverse = reverse;
+    this.access = access;
+  }
+
+  @Override
+  public T search(T input) {
+    T array = sort.args().get(0).search(input);
+    List<T> elements = null;
+    List<T> keys = null;
+    if (runtime.typeOf(array) == JmesPathType.ARRAY) {
+      elements = runtime.toList(array);
+      keys = extractKeys(elements);
+    }
+    if (keys == null) {
+      return searchSorted(array);
+    }
+    int size = elements.size();
+    int[] positions = positions(size);
+    if (positions == null) {
+      return runtime.createNull();
+    }
+    int from = size;
+    int to = 0;
+    for (int i = 0; i < positions.length; i++) {
+      if (reverse != null) {
+        positions[i] = size - 1 - positions[i];
+      }
+      from = Math.min(from, positions[i]);
+      to = Math.max(to, positions[i] + 1);
+    }
+    int[] range = from < to ? sortedRange(keys, from, to) : new int[0];
+    if (access instanceof IndexNode) {
+      return elements.get(range[positions[0] - from]);
+    } else {
+      List<T> result = new ArrayList<>(positions.length);
+      for (int position : positions) {
+        result.add(elements.get(range[position - from]));
+      }
+      return runtime.createArray(result);
+    }
+  }
+
+  /**
+   * Evaluates the nodes as if they hadn't been combined, given the evaluated
+   * array argument.
+   */
+  private T searchSorted(T array) {
+    List<FunctionArgument<T>> arguments = new ArrayList<>(2);
+    arguments.add(FunctionArgument.of(array));
+    if (sort.args().size() > 1) {
+      arguments.add(FunctionArgument.of(sort.args().get(1)));
+    }
+    T sorted = sort.implementation().call(runtime, arguments);
+    if (reverse != null) {
+      sorted = reverse.call1(runtime, sorted);
+    }
+    return access.search(sorted);
+  }
+
+  /**
+   * Returns the sort keys of the elements, or null when the elements or keys
+   * don't have the types that the function requires.
+   */
+  private List<T> extractKeys(List<T> elements) {
+    Expression<T> keyExpression = sort.args().size() > 1 ? sort.args().get(1) : null;
+    List<T> keys = new ArrayList<>(elements.size());
+    JmesPathType keyType = null;
+    for (T element : elements) {
+      T key = element;
+      if (keyExpression != null) {
+        if (runtime.typeOf(element) != JmesPathType.OBJECT) {
+          return null;
+        }
+        key = keyExpression.search(element);
+      }
+      JmesPathType type = runtime.typeOf(key);
+      if (keyType == null && (type == JmesPathType.NUMBER || type == JmesPathType.STRING)) {
+        keyType = type;
+      } else if (type != keyType) {
+        return null;
+      }
+      keys.add(key);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the positions in the sorted, and possibly reversed, array that the
+   * index or slice selects, or null when an index is out of bounds.
+   */
+  private int[] positions(int size) {
+    if (access instanceof IndexNode) {
+      int index = ((IndexNode<T>) access).index();
+      if (index < 0) {
+        index = size + index;
+      }
+      return (index >= 0 && index < size) ? new int[] {index} : null;
+    } else {
+      SliceNode<T> slice = (SliceNode<T>) access;
+      int[] positions = new int[slice.count(size)];
+      for (int i = 0, offset = slice.begin(size); i < positions.length; i++, offset += slice.step()) {
+        positions[i] = offset;
+      }
+      return positions;
+    }
+  }
+
+  /**
+   * Returns the indexes of the elements that end up at the positions from
+   * <code>from</code> to <code>to</code> when the elements are sorted by their
+   * keys, in sorted order.
+   */
+  private int[] sortedRange(final List<T> keys, int from, int to) {
+    Comparator<Integer> order = new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        int result = runtime.compare(keys.get(a), keys.get(b));
+        return result != 0 ? result : Integer.compare(a, b);
+      }
+    };
+    int size = keys.size();
+    boolean fromStart = to <= size - from;
+    int capacity = fromStart ? to : size - from;
+    Comparator<Integer> heapOrder = fromStart ? Collections.reverseOrder(order) : order;
+    PriorityQueue<Integer> heap = new PriorityQueue<>(capacity, heapOrder);
+    for (int i = 0; i < size; i++) {
+      if (heap.size() < capacity) {
+        heap.add(i);
+      } else if (heapOrder.compare(i, heap.peek()) > 0) {
+        heap.poll();
+        heap.add(i);
+      }
+    }
+    Integer[] selected = heap.toArray(new Integer[heap.size()]);
+    Arrays.sort(selected, order);
+    int offset = fromStart ? from : 0;
+    int[] range = new int[to - from];
+    for (int i = 0; i < range.length; i++) {
+      range[i] = selected[offset + i];
+    }
+    return range;
+  }
+
+  @Override
+  protected String internalToString() {
+    return String.format("%s, %s, %s", sort, reverse != null, access);
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    PartialSortNode<?> other = (PartialSortNode<?>) o;
+    return sort.equals(other.sort) && (reverse == null) == (other.reverse == null) && access.equals(other.access);
+  }
+
+  @Override
+  protected int internalHashCode() {
+    int h = 1;
+    h = h * 31 + sort.hashCode();
+    h = h * 31 + (reverse == null ? 0 : 1);
+    h = h * 31 + access.hashCode();
+    return h;
+  }
+}
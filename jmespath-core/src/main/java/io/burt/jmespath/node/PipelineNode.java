@@ -0,0 +1,448 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * A run of projections, filters, flattens and slices, possibly followed by an
+ * index, <code>length(@)</code> or a comparison of <code>length(@)</code> with
+ * a number, like <code>a[*].b | [?x] | [0]</code>.
+ * <p>
+ * When the nodes are evaluated one at a time each of them creates an array
+ * that the next one consumes. Here the elements are pulled through all the
+ * steps one at a time instead, and only the final result is created as an
+ * array. An index, or a slice with a stop, ends the evaluation as soon as the
+ * selected elements are known, and <code>length(@)</code> counts the elements
+ * without collecting them. A comparison like <code>length(@) &gt; `0`</code>
+ * only counts elements until the outcome is known, so an existence check stops
+ * at the first match. When the steps are only projections and filters a
+ * negative index is found by looking at the elements from the end.
+ * <p>
+ * Evaluation only ends early when none of the steps can fail. Otherwise the
+ * remaining elements are evaluated anyway, so that errors are reported in the
+ * same way as without this optimization.
+ */
+public class PipelineNode<T> extends Node<T> {
+  private final List<Node<T>> steps;
+  private final Node<T> terminal;
+  private final boolean exhaustive;
+  private final boolean backwards;
+  private final long countLimit;
+
+  /**
+   * @param steps {@link ProjectionNode}, {@link SelectionNode},
+   *   {@link FlattenArrayNode} and {@link SliceNode} nodes
+   * @param terminal an {@link IndexNode}, a call to <code>length(@)</code>, a
+   *   {@link ComparisonNode} of <code>length(@)</code> and a number literal, or
+   *   null when the result is the array of elements from the last step
+   */
+  public PipelineNode(Adapter<T> runtime, List<Node<T>> steps, Node<T> terminal) {
+    super(runtime);
+    this.steps = steps;
+    this.terminal = terminal;
+    this.exhaustive = mayFail(steps);
+    this.backwards = !exhaustive && terminal instanceof IndexNode && ((IndexNode<T>) terminal).index() < 0 && isElementwise(steps);
+    if (terminal instanceof ComparisonNode && !exhaustive) {
+      // Counting stops at the smallest count that is greater than the number,
+      // all greater counts compare the same way
+      double number = runtime.doubleValue(countedNumber());
+      this.countLimit = number < 0 ? 0 : (long) Math.min(Math.floor(number) + 1, Long.MAX_VALUE);
+    } else {
+      this.countLimit = Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Returns the steps followed by the terminal node, which evaluated in order
+   * give the same result as this node.
+   */
+  public List<Node<T>> nodes() {
+    List<Node<T>> nodes = new ArrayList<>(steps);
+    if (terminal != null) {
+      nodes.add(terminal);
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns true when the result is the array of elements from the last step,
+   * so that more steps can be added.
+   */
+  public boolean isOpen() {
+    return terminal == null;
+  }
+
+  /**
+   * Returns the number that the count is compared with, when the terminal is
+   * a comparison.
+   */
+  private T countedNumber() {
+    ComparisonNode<T> comparison = (ComparisonNode<T>) terminal;
+    int literal = comparison.operand(0) instanceof JsonLiteralNode ? 0 : 1;
+    return comparison.operand(literal).search(runtime.createNull());
+  }
+
+  /**
+   * Returns true when each step gives at most one element for each of its
+   * input elements, so that the steps can be applied in reverse order.
+   */
+  private static <U> boolean isElementwise(List<Node<U>> steps) {
+    for (Node<U> step : steps) {
+      if (!(step instanceof ProjectionNode || step instanceof SelectionNode)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true when evaluating any of the steps can throw an exception,
+   * which only function calls do.
+   */
+  private static <U> boolean mayFail(List<Node<U>> steps) {
+    for (Node<U> step : steps) {
+      if (step instanceof ProjectionNode && mayFail(((ProjectionNode<U>) step).projection())) {
+        return true;
+      } else if (step instanceof SelectionNode && mayFail(((SelectionNode<U>) step).test())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static <U> boolean mayFail(Expression<U> expression) {
+    if (expression instanceof CurrentNode || expression instanceof PropertyNode || expression instanceof IndexNode || expression instanceof SliceNode || expression instanceof FlattenArrayNode || expression instanceof FlattenObjectNode || expression instanceof JsonLiteralNode || expression instanceof StringNode) {
+      return false;
+    } else if (expression instanceof SequenceNode) {
+      return mayFailAny(((SequenceNode<U>) expression).nodes());
+    } else if (expression instanceof ProjectionNode) {
+      return mayFail(((ProjectionNode<U>) expression).projection());
+    } else if (expression instanceof SelectionNode) {
+      return mayFail(((SelectionNode<U>) expression).test());
+    } else if (expression instanceof OperatorNode) {
+      return mayFailAny(((OperatorNode<U>) expression).operands());
+    } else if (expression instanceof NegateNode) {
+      return mayFail(((NegateNode<U>) expression).negated());
+    } else if (expression instanceof CreateArrayNode) {
+      return mayFailAny(((CreateArrayNode<U>) expression).entries());
+    } else if (expression instanceof CreateObjectNode) {
+      for (CreateObjectNode.Entry<U> entry : ((CreateObjectNode<U>) expression).entries()) {
+        if (mayFail(entry.value())) {
+          return true;
+        }
+      }
+      return false;
+    } else {
+      return true;
+    }
+  }
+
+  private static <U> boolean mayFailAny(List<? extends Expression<U>> expressions) {
+    for (Expression<U> expression : expressions) {
+      if (mayFail(expression)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public T search(T input) {
+    if (runtime.typeOf(input) != JmesPathType.ARRAY) {
+      T value = input;
+      for (Node<T> node : nodes()) {
+        value = node.search(value);
+      }
+      return value;
+    }
+    Iterator<T> elements;
+    if (backwards) {
+      elements = new Reversed<>(runtime.toList(input));
+    } else {
+      elements = runtime.toList(input).iterator();
+    }
+    for (Node<T> step : steps) {
+      elements = pipe(step, elements);
+    }
+    if (terminal == null) {
+      List<T> result = new ArrayList<>();
+      while (elements.hasNext()) {
+        result.add(elements.next());
+      }
+      return runtime.createArray(result);
+    } else if (terminal instanceof IndexNode) {
+      int index = ((IndexNode<T>) terminal).index();
+      return backwards ? index(-index - 1, elements) : index(index, elements);
+    } else {
+      long count = 0;
+      for (; count < countLimit && elements.hasNext(); elements.next()) {
+        count++;
+      }
+      if (terminal instanceof ComparisonNode) {
+        ComparisonNode<T> comparison = (ComparisonNode<T>) terminal;
+        T number = countedNumber();
+        if (comparison.operand(0) instanceof JsonLiteralNode) {
+          return comparison.compareNumbers(number, runtime.createNumber(count));
+        } else {
+          return comparison.compareNumbers(runtime.createNumber(count), number);
+        }
+      } else {
+        return runtime.createNumber(count);
+      }
+    }
+  }
+
+  private Iterator<T> pipe(Node<T> step, Iterator<T> source) {
+    if (step instanceof ProjectionNode) {
+      return new Projection(source, (ProjectionNode<T>) step);
+    } else if (step instanceof SelectionNode) {
+      return new Selection(source, (SelectionNode<T>) step);
+    } else if (step instanceof FlattenArrayNode) {
+      return new Flatten(source);
+    } else {
+      SliceNode<T> slice = (SliceNode<T>) step;
+      if (slice.step() > 0 && slice.start() >= 0 && slice.stop() >= 0) {
+        return new Slice(source, slice);
+      } else {
+        List<T> elements = new ArrayList<>();
+        while (source.hasNext()) {
+          elements.add(source.next());
+        }
+        List<T> sliced = new ArrayList<>(slice.count(elements.size()));
+        for (int i = slice.begin(elements.size()), n = 0; n < slice.count(elements.size()); n++, i += slice.step()) {
+          sliced.add(elements.get(i));
+        }
+        return sliced.iterator();
+      }
+    }
+  }
+
+  private T index(int index, Iterator<T> elements) {
+    if (index >= 0) {
+      T found = runtime.createNull();
+      for (int i = 0; elements.hasNext(); i++) {
+        T element = elements.next();
+        if (i == index) {
+          found = element;
+          if (!exhaustive) {
+            break;
+          }
+        }
+      }
+      return found;
+    } else {
+      // Keep the last -index elements, the one to return is the oldest
+      long size = -(long) index;
+      List<T> last = new ArrayList<>();
+      long count = 0;
+      while (elements.hasNext()) {
+        T element = elements.next();
+        if (last.size() < size) {
+          last.add(element);
+        } else {
+          last.set((int) (count % size), element);
+        }
+        count++;
+      }
+      return count >= size ? last.get((int) (count % size)) : runtime.createNull();
+    }
+  }
+
+  private static class Reversed<U> implements Iterator<U> {
+    private final ListIterator<U> elements;
+
+    public Reversed(List<U> elements) {
+      this.elements = elements.listIterator(elements.size());
+    }
+
+    @Override
+    public boolean hasNext() {
+      return elements.hasPrevious();
+    }
+
+    @Override
+    public U next() {
+      return elements.previous();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * An iterator that computes its next element ahead of time, since the
+   * steps can't tell if there is a next element without looking for it.
+   */
+  private abstract static class Step<U> implements Iterator<U> {
+    protected final Iterator<U> source;
+    private boolean ready;
+    private boolean done;
+    private U next;
+
+    public Step(Iterator<U> source) {
+      this.source = source;
+    }
+
+    /**
+     * Calls {@link #emit} with the next element and returns true, or returns
+     * false when there are no more elements.
+     */
+    protected abstract boolean advance();
+
+    protected boolean emit(U element) {
+      next = element;
+      return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!ready && !done) {
+        ready = advance();
+        done = !ready;
+      }
+      return ready;
+    }
+
+    @Override
+    public U next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      ready = false;
+      U element = next;
+      next = null;
+      return element;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private class Projection extends Step<T> {
+    private final ProjectionNode<T> node;
+
+    public Projection(Iterator<T> source, ProjectionNode<T> node) {
+      super(source);
+      this.node = node;
+    }
+
+    @Override
+    protected boolean advance() {
+      while (source.hasNext()) {
+        T result = node.projection().search(source.next());
+        if (runtime.typeOf(result) != JmesPathType.NULL) {
+          return emit(result);
+        }
+      }
+      return false;
+    }
+  }
+
+  private class Selection extends Step<T> {
+    private final SelectionNode<T> node;
+
+    public Selection(Iterator<T> source, SelectionNode<T> node) {
+      super(source);
+      this.node = node;
+    }
+
+    @Override
+    protected boolean advance() {
+      while (source.hasNext()) {
+        T element = source.next();
+        if (runtime.isTruthy(node.test().search(element))) {
+          return emit(element);
+        }
+      }
+      return false;
+    }
+  }
+
+  private class Flatten extends Step<T> {
+    private Iterator<T> nested = Collections.<T>emptyList().iterator();
+
+    public Flatten(Iterator<T> source) {
+      super(source);
+    }
+
+    @Override
+    protected boolean advance() {
+      while (!nested.hasNext()) {
+        if (!source.hasNext()) {
+          return false;
+        }
+        T element = source.next();
+        if (runtime.typeOf(element) != JmesPathType.ARRAY) {
+          return emit(element);
+        }
+        nested = runtime.toList(element).iterator();
+      }
+      return emit(nested.next());
+    }
+  }
+
+  /**
+   * A slice with a positive step and without negative bounds, which can be
+   * taken without knowing how many elements there are.
+   */
+  private class Slice extends Step<T> {
+    private final SliceNode<T> node;
+    private int position;
+
+    public Slice(Iterator<T> source, SliceNode<T> node) {
+      super(source);
+      this.node = node;
+    }
+
+    @Override
+    protected boolean advance() {
+      while (position < node.stop() && source.hasNext()) {
+        T element = source.next();
+        int offset = position - node.start();
+        position++;
+        if (offset >= 0 && offset % node.step() == 0) {
+          return emit(element);
+        }
+      }
+      if (exhaustive) {
+        while (source.hasNext()) {
+          source.next();
+        }
+      }
+      return false;
+    }
+  }
+
+  @Override
+  protected String internalToString() {
+    StringBuilder buffer = new StringBuilder();
+    for (Node<T> node : nodes()) {
+      buffer.append(node).append(", ");
+    }
+    buffer.setLength(buffer.length() - 2);
+    return buffer.toString();
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    PipelineNode<?> other = (PipelineNode<?>) o;
+    return nodes().equals(other.nodes());
+  }
+
+  @Override
+  protected int internalHashCode() {
+    return nodes().hashCode();
+  }
+}
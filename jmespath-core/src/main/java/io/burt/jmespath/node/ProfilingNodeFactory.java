@@ -0,0 +1,152 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+
+/**
+ * This node factory wraps the nodes created by another node factory in
+ * {@link ProfiledNode}s.
+ * <p>
+ * Profiled nodes are not changed by the expression optimizer, and expressions
+ * made up of them are not compiled to bytecode, so expressions compiled by a
+ * profiling runtime are evaluated as they were written.
+ */
+public class ProfilingNodeFactory<T> implements NodeFactory<T> {
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> nodeFactory;
+
+  public ProfilingNodeFactory(Adapter<T> runtime, NodeFactory<T> nodeFactory) {
+    this.runtime = runtime;
+    this.nodeFactory = nodeFactory;
+  }
+
+  private Node<T> profile(Node<T> node) {
+    return new ProfiledNode<>(runtime, node, node.toString(), Collections.<Expression<T>>emptyList());
+  }
+
+  private Node<T> profile(Node<T> node, String label, List<? extends Expression<T>> children) {
+    return new ProfiledNode<>(runtime, node, label, children);
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return profile(nodeFactory.createCurrent());
+  }
+
+  @Override
+  public Node<T> createSequence(List<Node<T>> nodes) {
+    return profile(nodeFactory.createSequence(nodes), "Sequence", nodes);
+  }
+
+  @Override
+  public Node<T> createProperty(String name) {
+    return profile(nodeFactory.createProperty(name));
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return profile(nodeFactory.createIndex(index));
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return profile(nodeFactory.createSlice(start, stop, step));
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return profile(nodeFactory.createProjection(expression), "Projection", Arrays.asList(expression));
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return profile(nodeFactory.createFlattenArray());
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return profile(nodeFactory.createFlattenObject());
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return profile(nodeFactory.createSelection(test), "Selection", Arrays.asList(test));
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return profile(nodeFactory.createComparison(operator, left, right), String.format("Comparison(%s)", operator), Arrays.asList(left, right));
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return profile(nodeFactory.createOr(left, right), "Or", Arrays.asList(left, right));
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return profile(nodeFactory.createAnd(left, right), "And", Arrays.asList(left, right));
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    return profile(nodeFactory.createFunctionCall(functionName, args), String.format("FunctionCall(%s)", functionName), args);
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    String label = function == null ? "FunctionCall" : String.format("FunctionCall(%s)", function.name());
+    return profile(nodeFactory.createFunctionCall(function, args), label, args);
+  }
+
+  /**
+   * Expression references are not wrapped since functions need to be able to
+   * tell them apart from other arguments, but the expressions they reference
+   * are.
+   */
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return nodeFactory.createExpressionReference(expression);
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return profile(nodeFactory.createString(str));
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return profile(nodeFactory.createNegate(negated), "Negate", Arrays.asList(negated));
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    StringBuilder label = new StringBuilder("CreateObject(");
+    List<Expression<T>> values = new ArrayList<>(entries.size());
+    for (CreateObjectNode.Entry<T> entry : entries) {
+      label.append(entry.key()).append(", ");
+      values.add(entry.value());
+    }
+    if (!entries.isEmpty()) {
+      label.setLength(label.length() - 2);
+    }
+    label.append(')');
+    return profile(nodeFactory.createCreateObject(entries), label.toString(), values);
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> entries) {
+    return profile(nodeFactory.createCreateArray(entries), "CreateArray", entries);
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return profile(nodeFactory.createJsonLiteral(json));
+  }
+}
@@ -15,24 +15,31 @@ public class ProjectionNode<T> extends Node<T> {
     this.projection = projection;
   }
 
+  public Expression<T> projection() {
+    return projection;
+  }
+
   @Override
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.ARRAY) {
-      List<T> inputList = runtime.toList(input);
-      List<T> results = new ArrayList<>(inputList.size());
-      for (T inputItem : inputList) {
-        T result = projection.search(inputItem);
-        JmesPathType type = runtime.typeOf(result);
-        if (type != JmesPathType.NULL) {
-          results.add(result);
-        }
-      }
-      return runtime.createArray(results);
+      return runtime.createArray(project(runtime.toList(input)));
     } else {
       return runtime.createNull();
     }
   }
 
+  protected List<T> project(List<T> inputList) {
+    List<T> results = new ArrayList<>(inputList.size());
+    for (T inputItem : inputList) {
+      T result = projection.search(inputItem);
+      JmesPathType type = runtime.typeOf(result);
+      if (type != JmesPathType.NULL) {
+        results.add(result);
+      }
+    }
+    return results;
+  }
+
   @Override
   protected String internalToString() {
     return projection.toString();
@@ -1,20 +1,29 @@
 package io.burt.jmespath.node;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.PropertyKey;
 
 public class PropertyNode<T> extends Node<T> {
   private final String rawPropertyName;
-  private final T propertyName;
+  private final PropertyKey<T> propertyKey;
 
   public PropertyNode(Adapter<T> runtime, String rawPropertyName) {
     super(runtime);
     this.rawPropertyName = rawPropertyName;
-    this.propertyName = runtime.createString(rawPropertyName);
+    this.propertyKey = runtime.createPropertyKey(rawPropertyName);
+  }
+
+  public String rawPropertyName() {
+    return rawPropertyName;
+  }
+
+  public PropertyKey<T> propertyKey() {
+    return propertyKey;
   }
 
   @Override
   public T search(T input) {
-    return runtime.getProperty(input, propertyName);
+    return runtime.getProperty(input, propertyKey);
   }
 
   @Override
@@ -0,0 +1,375 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.bytecode.CompiledExpression;
+
+/**
+ * The parts of a JSON document that an expression can read, as a tree of
+ * property names.
+ * <p>
+ * For example <code>Records[*].{n: eventName, t: eventTime}</code> only reads
+ * the <code>eventName</code> and <code>eventTime</code> properties of the
+ * elements of <code>Records</code>. A parser can use this to skip everything
+ * else, and searching the smaller document gives the same result as searching
+ * the whole document.
+ * <p>
+ * Each node of the tree describes a value. When the node is complete the whole
+ * value is needed, for example because it is part of the result or is passed
+ * to a function. Otherwise, when the value is an object only the properties
+ * that have a node are needed, and when it is an array the
+ * {@link #elements} node describes what is needed of each element. Scalars are
+ * always needed, and so are arrays and objects even when none of their
+ * contents are, since their types can make a difference.
+ * <p>
+ * The analysis is conservative: indexes and slices need all elements, slices
+ * also need all properties since they apply to the values of objects, values
+ * that are compared, tested for truthiness or passed to functions are needed
+ * in their entirety, and any node that the analysis doesn't know needs the
+ * whole value it is applied to.
+ */
+public final class RequiredPaths {
+  private boolean complete;
+  private final Map<String, RequiredPaths> properties;
+  private RequiredPaths anyProperty;
+  private RequiredPaths elements;
+
+  private RequiredPaths() {
+    this.properties = new LinkedHashMap<>();
+  }
+
+  /**
+   * The values that an expression evaluates to during the analysis: either
+   * one of the values at the locations, or when <code>array</code> is true a
+   * new array whose elements are values at the locations. A value without
+   * locations was not read from the document.
+   */
+  private static class Value {
+    private static final Value NONE = new Value(Collections.<RequiredPaths>emptyList(), false);
+
+    private final List<RequiredPaths> locations;
+    private final boolean array;
+
+    public Value(List<RequiredPaths> locations, boolean array) {
+      this.locations = locations;
+      this.array = array;
+    }
+
+    public static Value at(RequiredPaths location) {
+      return new Value(Collections.singletonList(location), false);
+    }
+
+    /**
+     * Returns the locations of the elements of this value when it is an
+     * array, creating them if needed.
+     */
+    public List<RequiredPaths> elements() {
+      if (array) {
+        return locations;
+      }
+      List<RequiredPaths> elements = new ArrayList<>(locations.size());
+      for (RequiredPaths location : locations) {
+        elements.add(location.elements(true));
+      }
+      return elements;
+    }
+
+    public void complete() {
+      for (RequiredPaths location : locations) {
+        location.complete = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the parts of a document that the expression can read.
+   */
+  public static <T> RequiredPaths of(Expression<T> expression) {
+    RequiredPaths root = new RequiredPaths();
+    analyze(expression, Value.at(root)).complete();
+    root.normalize();
+    return root;
+  }
+
+  /**
+   * Returns whether the whole value is needed.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Returns what is needed of a property of an object, or null when the
+   * property is not needed.
+   */
+  public RequiredPaths property(String name) {
+    if (complete) {
+      return this;
+    }
+    RequiredPaths property = properties.get(name);
+    return property == null ? anyProperty : property;
+  }
+
+  /**
+   * Returns the names of the properties that are needed, not including those
+   * that are only needed because every property is.
+   */
+  public Set<String> propertyNames() {
+    return Collections.unmodifiableSet(properties.keySet());
+  }
+
+  /**
+   * Returns what is needed of every property of an object, or null when only
+   * the named properties are needed.
+   */
+  public RequiredPaths anyProperty() {
+    return complete ? this : anyProperty;
+  }
+
+  /**
+   * Returns what is needed of each element of an array, or null when no
+   * elements are needed.
+   */
+  public RequiredPaths elements() {
+    return complete ? this : elements;
+  }
+
+  /**
+   * Returns the paths of the values that are needed in their entirety, like
+   * <code>Records[].eventName</code>, with <code>*</code> for every property
+   * and <code>@</code> when the whole document is needed.
+   */
+  public List<String> paths() {
+    List<String> paths = new ArrayList<>();
+    collectPaths("", paths);
+    return paths;
+  }
+
+  @Override
+  public String toString() {
+    return paths().toString();
+  }
+
+  private void collectPaths(String prefix, List<String> paths) {
+    if (complete) {
+      paths.add(prefix.isEmpty() ? "@" : prefix);
+      return;
+    }
+    for (Map.Entry<String, RequiredPaths> entry : properties.entrySet()) {
+      entry.getValue().collectPaths(join(prefix, quoteIfNeeded(entry.getKey())), paths);
+    }
+    if (anyProperty != null) {
+      anyProperty.collectPaths(join(prefix, "*"), paths);
+    }
+    if (elements != null) {
+      elements.collectPaths(prefix + "[]", paths);
+    }
+  }
+
+  private static String join(String prefix, String name) {
+    return prefix.isEmpty() ? name : prefix + "." + name;
+  }
+
+  private static String quoteIfNeeded(String name) {
+    if (name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+      return name;
+    }
+    return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private RequiredPaths property(String name, boolean create) {
+    RequiredPaths property = properties.get(name);
+    if (property == null && create) {
+      property = new RequiredPaths();
+      properties.put(name, property);
+    }
+    return property;
+  }
+
+  private RequiredPaths anyProperty(boolean create) {
+    if (anyProperty == null && create) {
+      anyProperty = new RequiredPaths();
+    }
+    return anyProperty;
+  }
+
+  private RequiredPaths elements(boolean create) {
+    if (elements == null && create) {
+      elements = new RequiredPaths();
+    }
+    return elements;
+  }
+
+  /**
+   * Removes what is below complete nodes, and adds what is needed of every
+   * property to each named property, so that {@link #property} only has to
+   * look in one place.
+   */
+  private void normalize() {
+    if (complete) {
+      properties.clear();
+      anyProperty = null;
+      elements = null;
+      return;
+    }
+    if (anyProperty != null) {
+      for (RequiredPaths property : properties.values()) {
+        property.merge(anyProperty);
+      }
+      anyProperty.normalize();
+    }
+    for (RequiredPaths property : properties.values()) {
+      property.normalize();
+    }
+    if (elements != null) {
+      elements.normalize();
+    }
+  }
+
+  private void merge(RequiredPaths other) {
+    complete |= other.complete;
+    for (Map.Entry<String, RequiredPaths> entry : other.properties.entrySet()) {
+      property(entry.getKey(), true).merge(entry.getValue());
+    }
+    if (other.anyProperty != null) {
+      anyProperty(true).merge(other.anyProperty);
+    }
+    if (other.elements != null) {
+      elements(true).merge(other.elements);
+    }
+  }
+
+  private static <T> Value analyze(Expression<T> expression, Value input) {
+    if (expression instanceof CompiledExpression) {
+      return analyze(((CompiledExpression<T>) expression).source(), input);
+    } else if (expression instanceof ProfiledNode) {
+      return analyze(((ProfiledNode<T>) expression).node(), input);
+    } else if (expression instanceof CurrentNode) {
+      return input;
+    } else if (expression instanceof SequenceNode || expression instanceof PipelineNode) {
+      List<Node<T>> nodes;
+      if (expression instanceof SequenceNode) {
+        nodes = ((SequenceNode<T>) expression).nodes();
+      } else {
+        nodes = ((PipelineNode<T>) expression).nodes();
+      }
+      Value value = input;
+      for (Node<T> node : nodes) {
+        value = analyze(node, value);
+      }
+      return value;
+    } else if (expression instanceof PropertyNode) {
+      if (input.array) {
+        return Value.NONE;
+      }
+      String name = ((PropertyNode<T>) expression).rawPropertyName();
+      List<RequiredPaths> properties = new ArrayList<>(input.locations.size());
+      for (RequiredPaths location : input.locations) {
+        properties.add(location.property(name, true));
+      }
+      return new Value(properties, false);
+    } else if (expression instanceof IndexNode) {
+      return new Value(input.elements(), false);
+    } else if (expression instanceof SliceNode) {
+      // Slices also apply to the values of objects, so every property is
+      // needed like an element is
+      List<RequiredPaths> elements = new ArrayList<>(input.elements());
+      if (!input.array) {
+        for (RequiredPaths location : input.locations) {
+          elements.add(location.anyProperty(true));
+        }
+      }
+      return new Value(elements, true);
+    } else if (expression instanceof FlattenArrayNode) {
+      List<RequiredPaths> elements = input.elements();
+      List<RequiredPaths> flattened = new ArrayList<>(elements);
+      for (RequiredPaths element : elements) {
+        flattened.add(element.elements(true));
+      }
+      return new Value(flattened, true);
+    } else if (expression instanceof FlattenObjectNode) {
+      if (input.array) {
+        return Value.NONE;
+      }
+      List<RequiredPaths> values = new ArrayList<>(input.locations.size());
+      for (RequiredPaths location : input.locations) {
+        values.add(location.anyProperty(true));
+      }
+      return new Value(values, true);
+    } else if (expression instanceof ProjectionNode) {
+      Value projected = analyze(((ProjectionNode<T>) expression).projection(), new Value(input.elements(), false));
+      if (projected.array) {
+        projected.complete();
+        return Value.NONE;
+      }
+      return new Value(projected.locations, true);
+    } else if (expression instanceof SelectionNode) {
+      List<RequiredPaths> elements = input.elements();
+      analyze(((SelectionNode<T>) expression).test(), new Value(elements, false)).complete();
+      return new Value(elements, true);
+    } else if (expression instanceof AndNode || expression instanceof OrNode) {
+      // Whether the left operand is truthy can depend on all of it, an
+      // object or array is falsy when it is empty
+      List<Expression<T>> operands = ((OperatorNode<T>) expression).operands();
+      Value left = analyze(operands.get(0), input);
+      left.complete();
+      return union(left, analyze(operands.get(1), input));
+    } else if (expression instanceof ComparisonNode) {
+      for (Expression<T> operand : ((ComparisonNode<T>) expression).operands()) {
+        analyze(operand, input).complete();
+      }
+      return Value.NONE;
+    } else if (expression instanceof NegateNode) {
+      analyze(((NegateNode<T>) expression).negated(), input).complete();
+      return Value.NONE;
+    } else if (expression instanceof FunctionCallNode) {
+      // Expression references are applied to parts of the value arguments,
+      // which are needed in their entirety anyway
+      for (Expression<T> arg : ((FunctionCallNode<T>) expression).args()) {
+        if (!(arg instanceof ExpressionReferenceNode)) {
+          analyze(arg, input).complete();
+        }
+      }
+      return Value.NONE;
+    } else if (expression instanceof CreateArrayNode) {
+      for (Expression<T> entry : ((CreateArrayNode<T>) expression).entries()) {
+        analyze(entry, input).complete();
+      }
+      return Value.NONE;
+    } else if (expression instanceof CreateObjectNode) {
+      for (CreateObjectNode.Entry<T> entry : ((CreateObjectNode<T>) expression).entries()) {
+        analyze(entry.value(), input).complete();
+      }
+      return Value.NONE;
+    } else if (expression instanceof JsonLiteralNode || expression instanceof StringNode || expression instanceof ExpressionReferenceNode) {
+      return Value.NONE;
+    } else {
+      input.complete();
+      return Value.NONE;
+    }
+  }
+
+  /**
+   * Returns a value that can be either of the values.
+   */
+  private static Value union(Value a, Value b) {
+    if (a.locations.isEmpty()) {
+      return b;
+    } else if (b.locations.isEmpty()) {
+      return a;
+    } else if (a.array != b.array) {
+      a.complete();
+      b.complete();
+      return Value.NONE;
+    }
+    List<RequiredPaths> locations = new ArrayList<>(a.locations);
+    locations.addAll(b.locations);
+    return new Value(locations, a.array);
+  }
+}
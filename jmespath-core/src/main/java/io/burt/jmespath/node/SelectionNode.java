@@ -15,22 +15,30 @@ public class SelectionNode<T> extends Node<T> {
     this.test = test;
   }
 
+  public Expression<T> test() {
+    return test;
+  }
+
   @Override
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.ARRAY) {
-      List<T> selectedElements = new LinkedList<>();
-      for (T element : runtime.toList(input)) {
-        T testResult = test.search(element);
-        if (runtime.isTruthy(testResult)) {
-          selectedElements.add(element);
-        }
-      }
-      return runtime.createArray(selectedElements);
+      return runtime.createArray(select(runtime.toList(input)));
     } else {
       return runtime.createNull();
     }
   }
 
+  protected List<T> select(List<T> elements) {
+    List<T> selectedElements = new LinkedList<>();
+    for (T element : elements) {
+      T testResult = test.search(element);
+      if (runtime.isTruthy(testResult)) {
+        selectedElements.add(element);
+      }
+    }
+    return selectedElements;
+  }
+
   @Override
   protected String internalToString() {
     return test.toString();
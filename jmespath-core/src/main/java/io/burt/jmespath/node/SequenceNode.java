@@ -12,6 +12,10 @@ public class SequenceNode<T> extends Node<T> {
     this.nodes = nodes;
   }
 
+  public List<Node<T>> nodes() {
+    return nodes;
+  }
+
   @Override
   protected String internalToString() {
     if (nodes.isEmpty()) {
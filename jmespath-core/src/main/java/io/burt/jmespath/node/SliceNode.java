@@ -27,12 +27,39 @@ public class SliceNode<T> extends Node<T> {
     this.stop = (stop == null) ? ((this.step < 0) ? Integer.MIN_VALUE : Integer.MAX_VALUE) : stop;
   }
 
+  public int start() {
+    return start;
+  }
+
+  public int stop() {
+    return stop;
+  }
+
+  public int step() {
+    return step;
+  }
+
+  /**
+   * Returns the index of the first element selected from an array of the
+   * specified size. The following elements are found by adding the step.
+   */
+  int begin(int size) {
+    return (start < 0) ? Math.max(size + start, 0) : Math.min(start, size + limit);
+  }
+
+  /**
+   * Returns the number of elements selected from an array of the specified size.
+   */
+  int count(int size) {
+    int end = (stop < 0) ? Math.max(size + stop, limit) : Math.min(stop, size);
+    return Math.max(0, (end - begin(size) + rounding) / step);
+  }
+
   @Override
   public T search(T input) {
     List<T> elements = runtime.toList(input);
-    int begin = (start < 0) ? Math.max(elements.size() + start, 0) : Math.min(start, elements.size() + limit);
-    int end = (stop < 0) ? Math.max(elements.size() + stop, limit) : Math.min(stop, elements.size());
-    int steps = Math.max(0, (end - begin + rounding) / step);
+    int begin = begin(elements.size());
+    int steps = count(elements.size());
     List<T> output = new ArrayList<>(steps);
     for (int i = 0, offset = begin; i < steps; i++, offset += step) {
       output.add(elements.get(offset));
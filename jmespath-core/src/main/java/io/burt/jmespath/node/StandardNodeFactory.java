@@ -1,19 +1,44 @@
 package io.burt.jmespath.node;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentType;
+import io.burt.jmespath.function.ContainsFunction;
 import io.burt.jmespath.function.Function;
+import io.burt.jmespath.util.LruCache;
 
 /**
  * This node factory creates instances of the standard node classes.
+ * <p>
+ * The values of JSON literals are kept in a cache so that compiling an
+ * expression with a literal that has been seen before does not parse it again.
+ * Literals that are booleans, <code>null</code> or strings without escapes are
+ * created directly, without parsing, and so are small integers when the runtime
+ * creates the same values for them as its parser does. This means that the same
+ * literal value is shared between expressions, and it must not be modified.
  */
 public class StandardNodeFactory<T> implements NodeFactory<T> {
+  private static final int LITERAL_CACHE_SIZE = 1024;
+
   private final Adapter<T> runtime;
+  private final LruCache<String, T> literalCache;
+  private volatile Boolean createsParsedIntegers;
 
   public StandardNodeFactory(Adapter<T> runtime) {
     this.runtime = runtime;
+    this.literalCache = new LruCache<>(LITERAL_CACHE_SIZE);
+  }
+
+  /**
+   * Returns the cache of parsed JSON literal values, which can be used to
+   * monitor hits, misses and evictions.
+   */
+  public LruCache<String, T> literalCache() {
+    return literalCache;
   }
 
   @Override
@@ -78,12 +103,41 @@ public class StandardNodeFactory<T> implements NodeFactory<T> {
 
   @Override
   public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
-    return new FunctionCallNode<>(runtime, runtime.functionRegistry().getFunction(functionName), args);
+    return createFunctionCall(runtime.functionRegistry().getFunction(functionName), args);
   }
 
   @Override
   public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
-    return new FunctionCallNode<>(runtime, function, args);
+    if (isContainsWithLiteralArray(function, args)) {
+      return new IndexedContainsNode<>(runtime, function, args, ((JsonLiteralNode<T>) args.get(0)).value());
+    } else {
+      return new FunctionCallNode<>(runtime, function, args, argumentsSatisfyConstraints(function, args));
+    }
+  }
+
+  /**
+   * Checks the argument constraints of the function against the types of the
+   * arguments that can be inferred, so that the arguments don't have to be
+   * checked each time the function is called.
+   */
+  private boolean argumentsSatisfyConstraints(Function function, List<? extends Expression<T>> args) {
+    if (function == null) {
+      return false;
+    }
+    List<ArgumentType> argumentTypes = new ArrayList<>(args.size());
+    for (Expression<T> arg : args) {
+      argumentTypes.add(TypeInference.inferType(runtime, arg));
+    }
+    return function.argumentConstraints().isSatisfiedBy(argumentTypes.iterator(), true);
+  }
+
+  private boolean isContainsWithLiteralArray(Function function, List<? extends Expression<T>> args) {
+    return function != null
+      && function.getClass() == ContainsFunction.class
+      && args.size() == 2
+      && args.get(0) instanceof JsonLiteralNode
+      && runtime.typeOf(((JsonLiteralNode<T>) args.get(0)).value()) == JmesPathType.ARRAY
+      && !(args.get(1) instanceof ExpressionReferenceNode);
   }
 
   @Override
@@ -113,6 +167,71 @@ public class StandardNodeFactory<T> implements NodeFactory<T> {
 
   @Override
   public Node<T> createJsonLiteral(String json) {
-    return new JsonLiteralNode<>(runtime, json);
+    return new JsonLiteralNode<>(runtime, json, parseLiteral(json));
+  }
+
+  private T parseLiteral(String json) {
+    String trimmedJson = json.trim();
+    if (trimmedJson.equals("true")) {
+      return runtime.createBoolean(true);
+    } else if (trimmedJson.equals("false")) {
+      return runtime.createBoolean(false);
+    } else if (trimmedJson.equals("null")) {
+      return runtime.createNull();
+    } else if (isSimpleString(trimmedJson)) {
+      return runtime.createString(trimmedJson.substring(1, trimmedJson.length() - 1));
+    } else if (isSmallInteger(trimmedJson) && createsParsedIntegers()) {
+      return runtime.createNumber(Long.parseLong(trimmedJson));
+    }
+    T value = literalCache.get(json);
+    if (value == null) {
+      value = literalCache.putIfAbsent(json, runtime.parseString(json));
+    }
+    return value;
+  }
+
+  private boolean isSimpleString(String json) {
+    if (json.length() < 2 || json.charAt(0) != '"' || json.charAt(json.length() - 1) != '"') {
+      return false;
+    }
+    for (int i = 1; i < json.length() - 1; i++) {
+      char c = json.charAt(i);
+      if (c == '"' || c == '\\' || c < ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Some runtimes parse integers into a different type than the one
+   * {@link Adapter#createNumber(long)} creates, and those values are not
+   * always equal to each other. This is checked lazily, since the runtime
+   * has not been fully constructed when it creates its node factory.
+   */
+  private boolean createsParsedIntegers() {
+    if (createsParsedIntegers == null) {
+      createsParsedIntegers = runtime.createNumber(1L).equals(runtime.parseString("1"));
+    }
+    return createsParsedIntegers;
+  }
+
+  /**
+   * Integers with at most nine digits fit in an int, which is what most
+   * parsers use for them.
+   */
+  private boolean isSmallInteger(String json) {
+    int start = json.startsWith("-") ? 1 : 0;
+    int digits = json.length() - start;
+    if (digits < 1 || digits > 9 || (json.charAt(start) == '0' && (digits > 1 || start > 0))) {
+      return false;
+    }
+    for (int i = start; i < json.length(); i++) {
+      char c = json.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -0,0 +1,70 @@
+package io.burt.jmespath.node;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.ArgumentType;
+
+/**
+ * Infers the types of function call arguments from the expressions that
+ * produce them, so that argument constraints can be checked when an
+ * expression is compiled instead of each time the function is called.
+ * <p>
+ * Only types that don't depend on the input are inferred: literals, negations,
+ * equality comparisons and calls to functions with a known result type whose
+ * arguments have been checked. Most other expressions, like properties and
+ * projections, evaluate to null for some inputs.
+ */
+final class TypeInference {
+  private TypeInference() {}
+
+  public static <T> ArgumentType inferType(Adapter<T> runtime, Expression<T> expression) {
+    if (expression instanceof ProfiledNode) {
+      return inferType(runtime, ((ProfiledNode<T>) expression).node());
+    } else if (expression instanceof ExpressionReferenceNode) {
+      return ArgumentType.expression();
+    } else if (expression instanceof JsonLiteralNode) {
+      return valueType(runtime, ((JsonLiteralNode<T>) expression).value());
+    } else if (expression instanceof StringNode || expression instanceof NegateNode) {
+      return ArgumentType.of(expression instanceof StringNode ? JmesPathType.STRING : JmesPathType.BOOLEAN);
+    } else if (expression instanceof ComparisonNode) {
+      Operator operator = ((ComparisonNode<T>) expression).operator();
+      if (operator == Operator.EQUALS || operator == Operator.NOT_EQUALS) {
+        return ArgumentType.of(JmesPathType.BOOLEAN);
+      }
+    } else if (expression instanceof FunctionCallNode) {
+      FunctionCallNode<T> functionCall = (FunctionCallNode<T>) expression;
+      if (functionCall.argumentsChecked()) {
+        return functionCall.implementation().resultType();
+      }
+    } else if (expression instanceof SequenceNode) {
+      SequenceNode<T> sequence = (SequenceNode<T>) expression;
+      if (!sequence.nodes().isEmpty()) {
+        ArgumentType type = inferType(runtime, sequence.nodes().get(sequence.nodes().size() - 1));
+        if (!type.isExpression()) {
+          return type;
+        }
+      }
+    }
+    return ArgumentType.anyValue();
+  }
+
+  private static <T> ArgumentType valueType(Adapter<T> runtime, T value) {
+    JmesPathType type = runtime.typeOf(value);
+    if (type == JmesPathType.ARRAY) {
+      JmesPathType elementType = null;
+      for (T element : runtime.toList(value)) {
+        JmesPathType t = runtime.typeOf(element);
+        if (elementType == null) {
+          elementType = t;
+        } else if (elementType != t) {
+          return ArgumentType.of(JmesPathType.ARRAY);
+        }
+      }
+      if (elementType != null) {
+        return ArgumentType.arrayOf(ArgumentType.of(elementType));
+      }
+    }
+    return ArgumentType.of(type);
+  }
+}
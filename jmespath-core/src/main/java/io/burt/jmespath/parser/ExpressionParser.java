@@ -20,7 +20,7 @@ import io.burt.jmespath.node.CreateObjectNode.Entry;
 import io.burt.jmespath.node.Operator;
 
 public class ExpressionParser<T> extends JmesPathBaseVisitor<Node<T>> {
-  private static final StringEscapeHelper identifierEscapeHelper = new StringEscapeHelper(
+  static final StringEscapeHelper identifierEscapeHelper = new StringEscapeHelper(
     true,
     '"', '"',
     '/', '/',
@@ -32,13 +32,13 @@ public class ExpressionParser<T> extends JmesPathBaseVisitor<Node<T>> {
     't', '\t'
   );
 
-  private static final StringEscapeHelper rawStringEscapeHelper = new StringEscapeHelper(
+  static final StringEscapeHelper rawStringEscapeHelper = new StringEscapeHelper(
     false,
     '\'', '\'',
     '\\', '\\'
   );
 
-  private static final StringEscapeHelper jsonLiteralEscapeHelper = new StringEscapeHelper(
+  static final StringEscapeHelper jsonLiteralEscapeHelper = new StringEscapeHelper(
     false,
     '`', '`'
   );
@@ -0,0 +1,41 @@
+package io.burt.jmespath.parser;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * The parsers that a runtime can use to compile expressions.
+ *
+ * @see io.burt.jmespath.RuntimeConfiguration.Builder#withParserType
+ */
+public enum ParserType {
+  /**
+   * The hand written parser in {@link RecursiveDescentParser}, which builds
+   * nodes directly without an intermediate parse tree. Expressions it can't
+   * parse are handed over to the ANTLR parser, which reports the errors.
+   */
+  RECURSIVE_DESCENT {
+    @Override
+    public <T> Expression<T> parse(Adapter<T> runtime, String expression) {
+      return RecursiveDescentParser.fromString(runtime, expression);
+    }
+  },
+
+  /**
+   * The parser generated by ANTLR from the grammar, see {@link ExpressionParser}.
+   */
+  ANTLR {
+    @Override
+    public <T> Expression<T> parse(Adapter<T> runtime, String expression) {
+      return ExpressionParser.fromString(runtime, expression);
+    }
+  };
+
+  /**
+   * Compiles an expression into a tree of nodes created by the runtime's
+   * node factory.
+   *
+   * @throws ParseException when the expression is not valid
+   */
+  public abstract <T> Expression<T> parse(Adapter<T> runtime, String expression);
+}
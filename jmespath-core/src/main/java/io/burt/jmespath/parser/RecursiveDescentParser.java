@@ -0,0 +1,842 @@
+package io.burt.jmespath.parser;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.CreateObjectNode.Entry;
+import io.burt.jmespath.node.Operator;
+
+/**
+ * A hand written parser that turns expressions directly into nodes, without
+ * building a parse tree first.
+ * <p>
+ * The parser produces exactly the same node trees as {@link ExpressionParser},
+ * but it only handles valid expressions. When it encounters something it
+ * can't parse it hands the expression over to {@link ExpressionParser}, so
+ * that errors are reported with the same messages and positions regardless of
+ * which parser is used.
+ * <p>
+ * Like the grammar, the parser is an operator precedence parser for the
+ * binary operators (pipes, comparisons, and, or) and negation. Chains of
+ * sub expressions, brackets and projections (e.g. <code>foo[*].bar[0]</code>)
+ * are collected into a stack of steps and folded from the right, mirroring
+ * how {@link ExpressionParser} threads the rest of a chain through the visitor.
+ */
+public class RecursiveDescentParser<T> {
+  private static final int EOF = 0;
+  private static final int DOT = 1;
+  private static final int STAR = 2;
+  private static final int LEFT_BRACKET = 3;
+  private static final int RIGHT_BRACKET = 4;
+  private static final int FILTER = 5;
+  private static final int LEFT_BRACE = 6;
+  private static final int RIGHT_BRACE = 7;
+  private static final int LEFT_PAREN = 8;
+  private static final int RIGHT_PAREN = 9;
+  private static final int COMMA = 10;
+  private static final int COLON = 11;
+  private static final int PIPE = 12;
+  private static final int OR = 13;
+  private static final int AND = 14;
+  private static final int NOT = 15;
+  private static final int AT = 16;
+  private static final int AMPERSAND = 17;
+  private static final int BACKTICK = 18;
+  private static final int COMPARATOR = 19;
+  private static final int NAME = 20;
+  private static final int JSON_CONSTANT = 21;
+  private static final int STRING = 22;
+  private static final int RAW_STRING = 23;
+  private static final int SIGNED_INT = 24;
+  private static final int REAL_OR_EXPONENT_NUMBER = 25;
+
+  private static final int PIPE_PRECEDENCE = 1;
+  private static final int OR_PRECEDENCE = 2;
+  private static final int AND_PRECEDENCE = 3;
+  private static final int COMPARISON_PRECEDENCE = 4;
+
+  /** The step is joined to the rest of the chain with a sequence. */
+  private static final int SEQUENCE_STEP = 0;
+  /** The step is <code>@</code>, and is replaced by the rest of the chain. */
+  private static final int CURRENT_STEP = 1;
+  /** The step is <code>[*]</code>, the rest of the chain is projected. */
+  private static final int STAR_STEP = 2;
+  /** The step is a slice, selection or <code>*</code>, the rest of the chain is projected. */
+  private static final int PROJECTION_STEP = 3;
+  /** The step is <code>[]</code>, which also ends the chain before it. */
+  private static final int FLATTEN_STEP = 4;
+
+  private static final ParseFailure PARSE_FAILURE = new ParseFailure();
+
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> nodeFactory;
+  private final String input;
+
+  private int[] tokenTypes;
+  private int[] tokenStarts;
+  private int[] tokenEnds;
+  private int tokenCount;
+  private int position;
+
+  private int[] stepTypes;
+  private Node<T>[] stepNodes;
+  private int stepCount;
+
+  /**
+   * Thrown when the parser can't handle the expression, it's never visible
+   * outside of the parser since the expression is then handed over to
+   * {@link ExpressionParser}.
+   */
+  @SuppressWarnings("serial")
+  private static class ParseFailure extends RuntimeException {
+    public ParseFailure() {
+      super(null, null, false, false);
+    }
+  }
+
+  public static <U> Expression<U> fromString(Adapter<U> runtime, String rawExpression) {
+    try {
+      return new RecursiveDescentParser<>(runtime, rawExpression).expression();
+    } catch (ParseFailure pf) {
+      return ExpressionParser.fromString(runtime, rawExpression);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private RecursiveDescentParser(Adapter<T> runtime, String input) {
+    this.runtime = runtime;
+    this.nodeFactory = runtime.nodeFactory();
+    this.input = input;
+    int initialTokenCapacity = Math.max(8, input.length() / 2);
+    this.tokenTypes = new int[initialTokenCapacity];
+    this.tokenStarts = new int[initialTokenCapacity];
+    this.tokenEnds = new int[initialTokenCapacity];
+    this.stepTypes = new int[8];
+    this.stepNodes = (Node<T>[]) new Node[8];
+  }
+
+  public Expression<T> expression() {
+    tokenize();
+    position = 0;
+    Node<T> expression = parseExpression(0);
+    expect(EOF);
+    return expression;
+  }
+
+  private static ParseFailure fail() {
+    return PARSE_FAILURE;
+  }
+
+  private void tokenize() {
+    int length = input.length();
+    int i = 0;
+    while (i < length) {
+      char c = input.charAt(i);
+      int start = i;
+      int type;
+      switch (c) {
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+          i++;
+          continue;
+        case '.':
+          type = DOT;
+          i++;
+          break;
+        case '*':
+          type = STAR;
+          i++;
+          break;
+        case '[':
+          if (i + 1 < length && input.charAt(i + 1) == '?') {
+            type = FILTER;
+            i += 2;
+          } else {
+            type = LEFT_BRACKET;
+            i++;
+          }
+          break;
+        case ']':
+          type = RIGHT_BRACKET;
+          i++;
+          break;
+        case '{':
+          type = LEFT_BRACE;
+          i++;
+          break;
+        case '}':
+          type = RIGHT_BRACE;
+          i++;
+          break;
+        case '(':
+          type = LEFT_PAREN;
+          i++;
+          break;
+        case ')':
+          type = RIGHT_PAREN;
+          i++;
+          break;
+        case ',':
+          type = COMMA;
+          i++;
+          break;
+        case ':':
+          type = COLON;
+          i++;
+          break;
+        case '@':
+          type = AT;
+          i++;
+          break;
+        case '`':
+          type = BACKTICK;
+          i++;
+          break;
+        case '|':
+          if (i + 1 < length && input.charAt(i + 1) == '|') {
+            type = OR;
+            i += 2;
+          } else {
+            type = PIPE;
+            i++;
+          }
+          break;
+        case '&':
+          if (i + 1 < length && input.charAt(i + 1) == '&') {
+            type = AND;
+            i += 2;
+          } else {
+            type = AMPERSAND;
+            i++;
+          }
+          break;
+        case '!':
+          if (i + 1 < length && input.charAt(i + 1) == '=') {
+            type = COMPARATOR;
+            i += 2;
+          } else {
+            type = NOT;
+            i++;
+          }
+          break;
+        case '<':
+        case '>':
+          type = COMPARATOR;
+          i++;
+          if (i < length && input.charAt(i) == '=') {
+            i++;
+          }
+          break;
+        case '=':
+          if (i + 1 < length && input.charAt(i + 1) == '=') {
+            type = COMPARATOR;
+            i += 2;
+          } else {
+            throw fail();
+          }
+          break;
+        case '"':
+          type = STRING;
+          i = scanString(i);
+          break;
+        case '\'':
+          type = RAW_STRING;
+          i = scanRawString(i);
+          break;
+        default:
+          if (c == '-' || isDigit(c)) {
+            int integerEnd = scanInteger(c == '-' ? i + 1 : i);
+            if (integerEnd < 0) {
+              throw fail();
+            }
+            type = SIGNED_INT;
+            i = integerEnd;
+            if (i + 1 < length && input.charAt(i) == '.' && isDigit(input.charAt(i + 1))) {
+              type = REAL_OR_EXPONENT_NUMBER;
+              i += 2;
+              while (i < length && isDigit(input.charAt(i))) {
+                i++;
+              }
+            }
+            int exponentEnd = scanExponent(i);
+            if (exponentEnd > 0) {
+              type = REAL_OR_EXPONENT_NUMBER;
+              i = exponentEnd;
+            }
+          } else if (isNameStart(c)) {
+            i++;
+            while (i < length && isNamePart(input.charAt(i))) {
+              i++;
+            }
+            type = isJsonConstant(start, i) ? JSON_CONSTANT : NAME;
+          } else {
+            throw fail();
+          }
+      }
+      addToken(type, start, i);
+    }
+    addToken(EOF, length, length);
+  }
+
+  private void addToken(int type, int start, int end) {
+    if (tokenCount == tokenTypes.length) {
+      int capacity = tokenCount * 2;
+      tokenTypes = Arrays.copyOf(tokenTypes, capacity);
+      tokenStarts = Arrays.copyOf(tokenStarts, capacity);
+      tokenEnds = Arrays.copyOf(tokenEnds, capacity);
+    }
+    tokenTypes[tokenCount] = type;
+    tokenStarts[tokenCount] = start;
+    tokenEnds[tokenCount] = end;
+    tokenCount++;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isNameStart(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+  }
+
+  private static boolean isNamePart(char c) {
+    return isNameStart(c) || isDigit(c);
+  }
+
+  private static boolean isHexDigit(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+
+  private boolean isJsonConstant(int start, int end) {
+    int length = end - start;
+    if (length == 4) {
+      return input.startsWith("true", start) || input.startsWith("null", start);
+    } else if (length == 5) {
+      return input.startsWith("false", start);
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the end of an integer without leading zeros starting at the
+   * offset, or -1 if there is none.
+   */
+  private int scanInteger(int offset) {
+    int length = input.length();
+    if (offset >= length) {
+      return -1;
+    }
+    char c = input.charAt(offset);
+    if (c == '0') {
+      return offset + 1;
+    } else if (isDigit(c)) {
+      int i = offset + 1;
+      while (i < length && isDigit(input.charAt(i))) {
+        i++;
+      }
+      return i;
+    } else {
+      return -1;
+    }
+  }
+
+  private int scanExponent(int offset) {
+    int length = input.length();
+    if (offset < length && (input.charAt(offset) == 'e' || input.charAt(offset) == 'E')) {
+      int i = offset + 1;
+      if (i < length && (input.charAt(i) == '+' || input.charAt(i) == '-')) {
+        i++;
+      }
+      return scanInteger(i);
+    }
+    return -1;
+  }
+
+  private int scanString(int offset) {
+    int length = input.length();
+    int i = offset + 1;
+    while (i < length) {
+      char c = input.charAt(i);
+      if (c == '"') {
+        return i + 1;
+      } else if (c == '\\') {
+        if (i + 1 >= length) {
+          throw fail();
+        }
+        char e = input.charAt(i + 1);
+        if (e == 'u') {
+          if (i + 5 >= length) {
+            throw fail();
+          }
+          for (int j = i + 2; j < i + 6; j++) {
+            if (!isHexDigit(input.charAt(j))) {
+              throw fail();
+            }
+          }
+          i += 6;
+        } else if ("\"\\/bfnrt`".indexOf(e) > -1) {
+          i += 2;
+        } else {
+          throw fail();
+        }
+      } else {
+        i++;
+      }
+    }
+    throw fail();
+  }
+
+  private int scanRawString(int offset) {
+    int length = input.length();
+    int i = offset + 1;
+    while (i < length) {
+      char c = input.charAt(i);
+      if (c == '\'') {
+        return i + 1;
+      } else if (c == '\\') {
+        i += 2;
+      } else {
+        i++;
+      }
+    }
+    throw fail();
+  }
+
+  private String text(int token) {
+    return input.substring(tokenStarts[token], tokenEnds[token]);
+  }
+
+  private void expect(int type) {
+    if (tokenTypes[position] != type) {
+      throw fail();
+    }
+    position++;
+  }
+
+  private boolean accept(int type) {
+    if (tokenTypes[position] == type) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private Node<T> createSequence(Node<T> first, Node<T> second) {
+    return nodeFactory.createSequence(Arrays.asList(first, second));
+  }
+
+  private Node<T> parseExpression(int minPrecedence) {
+    Node<T> left = parseUnary();
+    while (true) {
+      int type = tokenTypes[position];
+      if (type == COMPARATOR && minPrecedence <= COMPARISON_PRECEDENCE) {
+        Operator operator = Operator.fromString(text(position));
+        position++;
+        Node<T> right = parseExpression(COMPARISON_PRECEDENCE + 1);
+        left = nodeFactory.createComparison(operator, left, right);
+      } else if (type == AND && minPrecedence <= AND_PRECEDENCE) {
+        position++;
+        Node<T> right = parseExpression(AND_PRECEDENCE + 1);
+        left = nodeFactory.createAnd(left, right);
+      } else if (type == OR && minPrecedence <= OR_PRECEDENCE) {
+        position++;
+        Node<T> right = parseExpression(OR_PRECEDENCE + 1);
+        left = nodeFactory.createOr(left, right);
+      } else if (type == PIPE && minPrecedence <= PIPE_PRECEDENCE) {
+        position++;
+        Node<T> right = parseExpression(PIPE_PRECEDENCE + 1);
+        left = createSequence(left, right);
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private Node<T> parseUnary() {
+    if (accept(NOT)) {
+      return nodeFactory.createNegate(parseUnary());
+    } else {
+      return parseChain();
+    }
+  }
+
+  private Node<T> parseChain() {
+    int base = stepCount;
+    parsePrimary();
+    while (true) {
+      int type = tokenTypes[position];
+      if (type == DOT) {
+        position++;
+        parseChainedExpression();
+      } else if (type == LEFT_BRACKET) {
+        position++;
+        parseBracketSpecifier();
+      } else if (type == FILTER) {
+        parseSelection();
+      } else {
+        break;
+      }
+    }
+    Node<T> result = foldSteps(base, stepCount, null);
+    for (int i = base; i < stepCount; i++) {
+      stepNodes[i] = null;
+    }
+    stepCount = base;
+    return result;
+  }
+
+  private void pushStep(int type, Node<T> node) {
+    if (stepCount == stepTypes.length) {
+      stepTypes = Arrays.copyOf(stepTypes, stepCount * 2);
+      stepNodes = Arrays.copyOf(stepNodes, stepCount * 2);
+    }
+    stepTypes[stepCount] = type;
+    stepNodes[stepCount] = node;
+    stepCount++;
+  }
+
+  /**
+   * Combines the steps from the right, the <code>rest</code> argument is the
+   * node created from the steps to the right of the current step.
+   */
+  private Node<T> foldSteps(int base, int end, Node<T> rest) {
+    for (int i = end - 1; i >= base; i--) {
+      if (stepTypes[i] == FLATTEN_STEP && i > base) {
+        Node<T> flatten = applyStep(FLATTEN_STEP, stepNodes[i], rest);
+        return createSequence(foldSteps(base, i, null), flatten);
+      }
+      rest = applyStep(stepTypes[i], stepNodes[i], rest);
+    }
+    return rest;
+  }
+
+  private Node<T> applyStep(int type, Node<T> node, Node<T> rest) {
+    switch (type) {
+      case CURRENT_STEP:
+        return rest == null ? nodeFactory.createCurrent() : rest;
+      case STAR_STEP:
+        return nodeFactory.createProjection(rest == null ? nodeFactory.createCurrent() : rest);
+      case PROJECTION_STEP:
+      case FLATTEN_STEP:
+        return rest == null ? node : createSequence(node, nodeFactory.createProjection(rest));
+      default:
+        return rest == null ? node : createSequence(node, rest);
+    }
+  }
+
+  private void parsePrimary() {
+    switch (tokenTypes[position]) {
+      case NAME:
+        if (tokenTypes[position + 1] == LEFT_PAREN) {
+          pushStep(SEQUENCE_STEP, parseFunctionCall());
+        } else {
+          pushStep(SEQUENCE_STEP, nodeFactory.createProperty(parseIdentifier()));
+        }
+        break;
+      case STRING:
+      case JSON_CONSTANT:
+        pushStep(SEQUENCE_STEP, nodeFactory.createProperty(parseIdentifier()));
+        break;
+      case LEFT_PAREN:
+        position++;
+        Node<T> expression = parseExpression(0);
+        expect(RIGHT_PAREN);
+        pushStep(SEQUENCE_STEP, expression);
+        break;
+      case STAR:
+        position++;
+        pushStep(PROJECTION_STEP, nodeFactory.createFlattenObject());
+        break;
+      case LEFT_BRACKET:
+        position++;
+        if (isBracketSpecifier()) {
+          parseBracketSpecifier();
+        } else {
+          pushStep(SEQUENCE_STEP, parseMultiSelectList());
+        }
+        break;
+      case FILTER:
+        parseSelection();
+        break;
+      case LEFT_BRACE:
+        pushStep(SEQUENCE_STEP, parseMultiSelectHash());
+        break;
+      case BACKTICK:
+        pushStep(SEQUENCE_STEP, parseLiteral());
+        break;
+      case RAW_STRING:
+        String quotedString = text(position);
+        position++;
+        pushStep(SEQUENCE_STEP, nodeFactory.createString(ExpressionParser.rawStringEscapeHelper.unescape(quotedString.substring(1, quotedString.length() - 1))));
+        break;
+      case AT:
+        position++;
+        pushStep(CURRENT_STEP, null);
+        break;
+      default:
+        throw fail();
+    }
+  }
+
+  private void parseChainedExpression() {
+    switch (tokenTypes[position]) {
+      case NAME:
+        if (tokenTypes[position + 1] == LEFT_PAREN) {
+          pushStep(SEQUENCE_STEP, parseFunctionCall());
+        } else {
+          pushStep(SEQUENCE_STEP, nodeFactory.createProperty(parseIdentifier()));
+        }
+        break;
+      case STRING:
+      case JSON_CONSTANT:
+        pushStep(SEQUENCE_STEP, nodeFactory.createProperty(parseIdentifier()));
+        break;
+      case LEFT_BRACKET:
+        position++;
+        pushStep(SEQUENCE_STEP, parseMultiSelectList());
+        break;
+      case LEFT_BRACE:
+        pushStep(SEQUENCE_STEP, parseMultiSelectHash());
+        break;
+      case STAR:
+        position++;
+        pushStep(PROJECTION_STEP, nodeFactory.createFlattenObject());
+        break;
+      default:
+        throw fail();
+    }
+  }
+
+  /**
+   * Decides if the tokens after a <code>[</code> are an index, slice, flatten
+   * or list wildcard, as opposed to a multi select list. <code>[*]</code> is
+   * a list wildcard even though it could also be a multi select list
+   * containing a hash wildcard, just like in the grammar.
+   */
+  private boolean isBracketSpecifier() {
+    switch (tokenTypes[position]) {
+      case RIGHT_BRACKET:
+      case SIGNED_INT:
+      case COLON:
+        return true;
+      case STAR:
+        return tokenTypes[position + 1] == RIGHT_BRACKET;
+      default:
+        return false;
+    }
+  }
+
+  private void parseBracketSpecifier() {
+    switch (tokenTypes[position]) {
+      case RIGHT_BRACKET:
+        position++;
+        pushStep(FLATTEN_STEP, nodeFactory.createFlattenArray());
+        break;
+      case STAR:
+        position++;
+        expect(RIGHT_BRACKET);
+        pushStep(STAR_STEP, null);
+        break;
+      case SIGNED_INT:
+        if (tokenTypes[position + 1] == RIGHT_BRACKET) {
+          int index = parseInt(position);
+          position += 2;
+          pushStep(SEQUENCE_STEP, nodeFactory.createIndex(index));
+        } else {
+          parseSlice();
+        }
+        break;
+      case COLON:
+        parseSlice();
+        break;
+      default:
+        throw fail();
+    }
+  }
+
+  private void parseSlice() {
+    Integer start = null;
+    Integer stop = null;
+    Integer step = null;
+    if (tokenTypes[position] == SIGNED_INT) {
+      start = parseInt(position);
+      position++;
+    }
+    expect(COLON);
+    if (tokenTypes[position] == SIGNED_INT) {
+      stop = parseInt(position);
+      position++;
+    }
+    if (accept(COLON)) {
+      if (tokenTypes[position] == SIGNED_INT) {
+        step = parseInt(position);
+        position++;
+        if (step == 0) {
+          throw fail();
+        }
+      }
+    }
+    expect(RIGHT_BRACKET);
+    pushStep(PROJECTION_STEP, nodeFactory.createSlice(start, stop, step));
+  }
+
+  private int parseInt(int token) {
+    try {
+      return Integer.parseInt(text(token));
+    } catch (NumberFormatException nfe) {
+      throw fail();
+    }
+  }
+
+  private void parseSelection() {
+    expect(FILTER);
+    Node<T> test = parseExpression(0);
+    expect(RIGHT_BRACKET);
+    pushStep(PROJECTION_STEP, nodeFactory.createSelection(test));
+  }
+
+  private String parseIdentifier() {
+    int type = tokenTypes[position];
+    String id = text(position);
+    if (type == STRING) {
+      id = ExpressionParser.identifierEscapeHelper.unescape(id.substring(1, id.length() - 1));
+    } else if (type != NAME && type != JSON_CONSTANT) {
+      throw fail();
+    }
+    position++;
+    return id;
+  }
+
+  private Node<T> parseMultiSelectList() {
+    List<Expression<T>> entries = new ArrayList<>();
+    do {
+      entries.add(parseExpression(0));
+    } while (accept(COMMA));
+    expect(RIGHT_BRACKET);
+    return nodeFactory.createCreateArray(entries);
+  }
+
+  private Node<T> parseMultiSelectHash() {
+    expect(LEFT_BRACE);
+    List<Entry<T>> entries = new ArrayList<>();
+    do {
+      String key = parseIdentifier();
+      expect(COLON);
+      Node<T> value = parseExpression(0);
+      entries.add(new Entry<>(key, value));
+    } while (accept(COMMA));
+    expect(RIGHT_BRACE);
+    return nodeFactory.createCreateObject(entries);
+  }
+
+  private Node<T> parseFunctionCall() {
+    String name = text(position);
+    position += 2;
+    List<Expression<T>> args = new ArrayList<>();
+    if (!accept(RIGHT_PAREN)) {
+      do {
+        if (accept(AMPERSAND)) {
+          args.add(nodeFactory.createExpressionReference(parseExpression(0)));
+        } else {
+          args.add(parseExpression(0));
+        }
+      } while (accept(COMMA));
+      expect(RIGHT_PAREN);
+    }
+    Function implementation = runtime.functionRegistry().getFunction(name);
+    if (implementation == null || implementation.argumentConstraints().arityViolated(args.size())) {
+      throw fail();
+    }
+    return nodeFactory.createFunctionCall(implementation, args);
+  }
+
+  private Node<T> parseLiteral() {
+    expect(BACKTICK);
+    int firstToken = position;
+    parseJsonValue();
+    int lastToken = position - 1;
+    expect(BACKTICK);
+    String json;
+    if (isContiguous(firstToken, lastToken)) {
+      json = input.substring(tokenStarts[firstToken], tokenEnds[lastToken]);
+    } else {
+      StringBuilder buffer = new StringBuilder();
+      for (int i = firstToken; i <= lastToken; i++) {
+        buffer.append(input, tokenStarts[i], tokenEnds[i]);
+      }
+      json = buffer.toString();
+    }
+    return nodeFactory.createJsonLiteral(ExpressionParser.jsonLiteralEscapeHelper.unescape(json));
+  }
+
+  private boolean isContiguous(int firstToken, int lastToken) {
+    for (int i = firstToken; i < lastToken; i++) {
+      if (tokenEnds[i] != tokenStarts[i + 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void parseJsonValue() {
+    switch (tokenTypes[position]) {
+      case STRING:
+        parseJsonString();
+        break;
+      case SIGNED_INT:
+      case REAL_OR_EXPONENT_NUMBER:
+      case JSON_CONSTANT:
+        position++;
+        break;
+      case LEFT_BRACE:
+        position++;
+        if (!accept(RIGHT_BRACE)) {
+          do {
+            parseJsonString();
+            expect(COLON);
+            parseJsonValue();
+          } while (accept(COMMA));
+          expect(RIGHT_BRACE);
+        }
+        break;
+      case LEFT_BRACKET:
+        position++;
+        if (!accept(RIGHT_BRACKET)) {
+          do {
+            parseJsonValue();
+          } while (accept(COMMA));
+          expect(RIGHT_BRACKET);
+        }
+        break;
+      default:
+        throw fail();
+    }
+  }
+
+  /**
+   * JSON strings in literals may contain backticks, but only escaped ones,
+   * which is checked the same way as in {@link ExpressionParser}.
+   */
+  private void parseJsonString() {
+    if (tokenTypes[position] != STRING) {
+      throw fail();
+    }
+    int start = tokenStarts[position];
+    int end = tokenEnds[position];
+    for (int i = start; i < end; i++) {
+      if (input.charAt(i) == '`' && (i == start || input.charAt(i - 1) != '\\')) {
+        throw fail();
+      }
+    }
+    position++;
+  }
+}
@@ -0,0 +1,145 @@
+package io.burt.jmespath.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread safe cache that evicts the least recently used entries
+ * when it grows beyond its maximum size.
+ * <p>
+ * Lookups never block: entries are kept in a {@link ConcurrentHashMap} and
+ * recency is tracked with a single "accessed" flag per entry. When the cache
+ * is full a clock hand sweeps the entries, clearing the flag of entries that
+ * have been used since the last sweep and evicting the first one that has not
+ * (the "second chance" approximation of LRU). The sweep that adding an entry
+ * triggers skips that entry, so that it isn't evicted before it has had a
+ * chance to be used. Only the eviction sweep is synchronized.
+ * <p>
+ * The cache keeps counters of hits, misses and evictions, these are meant for
+ * monitoring and are not updated atomically with respect to each other.
+ */
+public class LruCache<K, V> {
+  private final int maxSize;
+  private final ConcurrentHashMap<K, Entry<V>> entries;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong evictions;
+  private Iterator<Map.Entry<K, Entry<V>>> clockHand;
+
+  private static class Entry<V> {
+    private final V value;
+    private volatile boolean accessed;
+
+    public Entry(V value) {
+      this.value = value;
+    }
+  }
+
+  /**
+   * Create a new cache that will hold at most <code>maxSize</code> entries.
+   */
+  public LruCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(String.format("Cache size must be positive, was %d", maxSize));
+    }
+    this.maxSize = maxSize;
+    this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.evictions = new AtomicLong();
+  }
+
+  /**
+   * Returns the value cached for the key, or <code>null</code> when there is
+   * none. Counts as a hit or a miss.
+   */
+  public V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    } else {
+      hits.incrementAndGet();
+      if (!entry.accessed) {
+        entry.accessed = true;
+      }
+      return entry.value;
+    }
+  }
+
+  /**
+   * Adds a value to the cache unless there already is one for the key, in
+   * which case the existing value is returned and the new value discarded.
+   * When this makes the cache grow beyond its maximum size entries that have
+   * not recently been used are evicted.
+   */
+  public V putIfAbsent(K key, V value) {
+    Entry<V> added = new Entry<>(value);
+    Entry<V> existing = entries.putIfAbsent(key, added);
+    if (existing != null) {
+      return existing.value;
+    }
+    if (entries.size() > maxSize) {
+      evict(added);
+    }
+    return value;
+  }
+
+  private synchronized void evict(Entry<V> added) {
+    while (entries.size() > maxSize) {
+      if (clockHand == null || !clockHand.hasNext()) {
+        clockHand = entries.entrySet().iterator();
+        if (!clockHand.hasNext()) {
+          return;
+        }
+      }
+      Map.Entry<K, Entry<V>> candidate = clockHand.next();
+      Entry<V> entry = candidate.getValue();
+      if (entry == added) {
+        continue;
+      } else if (entry.accessed) {
+        entry.accessed = false;
+      } else if (entries.remove(candidate.getKey(), entry)) {
+        evictions.incrementAndGet();
+      }
+    }
+  }
+
+  /** Removes all entries, but leaves the counters intact. */
+  public synchronized void clear() {
+    entries.clear();
+    clockHand = null;
+  }
+
+  /** The current number of entries in the cache. */
+  public int size() {
+    return entries.size();
+  }
+
+  /** The maximum number of entries the cache will hold. */
+  public int maxSize() {
+    return maxSize;
+  }
+
+  /** The number of lookups that found a cached value. */
+  public long hitCount() {
+    return hits.get();
+  }
+
+  /** The number of lookups that did not find a cached value. */
+  public long missCount() {
+    return misses.get();
+  }
+
+  /** The number of entries that have been evicted to make room for new ones. */
+  public long evictionCount() {
+    return evictions.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LruCache(size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d)", size(), maxSize, hitCount(), missCount(), evictionCount());
+  }
+}
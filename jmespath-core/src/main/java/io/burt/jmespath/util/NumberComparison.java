@@ -0,0 +1,48 @@
+package io.burt.jmespath.util;
+
+/**
+ * Compares numbers that are held either as a <code>long</code> or as a
+ * <code>double</code>, exactly.
+ * <p>
+ * Converting a <code>long</code> to a <code>double</code> rounds it when it
+ * is larger than 2<sup>53</sup>, which would make for example
+ * 2<sup>53</sup> and 2<sup>53</sup>+1 both equal to the double
+ * 2<sup>53</sup> but not to each other. Comparing the exact values keeps the
+ * ordering transitive, which sorting relies on.
+ */
+public final class NumberComparison {
+  private static final double TWO_TO_THE_63 = 0x1p63;
+  private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0.0);
+
+  private NumberComparison() { }
+
+  /**
+   * Compares a <code>long</code> with a <code>double</code>, with the same
+   * result as comparing their exact values. Like {@link Double#compare} NaN is
+   * greater than every other number, and -0.0 is less than zero, so that
+   * mixing integers and doubles orders numbers the same way as comparing
+   * doubles does.
+   */
+  public static int compare(long l, double d) {
+    if (Double.isNaN(d) || d >= TWO_TO_THE_63) {
+      return -1;
+    } else if (d < -TWO_TO_THE_63) {
+      return 1;
+    }
+    // The integer part of a double in the range of a long is exact, and the
+    // long lies on the same side of the double as of its integer part, unless
+    // they are equal, in which case the fractional part decides
+    long integerPart = (long) d;
+    if (l != integerPart) {
+      return Long.compare(l, integerPart);
+    }
+    double fraction = d - integerPart;
+    if (fraction > 0) {
+      return -1;
+    } else if (fraction < 0 || Double.doubleToRawLongBits(d) == NEGATIVE_ZERO_BITS) {
+      return 1;
+    } else {
+      return 0;
+    }
+  }
+}
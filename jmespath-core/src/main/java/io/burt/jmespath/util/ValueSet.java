@@ -0,0 +1,92 @@
+package io.burt.jmespath.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * A set of values that uses the equality of {@link Adapter#compare} instead
+ * of the values' own <code>equals</code>, so that for example the numbers
+ * <code>1</code> and <code>1.0</code> are the same value, and arrays and
+ * objects are equal when their contents are.
+ * <p>
+ * Membership tests hash the value, so they take constant time instead of
+ * comparing the value with each member. The set can't be modified after it
+ * has been created and is thread safe as long as the values aren't modified.
+ */
+public class ValueSet<T> {
+  private final Adapter<T> runtime;
+  private final Set<Key> keys;
+
+  private class Key {
+    private final T value;
+    private final int hash;
+
+    public Key(T value) {
+      this.value = value;
+      this.hash = hash(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object o) {
+      return o instanceof ValueSet.Key && runtime.compare(value, ((Key) o).value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  public ValueSet(Adapter<T> runtime, Collection<T> values) {
+    this.runtime = runtime;
+    this.keys = new HashSet<>();
+    for (T value : values) {
+      keys.add(new Key(value));
+    }
+  }
+
+  /**
+   * Returns whether the set has a value that is equal to the specified value.
+   */
+  public boolean contains(T value) {
+    return keys.contains(new Key(value));
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  private int hash(T value) {
+    switch (runtime.typeOf(value)) {
+      case NULL:
+        return 0;
+      case BOOLEAN:
+        return runtime.isTruthy(value) ? 1231 : 1237;
+      case NUMBER:
+        double d = runtime.doubleValue(value);
+        return Double.hashCode(d == 0.0 ? 0.0 : d);
+      case STRING:
+        return runtime.toString(value).hashCode();
+      case ARRAY:
+        List<T> elements = runtime.toList(value);
+        int arrayHash = 1;
+        for (T element : elements) {
+          arrayHash = 31 * arrayHash + hash(element);
+        }
+        return arrayHash;
+      case OBJECT:
+        int objectHash = 0;
+        for (T key : runtime.getPropertyNames(value)) {
+          objectHash += hash(key) ^ hash(runtime.getProperty(value, key));
+        }
+        return objectHash;
+      default:
+        throw new IllegalStateException(String.format("Unknown node type encountered: %s", value.getClass().getName()));
+    }
+  }
+}
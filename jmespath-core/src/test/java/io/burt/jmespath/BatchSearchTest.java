@@ -0,0 +1,196 @@
+package io.burt.jmespath;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.parser.ParseException;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class BatchSearchTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static class CollectingHandler implements BatchSearch.ResultHandler<Object> {
+    private final List<Long> lines = new ArrayList<>();
+    private final List<Object> results = new ArrayList<>();
+    private final List<Long> errorLines = new ArrayList<>();
+    private final List<BatchMetrics> batches = new ArrayList<>();
+    private final boolean collectErrors;
+
+    public CollectingHandler(boolean collectErrors) {
+      this.collectErrors = collectErrors;
+    }
+
+    @Override
+    public void handleResult(long line, Object result) {
+      lines.add(line);
+      results.add(result);
+    }
+
+    @Override
+    public void handleError(long line, RuntimeException e) {
+      if (collectErrors) {
+        errorLines.add(line);
+      } else {
+        BatchSearch.ResultHandler.super.handleError(line, e);
+      }
+    }
+
+    @Override
+    public void handleBatch(BatchMetrics metrics) {
+      batches.add(metrics);
+    }
+  }
+
+  private static String records(int count) {
+    StringBuilder records = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      records.append(String.format("{\"a\": %d}\n", i));
+    }
+    return records.toString();
+  }
+
+  private static InputStream stream(String str) {
+    return new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private BatchSearch.Builder<Object> builder(String expression) {
+    return BatchSearch.builder(runtime, expression).withExecutor(executor).withBatchSize(32);
+  }
+
+  @Test
+  public void searchesEachRecordAndHandlesTheResultsInOrder() throws Exception {
+    CollectingHandler handler = new CollectingHandler(false);
+    String input = records(100);
+    BatchMetrics metrics = builder("a").build().search(stream(input), handler);
+    List<Long> expectedLines = new ArrayList<>();
+    List<Object> expectedResults = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expectedLines.add(i + 1L);
+      expectedResults.add((long) i);
+    }
+    assertThat(handler.lines, is(expectedLines));
+    assertThat(handler.results, is(expectedResults));
+    assertThat(metrics.records(), is(100L));
+    assertThat(metrics.errors(), is(0L));
+    assertThat(metrics.bytes(), is((long) input.length()));
+    assertThat(metrics.batches(), is((long) handler.batches.size()));
+    assertThat(metrics.batches(), is(greaterThan(10L)));
+  }
+
+  @Test
+  public void handlesTheResultsOfEachBatchInOrderWhenUnordered() throws Exception {
+    CollectingHandler handler = new CollectingHandler(false);
+    BatchMetrics metrics = builder("a").withOrdered(false).build().search(stream(records(100)), handler);
+    List<Object> results = new ArrayList<>(handler.results);
+    Collections.sort(results, runtime);
+    assertThat(results.size(), is(100));
+    for (int i = 0; i < 100; i++) {
+      assertThat(results.get(i), is((Object) (long) i));
+      assertThat(runtime.toNumber(handler.results.get(i)).longValue(), is(handler.lines.get(i) - 1));
+    }
+    int i = 0;
+    for (BatchMetrics batch : handler.batches) {
+      for (int j = 1; j < batch.records(); j++) {
+        assertThat(handler.lines.get(i + j), is(handler.lines.get(i + j - 1) + 1));
+      }
+      i += batch.records();
+    }
+    assertThat(metrics.records(), is(100L));
+  }
+
+  @Test
+  public void skipsBlankLinesButCountsThem() throws Exception {
+    CollectingHandler handler = new CollectingHandler(false);
+    String input = "{\"a\": 1}\r\n\n  \r\n{\"a\": 2}\n\n{\"a\": 3}";
+    BatchMetrics metrics = builder("a").build().search(stream(input), handler);
+    assertThat(handler.lines, is(Arrays.asList(1L, 4L, 6L)));
+    assertThat(handler.results, is(Arrays.<Object>asList(1L, 2L, 3L)));
+    assertThat(metrics.records(), is(3L));
+  }
+
+  @Test
+  public void searchesLinesThatAreLongerThanTheBatchSize() throws Exception {
+    CollectingHandler handler = new CollectingHandler(false);
+    String longRecord = String.format("{\"a\": \"%0200d\"}\n", 0);
+    String input = "{\"a\": 1}\n" + longRecord + longRecord + "{\"a\": 2}\n";
+    builder("length(to_string(a))").build().search(stream(input), handler);
+    assertThat(handler.results, is(Arrays.<Object>asList(1L, 200L, 200L, 1L)));
+  }
+
+  @Test
+  public void passesRecordsThatCannotBeParsedOrSearchedToTheHandler() throws Exception {
+    CollectingHandler handler = new CollectingHandler(true);
+    String input = "{\"a\": 1}\n{\"a\": \n{\"a\": \"x\"}\n{\"a\": 2}\n";
+    BatchMetrics metrics = builder("abs(a)").build().search(stream(input), handler);
+    assertThat(handler.lines, is(Arrays.asList(1L, 4L)));
+    assertThat(handler.results, is(Arrays.<Object>asList(1.0, 2.0)));
+    assertThat(handler.errorLines, is(Arrays.asList(2L, 3L)));
+    assertThat(metrics.records(), is(4L));
+    assertThat(metrics.errors(), is(2L));
+  }
+
+  @Test
+  public void stopsAtTheFirstErrorByDefault() throws Exception {
+    CollectingHandler handler = new CollectingHandler(false);
+    String input = records(10) + "{\"a\": \n" + records(100);
+    try {
+      builder("a").build().search(stream(input), handler);
+      fail("Expected an exception to be thrown");
+    } catch (ParseException pe) {
+      assertThat(handler.results.size(), is(10));
+    }
+  }
+
+  @Test
+  public void searchesFiles() throws Exception {
+    File file = temporaryFolder.newFile("records.ndjson");
+    Files.write(file.toPath(), records(20).getBytes(StandardCharsets.UTF_8));
+    CollectingHandler handler = new CollectingHandler(false);
+    BatchMetrics metrics = builder("a").build().search(file.toPath(), handler);
+    assertThat(handler.results.size(), is(20));
+    assertThat(handler.results.get(19), is((Object) 19L));
+    assertThat(metrics.records(), is(20L));
+  }
+
+  @Test
+  public void usesTheCommonPoolAndOneMegabyteBatchesByDefault() throws IOException {
+    CollectingHandler handler = new CollectingHandler(false);
+    BatchMetrics metrics = BatchSearch.builder(runtime, "a").build().search(stream(records(1000)), handler);
+    assertThat(handler.results.size(), is(1000));
+    assertThat(metrics.batches(), is(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void batchSizeMustBePositive() {
+    BatchSearch.builder(runtime, "a").withBatchSize(0);
+  }
+}
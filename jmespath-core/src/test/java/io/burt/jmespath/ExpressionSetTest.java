@@ -0,0 +1,150 @@
+package io.burt.jmespath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ExpressionSetTest {
+  private final CountingFunction countingFunction = new CountingFunction();
+
+  private final Adapter<Object> runtime = new JcfRuntime(
+    RuntimeConfiguration.builder()
+      .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(countingFunction))
+      .build()
+  );
+
+  private final Object input = runtime.parseString(
+    "{" +
+      "\"detail\": {" +
+        "\"requestParameters\": {\"bucketName\": \"logs\", \"key\": \"a/b\"}," +
+        "\"items\": [{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]" +
+      "}," +
+      "\"source\": \"aws.s3\"" +
+    "}"
+  );
+
+  @Test
+  public void returnsTheResultsOfAllExpressionsInAnArray() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("bucket", "detail.requestParameters.bucketName")
+      .withExpression("key", "detail.requestParameters.key")
+      .withExpression("source", "source")
+      .withExpression("missing", "detail.missing")
+      .build();
+    assertThat(expressionSet.search(input), is((Object) Arrays.asList("logs", "a/b", "aws.s3", null)));
+  }
+
+  @Test
+  public void returnsTheResultsOfAllExpressionsByName() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("ids", "detail.items[*].id")
+      .withExpression("firstId", "detail.items[0].id")
+      .withExpression("count", "length(detail.items)")
+      .withExpression("input", "@")
+      .build();
+    Map<String, Object> results = expressionSet.searchByName(input);
+    assertThat(results.keySet(), contains("ids", "firstId", "count", "input"));
+    assertThat(results.get("ids"), is((Object) Arrays.asList(1L, 2L, 3L)));
+    assertThat(results.get("firstId"), is((Object) 1L));
+    assertThat(results.get("count"), is((Object) 3L));
+    assertThat(results.get("input"), is(input));
+  }
+
+  @Test
+  public void evaluatesSharedStepsOnce() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("bucket", "counting(detail).requestParameters.bucketName")
+      .withExpression("key", "counting(detail).requestParameters.key")
+      .withExpression("ids", "counting(detail) | items[*].id")
+      .withExpression("other", "counting(source)")
+      .build();
+    List<Object> results = runtime.toList(expressionSet.search(input));
+    assertThat(results, is(Arrays.asList((Object) "logs", "a/b", Arrays.asList(1L, 2L, 3L), "aws.s3")));
+    assertThat(countingFunction.count, is(2));
+  }
+
+  @Test
+  public void evaluatesStepsAfterNull() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("a", "missing.foo")
+      .withExpression("b", "missing | not_null(@, 'default')")
+      .build();
+    assertThat(expressionSet.search(input), is((Object) Arrays.asList(null, "default")));
+  }
+
+  @Test
+  public void acceptsExpressionsCompiledWithBytecode() {
+    Adapter<Object> bytecodeRuntime = new JcfRuntime(RuntimeConfiguration.builder().withBytecodeCompilation(true).build());
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(bytecodeRuntime)
+      .withExpression("bucket", "detail.requestParameters.bucketName")
+      .withExpression("ids", bytecodeRuntime.compile("detail.items[?id > `1`].id"))
+      .build();
+    assertThat(expressionSet.search(input), is((Object) Arrays.asList("logs", Arrays.asList(2L, 3L))));
+  }
+
+  @Test
+  public void acceptsExpressionsThatAreNotNodes() {
+    Expression<Object> expression = new Expression<Object>() {
+      @Override
+      public Object search(Object input) {
+        return "custom";
+      }
+    };
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("custom", expression)
+      .withExpression("source", "source")
+      .build();
+    assertThat(expressionSet.search(input), is((Object) Arrays.asList("custom", "aws.s3")));
+  }
+
+  @Test
+  public void returnsAnEmptyArrayWhenThereAreNoExpressions() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime).build();
+    assertThat(expressionSet.search(input), is((Object) Arrays.asList()));
+    assertThat(expressionSet.searchByName(input).isEmpty(), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void doesNotAcceptTheSameNameTwice() {
+    ExpressionSet.builder(runtime)
+      .withExpression("foo", "foo")
+      .withExpression("foo", "bar");
+  }
+
+  @Test
+  public void keepsTheNamesInTheOrderTheyWereAdded() {
+    ExpressionSet<Object> expressionSet = ExpressionSet.builder(runtime)
+      .withExpression("b", "b")
+      .withExpression("a", "a")
+      .build();
+    assertThat(expressionSet.names(), contains("b", "a"));
+    assertThat(expressionSet.searchByName(input).get("a"), is(nullValue()));
+  }
+
+  private static class CountingFunction extends BaseFunction {
+    private int count;
+
+    public CountingFunction() {
+      super(ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      count++;
+      return arguments.get(0).value();
+    }
+  }
+}
@@ -619,6 +619,69 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonNull()));
   }
 
+  @Test
+  public void compareWithNumberLiteral() {
+    T input = parse("{\"int\": 100, \"float\": 100.5}");
+    assertThat(search("int == `100`", input), is(jsonBoolean(true)));
+    assertThat(search("`100.0` == int", input), is(jsonBoolean(true)));
+    assertThat(search("int != `100`", input), is(jsonBoolean(false)));
+    assertThat(search("float > `100`", input), is(jsonBoolean(true)));
+    assertThat(search("`100` >= float", input), is(jsonBoolean(false)));
+    assertThat(search("float < `101`", input), is(jsonBoolean(true)));
+    assertThat(search("`-1` <= int", input), is(jsonBoolean(true)));
+  }
+
+  @Test
+  public void compareNonNumberWithNumberLiteral() {
+    T input = parse("{\"string\": \"100\", \"array\": [100]}");
+    assertThat(search("string == `100`", input), is(jsonBoolean(false)));
+    assertThat(search("`100` != string", input), is(jsonBoolean(true)));
+    assertThat(search("array == `100`", input), is(jsonBoolean(false)));
+    assertThat(search("string > `1`", input), is(jsonNull()));
+    assertThat(search("`1` <= missing", input), is(jsonNull()));
+  }
+
+  @Test
+  public void compareWithStringLiteral() {
+    T input = parse("{\"string\": \"foo\", \"number\": 1, \"array\": [\"foo\"]}");
+    assertThat(search("string == 'foo'", input), is(jsonBoolean(true)));
+    assertThat(search("'foo' != string", input), is(jsonBoolean(false)));
+    assertThat(search("string == 'fo'", input), is(jsonBoolean(false)));
+    assertThat(search("`\"foo\"` == string", input), is(jsonBoolean(true)));
+    assertThat(search("number == '1'", input), is(jsonBoolean(false)));
+    assertThat(search("array != 'foo'", input), is(jsonBoolean(true)));
+    assertThat(search("missing == 'foo'", input), is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void compareLargeIntegersExactly() {
+    T input = parse("{\"a\": 9007199254740993, \"b\": 9007199254740992}");
+    assertThat(search("a == b", input), is(jsonBoolean(false)));
+    assertThat(search("a > b", input), is(jsonBoolean(true)));
+    assertThat(search("a == `9007199254740992`", input), is(jsonBoolean(false)));
+    assertThat(search("a > `9007199254740992`", input), is(jsonBoolean(true)));
+    assertThat(search("`9007199254740993` == a", input), is(jsonBoolean(true)));
+  }
+
+  @Test
+  public void compareLargeIntegersWithFloatsExactly() {
+    T input = parse("{\"a\": 9007199254740993, \"b\": 9007199254740992, \"f\": 9007199254740992.0}");
+    assertThat(search("a == f", input), is(jsonBoolean(false)));
+    assertThat(search("a > f", input), is(jsonBoolean(true)));
+    assertThat(search("b == f", input), is(jsonBoolean(true)));
+    assertThat(search("f < a", input), is(jsonBoolean(true)));
+    assertThat(search("a > `9007199254740992.0`", input), is(jsonBoolean(true)));
+    assertThat(search("`9007199254740992.0` == a", input), is(jsonBoolean(false)));
+  }
+
+  @Test
+  public void sortByLargeIntegersSortsExactly() {
+    T input = parse("[{\"id\": 1, \"k\": 9007199254740993}, {\"id\": 2, \"k\": 9007199254740992.0}, {\"id\": 3, \"k\": 9007199254740992}]");
+    assertThat(search("sort_by(@, &k)[*].id", input), is(parse("[2, 3, 1]")));
+    assertThat(search("max_by(@, &k).id", input), is(parse("1")));
+    assertThat(search("min_by(@, &k).id", input), is(parse("2")));
+  }
+
   @Test
   public void compareLtWithNonNumberProducesNull() {
     T result = search("Records[1].responseElements.instancesSet.items[0] | previousState < currentState", cloudtrail);
@@ -912,6 +975,47 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result2, is(jsonNull()));
   }
 
+  @Test
+  public void withAnExpressionCacheTheSameExpressionIsOnlyCompiledOnce() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withExpressionCacheSize(10).build());
+    Expression<T> expression1 = rt.compile("foo.bar");
+    Expression<T> expression2 = rt.compile("foo.bar");
+    assertThat(expression2 == expression1, is(true));
+    assertThat(expression1.search(parse("{\"foo\":{\"bar\":3}}")), is(jsonNumber(3)));
+  }
+
+  @Test
+  public void withAnExpressionCacheHitsAndMissesAreCounted() {
+    BaseRuntime<T> rt = (BaseRuntime<T>) createRuntime(RuntimeConfiguration.builder().withExpressionCacheSize(10).build());
+    rt.compile("foo");
+    rt.compile("bar");
+    rt.compile("foo");
+    assertThat(rt.expressionCache().missCount(), is(2L));
+    assertThat(rt.expressionCache().hitCount(), is(1L));
+    assertThat(rt.expressionCache().size(), is(2));
+  }
+
+  @Test
+  public void withAnExpressionCacheCompilationErrorsAreNotCached() {
+    BaseRuntime<T> rt = (BaseRuntime<T>) createRuntime(RuntimeConfiguration.builder().withExpressionCacheSize(10).build());
+    for (int i = 0; i < 2; i++) {
+      try {
+        rt.compile("foo[");
+        fail("Expected ParseException to have been thrown");
+      } catch (ParseException pe) {
+        assertThat(rt.expressionCache().size(), is(0));
+      }
+    }
+  }
+
+  @Test
+  public void withoutAnExpressionCacheEachCompilationCreatesANewExpression() {
+    Expression<T> expression1 = runtime().compile("foo.bar");
+    Expression<T> expression2 = runtime().compile("foo.bar");
+    assertThat(expression2 == expression1, is(false));
+    assertThat(expression2, is(expression1));
+  }
+
   @Test
   public void absReturnsTheAbsoluteValueOfANumber() {
     T result1 = search("abs(`-1`)", parse("{}"));
@@ -1010,6 +1114,18 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonBoolean(false)));
   }
 
+  @Test
+  public void containsComparesNumbersByValue() {
+    T result = search("contains(@, `3.0`)", parse("[1, 2, 3, \"foo\"]"));
+    assertThat(result, is(jsonBoolean(true)));
+  }
+
+  @Test
+  public void containsLooksUpTheNeedleInALiteralHaystack() {
+    T result = search("[?contains(`[1, 2.0, \"foo\", [\"bar\", {\"baz\": 42}]]`, @)]", parse("[4, 2, \"foo\", \"bar\", [\"bar\", {\"baz\": 42}], null]"));
+    assertThat(result, is(parse("[2, \"foo\", [\"bar\", {\"baz\": 42}]]")));
+  }
+
   @Test
   public void containsSearchesInStrings() {
     T result = search("contains('hello', 'hell')", parse("{}"));
@@ -2533,6 +2649,25 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(n, is(equalTo(null)));
   }
 
+  @Test
+  public void getPropertyWithAKeyReturnsTheSameAsWithAName() {
+    T object = parse("{\"foo\": {\"bar\": 1}, \"baz\": null}");
+    for (String name : Arrays.asList("foo", "baz", "missing")) {
+      PropertyKey<T> key = runtime().createPropertyKey(name);
+      assertThat(key.name(), is(name));
+      assertThat(runtime().getProperty(object, key), is(runtime().getProperty(object, runtime().createString(name))));
+    }
+    assertThat(runtime().getProperty(object, runtime().createPropertyKey("baz")), is(jsonNull()));
+  }
+
+  @Test
+  public void getPropertyWithAKeyReturnsANullValueWhenGivenANonObject() {
+    PropertyKey<T> key = runtime().createPropertyKey("foo");
+    assertThat(runtime().getProperty(parse("[{\"foo\": 1}]"), key), is(jsonNull()));
+    assertThat(runtime().getProperty(parse("\"foo\""), key), is(jsonNull()));
+    assertThat(runtime().getProperty(parse("null"), key), is(jsonNull()));
+  }
+
   @Test
   public void getPropertyNamesReturnsAnEmptyListWhenGivenANonObject() {
     Collection<T> properties = runtime().getPropertyNames(parse("[]"));
@@ -2544,6 +2679,19 @@ public abstract class JmesPathRuntimeTest<T> {
     parse("{");
   }
 
+  @Test
+  public void parseBytesParsesTheSpecifiedRangeOfUtf8Bytes() {
+    byte[] bytes = "xx{\"\u00e5\":[1,\"\u00e4\"]}xx".getBytes(Charset.forName("UTF-8"));
+    T result = runtime().parseBytes(bytes, 2, bytes.length - 4);
+    assertThat(result, is(parse("{\"\u00e5\":[1,\"\u00e4\"]}")));
+  }
+
+  @Test(expected = Exception.class)
+  public void parseBytesThrowsImplementationSpecificExceptionWhenGivenBadJson() {
+    byte[] bytes = "{\"a\":1}".getBytes(Charset.forName("UTF-8"));
+    runtime().parseBytes(bytes, 0, 4);
+  }
+
   @Test
   public void compareReturnsNonZeroWhenTwoArraysAreNotEqual() {
     int result1 = runtime().compare(parse("[1]"), parse("[1,2]"));
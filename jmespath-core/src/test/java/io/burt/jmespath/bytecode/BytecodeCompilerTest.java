@@ -0,0 +1,160 @@
+package io.burt.jmespath.bytecode;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class BytecodeCompilerTest {
+  private Adapter<Object> interpreter = new JcfRuntime();
+  private Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withBytecodeCompilation(true).build());
+  private BytecodeCompiler<Object> compiler = new BytecodeCompiler<>(interpreter);
+
+  private Object input = interpreter.parseString(
+    "{" +
+      "\"name\": \"Alice\"," +
+      "\"tags\": [\"a\", \"b\", [\"c\", \"d\"]]," +
+      "\"numbers\": [3, 1, 2, null]," +
+      "\"people\": [" +
+        "{\"name\": \"Bob\", \"age\": 45, \"manager\": true}," +
+        "{\"name\": \"Carol\", \"age\": 32}," +
+        "{\"name\": \"Dave\", \"age\": 21, \"manager\": false}" +
+      "]," +
+      "\"colors\": {\"sky\": \"blue\", \"grass\": \"green\"}" +
+    "}"
+  );
+
+  private void assertSameResult(String expression) {
+    Expression<Object> compiledExpression = runtime.compile(expression);
+    assertThat(compiledExpression, is(instanceOf(CompiledExpression.class)));
+    assertThat(compiledExpression.search(input), is(interpreter.compile(expression).search(input)));
+  }
+
+  @Test
+  public void compilesProperties() {
+    assertSameResult("name");
+    assertSameResult("people");
+    assertSameResult("missing.name");
+  }
+
+  @Test
+  public void compilesIndexes() {
+    assertSameResult("people[0].name");
+    assertSameResult("people[-1].name");
+    assertSameResult("people[3]");
+    assertSameResult("people[-4]");
+    assertSameResult("name[0]");
+  }
+
+  @Test
+  public void compilesProjections() {
+    assertSameResult("people[*].name");
+    assertSameResult("people[*].manager");
+    assertSameResult("colors.*");
+    assertSameResult("name[*]");
+  }
+
+  @Test
+  public void compilesSelections() {
+    assertSameResult("people[?age > `30`].name");
+    assertSameResult("people[?manager].name");
+    assertSameResult("people[?name == 'Carol' || !manager].age");
+    assertSameResult("people[?age >= `32` && age <= `45`].name");
+    assertSameResult("people[?age < `30` || age != `45`].name");
+    assertSameResult("people[?name > 'B']");
+  }
+
+  @Test
+  public void compilesFlattening() {
+    assertSameResult("tags[]");
+    assertSameResult("people[].name");
+    assertSameResult("name[]");
+  }
+
+  @Test
+  public void compilesFunctionCalls() {
+    assertSameResult("length(people)");
+    assertSameResult("sort_by(people, &age)[*].name");
+    assertSameResult("max_by(people, &age).name");
+    assertSameResult("join(', ', people[*].name)");
+  }
+
+  @Test
+  public void compilesMultiSelects() {
+    assertSameResult("people[*].[name, age]");
+    assertSameResult("people[*].{n: name, a: age}");
+    assertSameResult("missing.[name, age]");
+    assertSameResult("missing.{n: name}");
+  }
+
+  @Test
+  public void compilesLiterals() {
+    assertSameResult("`{\"a\": [1, 2]}`");
+    assertSameResult("'foo'");
+    assertSameResult("people[?`true`].name");
+  }
+
+  @Test
+  public void fallsBackToTheInterpreterForSlices() {
+    assertSameResult("people[1:].name");
+    assertSameResult("numbers[::-1]");
+  }
+
+  @Test
+  public void returnsExpressionsThatCannotBeCompiledUnchanged() {
+    Expression<Object> expression = new Expression<Object>() {
+      @Override
+      public Object search(Object input) {
+        return input;
+      }
+    };
+    assertThat(compiler.compile(expression), is(sameInstance(expression)));
+  }
+
+  @Test
+  public void compiledExpressionsAreEqualToTheCompiledExpressionsOfEqualSources() {
+    Expression<Object> compiledExpression1 = compiler.compile(interpreter.compile("people[*].name"));
+    Expression<Object> compiledExpression2 = compiler.compile(interpreter.compile("people[*].name"));
+    Expression<Object> compiledExpression3 = compiler.compile(interpreter.compile("people[*].age"));
+    assertThat(compiledExpression1, is(compiledExpression2));
+    assertThat(compiledExpression1, is(not(compiledExpression3)));
+    assertThat(compiledExpression1.toString(), is("Compiled(Sequence(Property(people), Projection(Property(name))))"));
+  }
+
+  @Test
+  public void functionsAreCalledEveryTime() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(new CounterFunction());
+    Adapter<Object> customRuntime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).withBytecodeCompilation(true).build());
+    Expression<Object> expression = customRuntime.compile("counter(@)");
+    assertThat(expression, is(instanceOf(CompiledExpression.class)));
+    assertThat(expression.search(null), is((Object) 1L));
+    assertThat(expression.search(null), is((Object) 2L));
+  }
+
+  private static class CounterFunction extends BaseFunction {
+    private long count;
+
+    public CounterFunction() {
+      super(ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return runtime.createNumber(++count);
+    }
+  }
+}
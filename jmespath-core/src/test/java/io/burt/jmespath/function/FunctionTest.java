@@ -473,4 +473,137 @@ public class FunctionTest {
       assertThat(ate.getMessage(), containsString("Invalid argument type calling \"gief_expression\": expected expression but was number"));
     }
   }
+
+  @Test
+  public void fixedArityCallsCheckTheArgumentsByDefault() {
+    typeOfFunction.call1(runtime, runtime.createNumber(3));
+    try {
+      typeOfFunction.call1(runtime, runtime.createString("hello"));
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), containsString("Invalid argument type calling \"type_of\": expected number but was string"));
+    }
+    try {
+      typeOfFunction.call2(runtime, runtime.createNumber(3), runtime.createNumber(3));
+      fail("No exception was thrown");
+    } catch (IllegalStateException ise) {
+      assertThat(ise.getMessage(), containsString("Invalid arity calling \"type_of\" (expected 1 but was 2)"));
+    }
+  }
+
+  @Test
+  public void fixedArityCallsToBuiltInFunctionsReturnTheSameAsCall() {
+    Function startsWith = new StartsWithFunction();
+    Object hello = runtime.createString("hello");
+    Object he = runtime.createString("he");
+    assertThat(startsWith.call2(runtime, hello, he), is(startsWith.call(runtime, createValueArguments(hello, he))));
+    Function length = new LengthFunction();
+    assertThat(length.call1(runtime, hello), is(length.call(runtime, createValueArguments(hello))));
+    Function notNull = new NotNullFunction();
+    Object nil = runtime.createNull();
+    assertThat(notNull.call3(runtime, nil, nil, hello), is(notNull.call(runtime, createValueArguments(nil, nil, hello))));
+  }
+
+  @Test
+  public void fixedArityCallsToBuiltInFunctionsReportTheSameTypeErrorsAsCall() {
+    try {
+      new StartsWithFunction().call2(runtime, runtime.createString("hello"), runtime.createNumber(3));
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"starts_with\": expected string but was number"));
+    }
+    try {
+      new AbsFunction().call1(runtime, runtime.createString("hello"));
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"abs\": expected number but was string"));
+    }
+  }
+
+  private boolean isSatisfiedBy(ArgumentConstraint constraint, ArgumentType... argumentTypes) {
+    return constraint.isSatisfiedBy(Arrays.asList(argumentTypes).iterator(), true);
+  }
+
+  @Test
+  public void constraintsAreSatisfiedByArgumentsOfTheRightType() {
+    ArgumentType string = ArgumentType.of(JmesPathType.STRING);
+    ArgumentType number = ArgumentType.of(JmesPathType.NUMBER);
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints(), number), is(true));
+    assertThat(isSatisfiedBy(heterogenousListOfFunction.argumentConstraints(), number, string, ArgumentType.of(JmesPathType.BOOLEAN)), is(true));
+    assertThat(isSatisfiedBy(arrayOfFunction.argumentConstraints(), ArgumentType.arrayOf(string)), is(true));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(1, 3, ArgumentConstraints.anyValue()), ArgumentType.anyValue(), number), is(true));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(1, ArgumentConstraints.anyValue()), ArgumentType.anyValue()), is(true));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(ArgumentConstraints.expression()), ArgumentType.expression()), is(true));
+  }
+
+  @Test
+  public void constraintsAreNotSatisfiedByArgumentsOfTheWrongOrAnUnknownType() {
+    ArgumentType string = ArgumentType.of(JmesPathType.STRING);
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints(), string), is(false));
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints(), ArgumentType.anyValue()), is(false));
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints(), ArgumentType.expression()), is(false));
+    assertThat(isSatisfiedBy(arrayOfFunction.argumentConstraints(), ArgumentType.of(JmesPathType.ARRAY)), is(false));
+    assertThat(isSatisfiedBy(arrayOfFunction.argumentConstraints(), ArgumentType.arrayOf(ArgumentType.of(JmesPathType.NUMBER))), is(false));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(ArgumentConstraints.anyValue()), ArgumentType.expression()), is(false));
+  }
+
+  @Test
+  public void constraintsAreNotSatisfiedByTheWrongNumberOfArguments() {
+    ArgumentType number = ArgumentType.of(JmesPathType.NUMBER);
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints()), is(false));
+    assertThat(isSatisfiedBy(typeOfFunction.argumentConstraints(), number, number), is(false));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(2, 3, ArgumentConstraints.anyValue()), number), is(false));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(2, 3, ArgumentConstraints.anyValue()), number, number, number, number), is(false));
+    assertThat(isSatisfiedBy(ArgumentConstraints.listOf(2, ArgumentConstraints.anyValue()), number), is(false));
+  }
+
+  @Test
+  public void fusedArrayChecksReportTheSameErrorsAsCall() {
+    Object mixed = runtime.createArray(Arrays.asList(runtime.createNumber(1), runtime.createString("a")));
+    try {
+      new SumFunction().call1(runtime, mixed);
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"sum\": expected array of number but was array containing number and string"));
+    }
+    try {
+      new JoinFunction().call2(runtime, runtime.createString(", "), mixed);
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"join\": expected array of string but was array containing number and string"));
+    }
+    try {
+      new MaxFunction().call1(runtime, mixed);
+      fail("No exception was thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"max\": expected array of number or string but was array containing number and string"));
+    }
+  }
+
+  @Test
+  public void sortByKeepsTheOrderOfElementsWithEqualKeys() {
+    List<Object> elements = new ArrayList<>();
+    List<Object> expected = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      elements.add(runtime.parseString(String.format("{\"id\": %d, \"key\": %d}", i, (i * 7) % 5)));
+    }
+    for (int key = 0; key < 5; key++) {
+      for (int i = 0; i < 50; i++) {
+        if ((i * 7) % 5 == key) {
+          expected.add((long) i);
+        }
+      }
+    }
+    Object input = runtime.createArray(elements);
+    assertThat(runtime.compile("sort_by(@, &key)[*].id").search(input), is((Object) expected));
+    assertThat(runtime.compile("sort_by(@, &to_string(key))[*].id").search(input), is((Object) expected));
+  }
+
+  @Test
+  public void maxByAndMinByReturnTheFirstOfElementsWithEqualKeys() {
+    Object input = runtime.parseString("[{\"id\": 1, \"key\": 2}, {\"id\": 2, \"key\": 1}, {\"id\": 3, \"key\": 2}, {\"id\": 4, \"key\": 1}]");
+    assertThat(runtime.compile("max_by(@, &key).id").search(input), is((Object) 1L));
+    assertThat(runtime.compile("min_by(@, &key).id").search(input), is((Object) 2L));
+    assertThat(runtime.compile("max_by(@, &to_string(id)).id").search(input), is((Object) 4L));
+  }
 }
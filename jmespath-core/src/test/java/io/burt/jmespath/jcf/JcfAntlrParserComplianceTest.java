@@ -0,0 +1,13 @@
+package io.burt.jmespath.jcf;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.parser.ParserType;
+
+public class JcfAntlrParserComplianceTest extends JmesPathComplianceTest<Object> {
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withParserType(ParserType.ANTLR).build());
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
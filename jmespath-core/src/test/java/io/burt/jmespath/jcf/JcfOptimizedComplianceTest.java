@@ -0,0 +1,12 @@
+package io.burt.jmespath.jcf;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+
+public class JcfOptimizedComplianceTest extends JmesPathComplianceTest<Object> {
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withExpressionOptimization(true).build());
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
@@ -0,0 +1,16 @@
+package io.burt.jmespath.jcf;
+
+import java.util.concurrent.ForkJoinPool;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+
+public class JcfParallelComplianceTest extends JmesPathComplianceTest<Object> {
+  private static final ForkJoinPool executor = new ForkJoinPool(4);
+
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withParallelThreshold(1).withParallelExecutor(executor).build());
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
@@ -1,14 +1,20 @@
 package io.burt.jmespath.jcf;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 
 import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.PropertyKey;
 
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -22,4 +28,96 @@ public class JcfTest extends JmesPathRuntimeTest<Object> {
     List<Object> list = runtime().toList(Collections.singleton(parse("1")));
     assertThat(list, is(Collections.singletonList(parse("1"))));
   }
+
+  @Test
+  public void toListReturnsAViewOfTheValuesOfAnObject() {
+    Map<Object, Object> object = new LinkedHashMap<>();
+    object.put("a", 1L);
+    object.put("b", 2L);
+    List<Object> list = runtime().toList(object);
+    assertThat(list, is(Arrays.<Object>asList(1L, 2L)));
+    assertThat(list.get(1), is((Object) 2L));
+    assertThat(list.size(), is(2));
+  }
+
+  @Test
+  public void toListReturnsAViewOfOtherTypesOfCollections() {
+    Set<Object> set = new LinkedHashSet<>(Arrays.<Object>asList("x", "y"));
+    List<Object> list = runtime().toList(set);
+    assertThat(list.get(1), is((Object) "y"));
+    assertThat(list.size(), is(2));
+  }
+
+  @Test
+  public void viewsAgreeWithTheirCopyAfterTheCollectionIsModified() {
+    Map<Object, Object> object = new LinkedHashMap<>();
+    object.put("a", 1L);
+    object.put("b", 2L);
+    List<Object> list = runtime().toList(object);
+    assertThat(list.get(0), is((Object) 1L));
+    object.put("c", 3L);
+    assertThat(list.size(), is(2));
+    assertThat(list, is(Arrays.<Object>asList(1L, 2L)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void resultsDoNotChangeWhenTheInputIsModified() {
+    for (String expression : Arrays.asList("values(@)", "*", "foo.*")) {
+      Map<Object, Object> object = (Map<Object, Object>) parse("{\"a\": 1, \"b\": 2, \"foo\": {\"a\": 1, \"b\": 2}}");
+      Map<Object, Object> searched = expression.startsWith("foo") ? (Map<Object, Object>) object.get("foo") : object;
+      List<Object> result = (List<Object>) runtime().compile(expression).search(object);
+      List<Object> expected = new ArrayList<>(result);
+      searched.put("c", 3L);
+      assertThat(expression, result, is(expected));
+      int size = result.size();
+      result.add(4L);
+      assertThat(expression, result.size(), is(size + 1));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void toListReturnsReadOnlyViews() {
+    Map<Object, Object> object = new LinkedHashMap<>();
+    object.put("a", 1L);
+    runtime().toList(object).iterator().remove();
+  }
+
+  @Test
+  public void usesOverriddenPropertyLookupsForSearches() {
+    final List<Object> names = new ArrayList<>();
+    Adapter<Object> runtime = new JcfRuntime() {
+      @Override
+      public Object getProperty(Object value, Object name) {
+        names.add(name);
+        return super.getProperty(value, name);
+      }
+    };
+    assertThat(runtime.compile("a.b").search(runtime.parseString("{\"a\": {\"b\": 1}}")), is((Object) 1L));
+    assertThat(names, is(Arrays.<Object>asList("a", "b")));
+  }
+
+  @Test
+  public void createsKeysForDirectLookupsUnlessPropertyLookupsAreOverridden() {
+    Adapter<Object> overriding = new JcfRuntime() {
+      @Override
+      public Object getProperty(Object value, Object name) {
+        return super.getProperty(value, name);
+      }
+    };
+    assertThat(runtime().createPropertyKey("a").getClass() == PropertyKey.class, is(false));
+    assertThat(overriding.createPropertyKey("a").getClass() == PropertyKey.class, is(true));
+  }
+
+  @Test
+  public void ordersNegativeZeroBeforeIntegerZero() {
+    Map<String, Object> object = new LinkedHashMap<>();
+    object.put("zero", 0L);
+    object.put("negativeZero", -0.0);
+    assertThat(runtime().compare(0L, -0.0), is(1));
+    assertThat(runtime().compare(-0.0, 0L), is(-1));
+    assertThat(runtime().compile("zero > negativeZero").search(object), is((Object) true));
+    assertThat(runtime().compile("zero > `-0.0`").search(object), is((Object) true));
+    assertThat(runtime().compile("negativeZero < `0`").search(object), is((Object) true));
+  }
 }
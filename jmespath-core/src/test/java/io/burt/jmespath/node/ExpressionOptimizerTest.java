@@ -0,0 +1,459 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.fail;
+
+public class ExpressionOptimizerTest {
+  private Adapter<Object> runtime = new JcfRuntime();
+  private ExpressionOptimizer<Object> optimizer = new ExpressionOptimizer<>(runtime);
+
+  private Expression<Object> parse(String str) {
+    return runtime.compile(str);
+  }
+
+  private Expression<Object> optimize(String str) {
+    return optimizer.optimize(parse(str));
+  }
+
+  private Node<Object> Current() {
+    return runtime.nodeFactory().createCurrent();
+  }
+
+  private Node<Object> Property(String name) {
+    return runtime.nodeFactory().createProperty(name);
+  }
+
+  private Node<Object> Index(int index) {
+    return runtime.nodeFactory().createIndex(index);
+  }
+
+  private Node<Object> Projection(Expression<Object> expression) {
+    return runtime.nodeFactory().createProjection(expression);
+  }
+
+  private Node<Object> Selection(Expression<Object> test) {
+    return runtime.nodeFactory().createSelection(test);
+  }
+
+  private Node<Object> FunctionCall(String functionName, List<? extends Expression<Object>> args) {
+    return runtime.nodeFactory().createFunctionCall(functionName, args);
+  }
+
+  private Node<Object> Array(List<? extends Expression<Object>> entries) {
+    return runtime.nodeFactory().createCreateArray(entries);
+  }
+
+  private Node<Object> String(String str) {
+    return runtime.nodeFactory().createString(str);
+  }
+
+  private Node<Object> JsonLiteral(String json) {
+    return runtime.nodeFactory().createJsonLiteral(json);
+  }
+
+  @SafeVarargs
+  private final Node<Object> Sequence(Node<Object>... nodes) {
+    return runtime.nodeFactory().createSequence(Arrays.asList(nodes));
+  }
+
+  @Test
+  public void nestedSequencesAreFlattened() {
+    Expression<Object> expected = Sequence(Property("foo"), Property("bar"), Property("baz"), Index(3));
+    Expression<Object> actual = optimize("foo.bar | baz | [3]");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void handBuiltNestedSequencesAreFlattened() {
+    Expression<Object> expected = Sequence(Property("foo"), Property("bar"), Property("baz"));
+    Expression<Object> actual = optimizer.optimize(Sequence(Property("foo"), Sequence(Property("bar"), Sequence(Property("baz")))));
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void currentNodesAreRemovedFromSequences() {
+    Expression<Object> expected = Sequence(Property("foo"), Property("bar"));
+    Expression<Object> actual = optimize("@ | foo | @.bar | @");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void aSequenceOfOnlyCurrentNodesBecomesTheCurrentNode() {
+    Expression<Object> expected = Current();
+    Expression<Object> actual = optimize("@ | @ | @");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void projectionsOfTheCurrentNodeAreKept() {
+    Expression<Object> expected = Sequence(Property("foo"), Projection(Current()));
+    Expression<Object> actual = optimize("foo[*]");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void expressionsInsideProjectionsAreOptimized() {
+    Expression<Object> expected = Sequence(Property("foo"), Projection(Array(Arrays.asList(Property("bar")))));
+    Expression<Object> actual = optimize("foo[*].[@ | bar]");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void functionCallsWithOnlyLiteralArgumentsAreFolded() {
+    Expression<Object> expected = String("a, b");
+    Expression<Object> actual = optimize("join(', ', `[\"a\", \"b\"]`)");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void nestedFunctionCallsWithOnlyLiteralArgumentsAreFolded() {
+    Expression<Object> expected = JsonLiteral("3");
+    Expression<Object> actual = optimize("length(join(',', `[\"a\", \"b\"]`))");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void foldedLiteralsAreCreatedByTheNodeFactory() {
+    final List<String> literals = new ArrayList<>();
+    Adapter<Object> recordingRuntime = new JcfRuntime() {
+      private final NodeFactory<Object> nodeFactory = new StandardNodeFactory<Object>(this) {
+        @Override
+        public Node<Object> createJsonLiteral(String json) {
+          literals.add(json);
+          return super.createJsonLiteral(json);
+        }
+      };
+
+      @Override
+      public NodeFactory<Object> nodeFactory() {
+        return nodeFactory;
+      }
+    };
+    Expression<Object> optimized = new ExpressionOptimizer<>(recordingRuntime).optimize(recordingRuntime.compile("length(`[1, 2, 3]`)"));
+    assertThat(optimized.search(null), is((Object) 3L));
+    assertThat(literals, is(Arrays.asList("[1,2,3]", "3")));
+  }
+
+  @Test
+  public void functionCallsWithNonLiteralArgumentsAreNotFolded() {
+    Expression<Object> expected = FunctionCall("length", Arrays.asList(Property("foo")));
+    Expression<Object> actual = optimize("length(foo)");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void functionCallsThatFailAreNotFolded() {
+    Expression<Object> expected = FunctionCall("abs", Arrays.asList(String("foo")));
+    Expression<Object> actual = optimize("abs('foo')");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void customFunctionsAreNotFolded() {
+    FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(new CounterFunction());
+    Adapter<Object> customRuntime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).withExpressionOptimization(true).build());
+    Expression<Object> expression = customRuntime.compile("counter('x')");
+    assertThat(expression.search(null), is((Object) 1L));
+    assertThat(expression.search(null), is((Object) 2L));
+  }
+
+  @Test
+  public void comparisonsOfLiteralsAreFolded() {
+    Expression<Object> expected = Selection(JsonLiteral("true"));
+    Expression<Object> actual = optimize("[?'a' == 'a' || foo]");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void andIsSimplifiedWhenTheLeftOperandIsALiteral() {
+    assertThat(optimize("`true` && foo"), is((Expression<Object>) Property("foo")));
+    assertThat(optimize("`[]` && foo"), is((Expression<Object>) JsonLiteral("[]")));
+  }
+
+  @Test
+  public void orIsSimplifiedWhenTheLeftOperandIsALiteral() {
+    assertThat(optimize("'x' || foo"), is((Expression<Object>) String("x")));
+    assertThat(optimize("`null` || foo"), is((Expression<Object>) Property("foo")));
+  }
+
+  @Test
+  public void andAndOrAreKeptWhenTheLeftOperandIsNotALiteral() {
+    Expression<Object> expected = parse("foo && `true`");
+    Expression<Object> actual = optimize("foo && `true`");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void negatedLiteralsAreFolded() {
+    assertThat(optimize("!`false`"), is((Expression<Object>) JsonLiteral("true")));
+    assertThat(optimize("!!'foo'"), is((Expression<Object>) JsonLiteral("true")));
+  }
+
+  @Test
+  public void unchangedTreesAreReturnedAsIs() {
+    Expression<Object> expression = parse("sort_by(foo[?bar > `1`], &a)[*].{a: a, b: [c, length(d)]}");
+    assertThat(optimizer.optimize(expression), is(sameInstance(expression)));
+  }
+
+  @Test
+  public void theRuntimeOptimizesWhenConfiguredTo() {
+    Adapter<Object> optimizingRuntime = new JcfRuntime(RuntimeConfiguration.builder().withExpressionOptimization(true).build());
+    Expression<Object> expected = Sequence(Property("foo"), Property("bar"));
+    Expression<Object> actual = optimizingRuntime.compile("@.foo | @.bar");
+    assertThat(actual, is(expected));
+  }
+
+  private static class CounterFunction extends BaseFunction {
+    private long count;
+
+    public CounterFunction() {
+      super(ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return runtime.createNumber(++count);
+    }
+  }
+
+  @Test
+  public void sortsFollowedByAnIndexOrASliceAreCombined() {
+    assertThat(optimize("sort_by(items, &score)[0]"), is(instanceOf(PartialSortNode.class)));
+    assertThat(optimize("reverse(sort(items))[0]"), is(instanceOf(PartialSortNode.class)));
+    assertThat(optimize("sort_by(items, &score)[-10:]"), is(instanceOf(PartialSortNode.class)));
+    assertThat(optimize("sort_by(items, &score)"), is(instanceOf(FunctionCallNode.class)));
+    assertThat(optimize("reverse(items)[0]"), is(not(instanceOf(PartialSortNode.class))));
+  }
+
+  @Test
+  public void partialSortsGiveTheSameResultsAsFullSorts() {
+    Object input = runtime.parseString(
+      "{\"items\": [" +
+        "{\"id\": 1, \"score\": 5}, {\"id\": 2, \"score\": 3}, {\"id\": 3, \"score\": 5}," +
+        "{\"id\": 4, \"score\": 1}, {\"id\": 5, \"score\": 3}, {\"id\": 6, \"score\": 9}," +
+        "{\"id\": 7, \"score\": 5}, {\"id\": 8, \"score\": 0}" +
+      "], \"numbers\": [4, 8, 1, 9, 3, 3, 7], \"empty\": [], \"mixed\": [1, \"a\"]," +
+      "\"large\": [{\"id\": 1, \"score\": 9007199254740993}, {\"id\": 2, \"score\": 9007199254740992.0}, {\"id\": 3, \"score\": 9007199254740992}]}"
+    );
+    String[] expressions = {
+      "sort_by(items, &score)[0].id",
+      "sort_by(items, &score)[-1].id",
+      "sort_by(items, &score)[3].id",
+      "sort_by(items, &score)[-3:].id",
+      "sort_by(items, &score)[:3].id",
+      "sort_by(items, &score)[2:6:2].id",
+      "sort_by(items, &score)[::-3].id",
+      "sort_by(items, &score)[10]",
+      "sort_by(items, &score)[10:]",
+      "reverse(sort_by(items, &score))[0].id",
+      "reverse(sort_by(items, &score))[1:4].id",
+      "sort(numbers)[0]",
+      "sort(numbers)[-2:]",
+      "reverse(sort(numbers))[:3]",
+      "sort(empty)[0]",
+      "sort(empty)[:2]",
+      "sort_by(empty, &score)[-1]",
+      "sort_by(large, &score)[0].id",
+      "sort_by(large, &score)[-1].id",
+      "sort_by(large, &score)[:2].id",
+    };
+    for (String expression : expressions) {
+      assertThat(expression, optimize(expression).search(input), is(parse(expression).search(input)));
+    }
+  }
+
+  @Test
+  public void partialSortsReportTheSameErrorsAsFullSorts() {
+    Object input = runtime.parseString("{\"mixed\": [1, \"a\"], \"items\": [{\"score\": 1}, {\"score\": \"a\"}]}");
+    for (String expression : new String[] {"sort(mixed)[0]", "sort_by(items, &score)[0]", "sort(`1`)[0]"}) {
+      try {
+        optimize(expression).search(input);
+        fail("No exception was thrown");
+      } catch (ArgumentTypeException ate) {
+        try {
+          parse(expression).search(input);
+          fail("No exception was thrown");
+        } catch (ArgumentTypeException expected) {
+          assertThat(ate.getMessage(), is(expected.getMessage()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void runsOfProjectionsFiltersFlattensAndSlicesAreCombined() {
+    assertThat(optimize("a[*].b | [?x] | [0]").toString(), is("Sequence(Property(a), Pipeline(Projection(Property(b)), Selection(Property(x)), Index(0)))"));
+    assertThat(optimize("a[?x].y"), is(not(instanceOf(PipelineNode.class))));
+    assertThat(optimize("a[?x].y | length(@)").toString(), is("Sequence(Property(a), Pipeline(Selection(Property(x)), Projection(Property(y)), FunctionCall(length, [Current()])))"));
+    assertThat(optimize("a[].b").toString(), is("Sequence(Property(a), Pipeline(FlattenArray(), Projection(Property(b))))"));
+    assertThat(optimize("a[*].b"), is(instanceOf(SequenceNode.class)));
+    assertThat(optimize("a[*].b").toString(), is("Sequence(Property(a), Projection(Property(b)))"));
+    assertThat(optimize("a[*].b | length(a)").toString(), is("Sequence(Property(a), Projection(Property(b)), FunctionCall(length, [Property(a)]))"));
+  }
+
+  @Test
+  public void pipelinesGiveTheSameResultsAsTheNodesTheyReplace() {
+    Object input = runtime.parseString(
+      "{\"items\": [" +
+        "{\"id\": 1, \"x\": true, \"tags\": [\"a\", \"b\"]}, {\"id\": 2, \"tags\": []}," +
+        "{\"id\": 3, \"x\": true, \"tags\": [[\"c\"], \"d\"]}, {\"id\": null, \"x\": 1}," +
+        "{\"id\": 5, \"x\": \"yes\", \"tags\": \"e\"}, 6, [7, 8], null" +
+      "], \"object\": {\"a\": 1}}"
+    );
+    String[] expressions = {
+      "items[*].id | [?@ > `1`] | [0]",
+      "items[?x].id",
+      "items[?x].id | [1]",
+      "items[?x].id | [-1]",
+      "items[?x].id | [-3]",
+      "items[?x].id | [-4]",
+      "items[?x].id | [10]",
+      "items[?x].id | length(@)",
+      "items[].tags[] | [0:3]",
+      "items[].tags[][] | [1::2]",
+      "items[*].tags | [] | [-2:]",
+      "items[*].id | [::-1] | [?@ > `1`]",
+      "items[:4].id | [0]",
+      "items[1:10:3].id",
+      "object[*].a | [0]",
+      "object[?a].a | [0]",
+      "object[0:1] | [?a] | [0]",
+      "items[*].missing | [0]",
+      "items[*].id | [] | length(@)"
+    };
+    for (String expression : expressions) {
+      assertThat(expression, optimize(expression).search(input), is(parse(expression).search(input)));
+    }
+  }
+
+  @Test
+  public void pipelinesStopWhenTheResultIsKnown() {
+    final int[] lookups = new int[1];
+    Adapter<Object> countingRuntime = new JcfRuntime() {
+      @Override
+      public Object getProperty(Object value, Object name) {
+        lookups[0]++;
+        return super.getProperty(value, name);
+      }
+    };
+    ExpressionOptimizer<Object> countingOptimizer = new ExpressionOptimizer<>(countingRuntime);
+    Object input = countingRuntime.parseString("[{\"a\": 1}, {\"a\": 2}, {\"a\": 3}, {\"a\": 4}]");
+    assertThat(countingOptimizer.optimize(countingRuntime.compile("[*].a | [?@ > `1`] | [0]")).search(input), is((Object) 2L));
+    assertThat(lookups[0], is(2));
+    lookups[0] = 0;
+    assertThat(countingOptimizer.optimize(countingRuntime.compile("[*].a | [0:2]")).search(input), is((Object) Arrays.<Object>asList(1L, 2L)));
+    assertThat(lookups[0], is(2));
+  }
+
+  @Test
+  public void pipelinesReportTheSameErrorsAsTheNodesTheyReplace() {
+    Object input = runtime.parseString("{\"items\": [{\"a\": 1}, {\"a\": \"x\"}]}");
+    for (String expression : new String[] {"items[*].abs(a) | [0]", "items[?abs(a) > `0`] | [0:1]"}) {
+      try {
+        optimize(expression).search(input);
+        fail("No exception was thrown");
+      } catch (ArgumentTypeException ate) {
+        try {
+          parse(expression).search(input);
+          fail("No exception was thrown");
+        } catch (ArgumentTypeException expected) {
+          assertThat(ate.getMessage(), is(expected.getMessage()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void comparisonsOfTheLengthOfAPipelineAreCombined() {
+    assertThat(optimize("length(items[?x]) > `0`").toString(), is("Sequence(Property(items), Pipeline(Selection(Property(x)), ComparisonNode$GreaterThan(>, FunctionCall(length, [Current()]), JsonLiteral(0))))"));
+    assertThat(optimize("`1` <= length(items[*].a[?b])").toString(), is("Sequence(Property(items), Pipeline(Projection(Sequence(Property(a), Selection(Property(b)))), ComparisonNode$LessThanOrEquals(<=, JsonLiteral(1), FunctionCall(length, [Current()]))))"));
+    assertThat(optimize("length(items) > `0`"), is(instanceOf(ComparisonNode.class)));
+    assertThat(optimize("length(items[?x]) > a"), is(instanceOf(ComparisonNode.class)));
+  }
+
+  @Test
+  public void firstAndLastMatchesAndExistenceChecksGiveTheSameResults() {
+    Object input = runtime.parseString(
+      "{\"items\": [" +
+        "{\"type\": \"a\", \"id\": 1}, {\"type\": \"b\", \"id\": 2}, {\"type\": \"a\", \"id\": 3}," +
+        "{\"type\": \"c\"}, {\"type\": \"b\", \"id\": 5}" +
+      "], \"object\": {\"type\": \"a\"}}"
+    );
+    String[] expressions = {
+      "items[?type == 'a'] | [0]",
+      "items[?type == 'a'] | [-1]",
+      "items[?type == 'a'] | [-2]",
+      "items[?type == 'a'] | [-3]",
+      "items[?type == 'x'] | [-1]",
+      "items[?type == 'b'].id | [-1]",
+      "items[*].id | [-2]",
+      "items[?type == 'a'].id | [1:] | [-1]",
+      "length(items[?type == 'a']) > `0`",
+      "length(items[?type == 'x']) > `0`",
+      "length(items[?type == 'a']) == `2`",
+      "length(items[?type == 'a']) != `2`",
+      "length(items[?type == 'a']) >= `2.5`",
+      "length(items[?type == 'a']) < `-1`",
+      "`0` < length(items[?type == 'b'])",
+      "`2` == length(items[*].id | [?@ > `1`])"
+    };
+    for (String expression : expressions) {
+      assertThat(expression, optimize(expression).search(input), is(parse(expression).search(input)));
+    }
+    for (String expression : new String[] {"length(object[?type == 'a']) > `0`", "length(missing[?a]) > `0`"}) {
+      try {
+        optimize(expression).search(input);
+        fail("No exception was thrown");
+      } catch (ArgumentTypeException ate) {
+        try {
+          parse(expression).search(input);
+          fail("No exception was thrown");
+        } catch (ArgumentTypeException expected) {
+          assertThat(ate.getMessage(), is(expected.getMessage()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void firstAndLastMatchesAndExistenceChecksStopAtTheMatch() {
+    final int[] lookups = new int[1];
+    Adapter<Object> countingRuntime = new JcfRuntime() {
+      @Override
+      public Object getProperty(Object value, Object name) {
+        lookups[0]++;
+        return super.getProperty(value, name);
+      }
+    };
+    ExpressionOptimizer<Object> countingOptimizer = new ExpressionOptimizer<>(countingRuntime);
+    Object input = countingRuntime.parseString("[{\"a\": 1}, {\"a\": 2}, {\"a\": 3}, {\"a\": 4}, {\"a\": 5}]");
+    assertThat(countingOptimizer.optimize(countingRuntime.compile("[?a > `2`] | [0]")).search(input), is(countingRuntime.parseString("{\"a\": 3}")));
+    assertThat(lookups[0], is(3));
+    lookups[0] = 0;
+    assertThat(countingOptimizer.optimize(countingRuntime.compile("[?a < `3`] | [-1]")).search(input), is(countingRuntime.parseString("{\"a\": 2}")));
+    assertThat(lookups[0], is(4));
+    lookups[0] = 0;
+    assertThat(countingOptimizer.optimize(countingRuntime.compile("length([?a > `1`]) > `0`")).search(input), is((Object) true));
+    assertThat(lookups[0], is(2));
+  }
+}
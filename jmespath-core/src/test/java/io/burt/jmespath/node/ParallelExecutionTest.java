@@ -0,0 +1,80 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ParallelExecutionTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(1);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static List<Integer> range(int size) {
+    List<Integer> numbers = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      numbers.add(i);
+    }
+    return numbers;
+  }
+
+  private static final ParallelExecution.Chunk<Integer> DOUBLE = new ParallelExecution.Chunk<Integer>() {
+    @Override
+    public List<Integer> evaluate(List<Integer> elements) {
+      List<Integer> results = new ArrayList<>(elements.size());
+      for (Integer element : elements) {
+        results.add(element * 2);
+      }
+      return results;
+    }
+  };
+
+  @Test
+  public void evaluatesTheChunksInOrder() {
+    ParallelExecution execution = new ParallelExecution(executor, 10, 4);
+    assertThat(execution.shouldSplit(100), is(true));
+    List<Integer> results = execution.evaluate(range(100), DOUBLE);
+    assertThat(results.size(), is(100));
+    for (int i = 0; i < 100; i++) {
+      assertThat(results.get(i), is(i * 2));
+    }
+  }
+
+  @Test
+  public void doesNotDeadlockWhenCalledOnAThreadOfTheExecutor() throws Exception {
+    final ParallelExecution execution = new ParallelExecution(executor, 10, 4);
+    List<Integer> results = executor.submit(new Callable<List<Integer>>() {
+      @Override
+      public List<Integer> call() {
+        return execution.evaluate(range(100), DOUBLE);
+      }
+    }).get(10, TimeUnit.SECONDS);
+    assertThat(results.size(), is(100));
+    assertThat(results.get(99), is(198));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rethrowsExceptionsFromChunks() {
+    ParallelExecution execution = new ParallelExecution(executor, 10, 4);
+    execution.evaluate(range(100), new ParallelExecution.Chunk<Integer>() {
+      @Override
+      public List<Integer> evaluate(List<Integer> elements) {
+        if (elements.contains(99)) {
+          throw new IllegalStateException();
+        }
+        return elements;
+      }
+    });
+  }
+}
@@ -0,0 +1,148 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.function.ArgumentTypeException;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class ParallelNodeFactoryTest {
+  private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+  private final Adapter<Object> sequentialRuntime = new JcfRuntime();
+  private final Object input = createInput(10000);
+
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdown();
+  }
+
+  private Object createInput(int size) {
+    StringBuilder json = new StringBuilder("{\"items\": [");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        json.append(", ");
+      }
+      json.append(String.format("{\"id\": %d, \"price\": %d, \"tags\": [\"t%d\", \"t%d\"]}", i, (i * 37) % 200, i % 3, i % 5));
+    }
+    return sequentialRuntime.parseString(json.append("]}").toString());
+  }
+
+  private Adapter<Object> createRuntime(int threshold) {
+    return new JcfRuntime(RuntimeConfiguration.builder().withParallelThreshold(threshold).withParallelExecutor(forkJoinPool).build());
+  }
+
+  private void assertSameResult(Adapter<Object> runtime, String expression) {
+    assertThat(runtime.compile(expression).search(input), is(sequentialRuntime.compile(expression).search(input)));
+  }
+
+  @Test
+  public void createsParallelProjectionsAndSelections() {
+    Adapter<Object> runtime = createRuntime(1000);
+    assertThat(runtime.nodeFactory().createProjection(runtime.nodeFactory().createCurrent()), is(instanceOf(ParallelProjectionNode.class)));
+    assertThat(runtime.nodeFactory().createSelection(runtime.nodeFactory().createCurrent()), is(instanceOf(ParallelSelectionNode.class)));
+  }
+
+  @Test
+  public void preservesTheOrderOfProjectionResults() {
+    Adapter<Object> runtime = createRuntime(1000);
+    assertSameResult(runtime, "items[*].id");
+    assertSameResult(runtime, "items[*].tags[*]");
+    assertSameResult(runtime, "items[*].missing");
+    assertSameResult(runtime, "items[5:].price");
+  }
+
+  @Test
+  public void preservesTheOrderOfSelectedElements() {
+    Adapter<Object> runtime = createRuntime(1000);
+    assertSameResult(runtime, "items[?price > `100`].id");
+    assertSameResult(runtime, "items[?contains(tags, 't1')].id");
+    assertSameResult(runtime, "items[?price > `1000`]");
+  }
+
+  @Test
+  public void evaluatesArraysBelowTheThresholdOnTheCallingThread() {
+    Adapter<Object> runtime = createRuntime(20000);
+    final Thread callingThread = Thread.currentThread();
+    final List<Thread> threads = new ArrayList<>();
+    Expression<Object> expression = runtime.nodeFactory().createProjection(new Expression<Object>() {
+      @Override
+      public Object search(Object input) {
+        synchronized (threads) {
+          threads.add(Thread.currentThread());
+        }
+        return input;
+      }
+    });
+    expression.search(runtime.parseString("[1, 2, 3]"));
+    for (Thread thread : threads) {
+      assertThat(thread, is(callingThread));
+    }
+    assertThat(threads.size(), is(3));
+  }
+
+  @Test
+  public void worksWithOtherExecutors() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withParallelThreshold(1000).withParallelExecutor(executor).build());
+      assertSameResult(runtime, "items[?price > `100`].tags[*]");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void worksWhenTheSearchRunsOnTheExecutor() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(1);
+    try {
+      final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withParallelThreshold(1000).withParallelExecutor(executor).build());
+      Object result = executor.submit(new Callable<Object>() {
+        @Override
+        public Object call() {
+          return runtime.compile("items[?price > `100`].id").search(input);
+        }
+      }).get(10, TimeUnit.SECONDS);
+      assertThat(result, is(sequentialRuntime.compile("items[?price > `100`].id").search(input)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void worksWithExpressionOptimizationAndBytecodeCompilation() {
+    Adapter<Object> runtime = new JcfRuntime(
+      RuntimeConfiguration.builder()
+        .withParallelThreshold(1000)
+        .withParallelExecutor(forkJoinPool)
+        .withExpressionOptimization(true)
+        .withBytecodeCompilation(true)
+        .build()
+    );
+    assertSameResult(runtime, "items[?price > `100` && `true`].id | length(@)");
+  }
+
+  @Test(expected = ArgumentTypeException.class)
+  public void rethrowsExceptionsFromOtherThreads() {
+    createRuntime(1000).compile("items[*].abs(tags)").search(input);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void doesNotAcceptANegativeThreshold() {
+    RuntimeConfiguration.builder().withParallelThreshold(-1);
+  }
+}
@@ -0,0 +1,100 @@
+package io.burt.jmespath.node;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class ProfiledNodeTest {
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withProfiling(true).build());
+  private final Adapter<Object> interpreter = new JcfRuntime();
+
+  private final Object input = runtime.parseString(
+    "{\"items\": [" +
+      "{\"price\": 50, \"sku\": \"a\"}," +
+      "{\"price\": 150, \"sku\": \"b\"}," +
+      "{\"price\": 250, \"sku\": \"c\"}" +
+    "]}"
+  );
+
+  private ProfiledNode<Object> compile(String expression) {
+    Expression<Object> compiledExpression = runtime.compile(expression);
+    assertThat(compiledExpression, is(instanceOf(ProfiledNode.class)));
+    return (ProfiledNode<Object>) compiledExpression;
+  }
+
+  @Test
+  public void givesTheSameResultsAsUnprofiledExpressions() {
+    String expression = "sort_by(items[?price > `100`], &price)[*].{sku: sku, price: price}";
+    assertThat(compile(expression).search(input), is(interpreter.compile(expression).search(input)));
+  }
+
+  @Test
+  public void looksLikeTheExpressionItWraps() {
+    String expression = "items[?price > `100`].sku";
+    ProfiledNode<Object> profiledNode = compile(expression);
+    assertThat(profiledNode.toString(), is(interpreter.compile(expression).toString()));
+    assertThat(profiledNode.equals(interpreter.compile(expression)), is(false));
+    assertThat(profiledNode, is(compile(expression)));
+  }
+
+  @Test
+  public void countsInvocationsAndArraySizes() {
+    ProfiledNode<Object> profiledNode = compile("items[?price > `100`].sku");
+    profiledNode.search(input);
+    profiledNode.search(input);
+    assertThat(profiledNode.invocations(), is(2L));
+    ProfiledNode<Object> items = (ProfiledNode<Object>) profiledNode.children().get(0);
+    ProfiledNode<Object> rest = (ProfiledNode<Object>) profiledNode.children().get(1);
+    ProfiledNode<Object> selection = (ProfiledNode<Object>) rest.children().get(0);
+    ProfiledNode<Object> comparison = (ProfiledNode<Object>) selection.children().get(0);
+    assertThat(items.toString(), is("Property(items)"));
+    assertThat(items.resultElements(), is(6L));
+    assertThat(selection.inputElements(), is(6L));
+    assertThat(selection.resultElements(), is(4L));
+    assertThat(comparison.invocations(), is(6L));
+    assertThat(profiledNode.nanos(), is(greaterThanOrEqualTo(selection.nanos())));
+  }
+
+  @Test
+  public void profilesExpressionsReferencedByFunctions() {
+    ProfiledNode<Object> profiledNode = compile("sort_by(items, &price)");
+    profiledNode.search(input);
+    ProfiledNode<Object> price = (ProfiledNode<Object>) profiledNode.children().get(1);
+    assertThat(price.toString(), is("Property(price)"));
+    assertThat(price.invocations(), is(3L));
+  }
+
+  @Test
+  public void rendersAReport() {
+    ProfiledNode<Object> profiledNode = compile("items[?price > `100`].{sku: sku}");
+    profiledNode.search(input);
+    String report = profiledNode.report();
+    assertThat(report, startsWith("Sequence  calls=1 "));
+    assertThat(report, containsString("\n  Property(items)  calls=1 "));
+    assertThat(report, containsString("\n    Selection  calls=1 "));
+    assertThat(report, containsString(" input_elements=3 result_elements=2\n"));
+    assertThat(report, containsString("\n      Comparison(GREATER_THAN)  calls=3 "));
+    assertThat(report, containsString("\n        JsonLiteral(100)  calls=3 "));
+    assertThat(report, containsString("\n      CreateObject(sku)  calls=2 "));
+    assertThat(report, containsString("\n        Property(sku)  calls=2 "));
+  }
+
+  @Test
+  public void resetsTheNumbers() {
+    ProfiledNode<Object> profiledNode = compile("items[*].sku");
+    profiledNode.search(input);
+    profiledNode.reset();
+    assertThat(profiledNode.invocations(), is(0L));
+    assertThat(((ProfiledNode<Object>) profiledNode.children().get(0)).resultElements(), is(0L));
+  }
+}
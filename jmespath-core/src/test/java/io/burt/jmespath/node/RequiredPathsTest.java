@@ -0,0 +1,96 @@
+package io.burt.jmespath.node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class RequiredPathsTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+
+  private List<String> paths(String expression) {
+    return RequiredPaths.of(runtime.compile(expression)).paths();
+  }
+
+  @Test
+  public void propertiesNeedTheirValues() {
+    assertThat(paths("a.b.c"), is(Arrays.asList("a.b.c")));
+  }
+
+  @Test
+  public void projectionsNeedTheProjectedPropertiesOfEachElement() {
+    assertThat(paths("Records[*].{n: eventName, t: eventTime}"), is(Arrays.asList("Records[].eventName", "Records[].eventTime")));
+  }
+
+  @Test
+  public void theCurrentNodeNeedsTheWholeDocument() {
+    assertThat(paths("@"), is(Arrays.asList("@")));
+    assertThat(paths("length(@)"), is(Arrays.asList("@")));
+  }
+
+  @Test
+  public void literalsNeedNothing() {
+    assertThat(paths("`{\"a\": 1}`"), is(Collections.<String>emptyList()));
+  }
+
+  @Test
+  public void filtersNeedWhatTheTestAndTheProjectionNeed() {
+    assertThat(paths("foo[?age > `30`].name"), is(Arrays.asList("foo[].age", "foo[].name")));
+    assertThat(paths("foo[*].bar[?baz].name"), is(Arrays.asList("foo[].bar[].baz", "foo[].bar[].name")));
+  }
+
+  @Test
+  public void wildcardsNeedEveryProperty() {
+    assertThat(paths("*.name"), is(Arrays.asList("*.name")));
+  }
+
+  @Test
+  public void orNeedsBothOperands() {
+    assertThat(paths("a || b.c"), is(Arrays.asList("a", "b.c")));
+  }
+
+  @Test
+  public void theLeftOperandOfOrAndAndIsNeededToTellIfItIsTruthy() {
+    assertThat(paths("(a || b).c"), is(Arrays.asList("a", "b.c")));
+    assertThat(paths("(a && b).c"), is(Arrays.asList("a", "b.c")));
+  }
+
+  @Test
+  public void slicesNeedEveryElementAndEveryProperty() {
+    assertThat(paths("@[2:]"), is(Arrays.asList("*", "[]")));
+    assertThat(paths("a[1:].b"), is(Arrays.asList("a.*.b", "a[].b")));
+    assertThat(paths("a[*].b[::2]"), is(Arrays.asList("a[].b.*", "a[].b[]")));
+  }
+
+  @Test
+  public void functionArgumentsAreNeededInTheirEntirety() {
+    assertThat(paths("sort_by(people, &age)[0].name"), is(Arrays.asList("people")));
+  }
+
+  @Test
+  public void namedPropertiesAlsoNeedWhatEveryPropertyNeeds() {
+    RequiredPaths paths = RequiredPaths.of(runtime.compile("[a.x, *.y]"));
+    assertThat(paths.paths(), is(Arrays.asList("a.x", "a.y", "*.y")));
+    assertThat(paths.property("a").propertyNames().size(), is(2));
+    assertThat(paths.property("b").paths(), is(Arrays.asList("y")));
+    assertThat(paths.property("a").property("z"), is(nullValue()));
+  }
+
+  @Test
+  public void completePathsIncludeEverythingBelowThem() {
+    RequiredPaths paths = RequiredPaths.of(runtime.compile("a"));
+    assertThat(paths.property("a").isComplete(), is(true));
+    assertThat(paths.property("a").property("anything").isComplete(), is(true));
+    assertThat(paths.property("a").elements().isComplete(), is(true));
+    assertThat(paths.property("b"), is(nullValue()));
+    assertThat(paths.elements(), is(nullValue()));
+  }
+}
@@ -0,0 +1,121 @@
+package io.burt.jmespath.node;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class StandardNodeFactoryTest {
+  private final CountingRuntime runtime = new CountingRuntime();
+  private final StandardNodeFactory<Object> nodeFactory = new StandardNodeFactory<>(runtime);
+
+  private static class CountingRuntime extends JcfRuntime {
+    private int parseCount;
+
+    @Override
+    public Object parseString(String str) {
+      parseCount++;
+      return super.parseString(str);
+    }
+  }
+
+  private Object literal(String json) {
+    return nodeFactory.createJsonLiteral(json).search(null);
+  }
+
+  @Test
+  public void parsesEachLiteralOnce() {
+    Object value1 = literal("[\"a\", \"b\"]");
+    Object value2 = literal("[\"a\", \"b\"]");
+    assertThat(value1, is((Object) Arrays.asList("a", "b")));
+    assertThat(value2, is(sameInstance(value1)));
+    assertThat(literal("{\"a\": 1.5}"), is(runtime.parseString("{\"a\": 1.5}")));
+    assertThat(runtime.parseCount, is(3));
+    assertThat(nodeFactory.literalCache().size(), is(2));
+    assertThat(nodeFactory.literalCache().hitCount(), is(1L));
+  }
+
+  @Test
+  public void createsScalarsWithoutParsing() {
+    assertThat(literal("true"), is((Object) true));
+    assertThat(literal(" false "), is((Object) false));
+    assertThat(literal("null"), is(nullValue()));
+    assertThat(literal("\"foo bar\""), is((Object) "foo bar"));
+    assertThat(literal("\"\""), is((Object) ""));
+    assertThat(literal("0"), is((Object) 0L));
+    assertThat(literal("-42"), is((Object) (-42L)));
+    assertThat(literal("123456789"), is((Object) 123456789L));
+    assertThat(nodeFactory.literalCache().size(), is(0));
+    // The only parse is the check that the runtime parses integers like it creates them
+    assertThat(runtime.parseCount, is(1));
+  }
+
+  @Test
+  public void parsesLiteralsThatAreNotSimpleScalars() {
+    assertThat(literal("\"a\\\"b\""), is((Object) "a\"b"));
+    assertThat(literal("\"\\u00e5\""), is((Object) "\u00e5"));
+    assertThat(literal("1.5"), is((Object) 1.5));
+    assertThat(literal("1e3"), is(runtime.parseString("1e3")));
+    assertThat(literal("1234567890123"), is((Object) 1234567890123L));
+    assertThat(literal("-0"), is(runtime.parseString("-0")));
+    assertThat(nodeFactory.literalCache().size(), is(6));
+  }
+
+  @Test
+  public void indexesLiteralHaystacksOfContains() {
+    List<Node<Object>> args = Arrays.asList(nodeFactory.createJsonLiteral("[1, \"a\"]"), nodeFactory.createCurrent());
+    Node<Object> node = nodeFactory.createFunctionCall("contains", args);
+    assertThat(node, is(instanceOf(IndexedContainsNode.class)));
+    assertThat(node.search(1.0), is((Object) true));
+    assertThat(node.search("a"), is((Object) true));
+    assertThat(node.search("b"), is((Object) false));
+  }
+
+  @Test
+  public void doesNotIndexOtherHaystacks() {
+    List<Node<Object>> args1 = Arrays.asList(nodeFactory.createCurrent(), nodeFactory.createJsonLiteral("1"));
+    List<Node<Object>> args2 = Arrays.asList(nodeFactory.createJsonLiteral("\"abc\""), nodeFactory.createCurrent());
+    assertThat(nodeFactory.createFunctionCall("contains", args1), is(not(instanceOf(IndexedContainsNode.class))));
+    assertThat(nodeFactory.createFunctionCall("contains", args2), is(not(instanceOf(IndexedContainsNode.class))));
+  }
+
+  private FunctionCallNode<Object> functionCall(String expression) {
+    return (FunctionCallNode<Object>) runtime.compile(expression);
+  }
+
+  @Test
+  public void checksTheArgumentsOfFunctionCallsWhenTheirTypesAreKnown() {
+    assertThat(functionCall("sum(`[1, 2, 3]`)").argumentsChecked(), is(true));
+    assertThat(functionCall("join(', ', keys(`{\"a\": 1}`))").argumentsChecked(), is(true));
+    assertThat(functionCall("length(to_string(@))").argumentsChecked(), is(true));
+    assertThat(functionCall("starts_with('abc', 'a')").argumentsChecked(), is(true));
+    assertThat(functionCall("sort_by(`[{\"a\": 1}]`, &a)").argumentsChecked(), is(true));
+    assertThat(functionCall("not_null(foo, `1`, 'x')").argumentsChecked(), is(true));
+  }
+
+  @Test
+  public void checksTheArgumentsOfOtherFunctionCallsWhenTheyAreCalled() {
+    assertThat(functionCall("sum(foo)").argumentsChecked(), is(false));
+    assertThat(functionCall("length(to_number(@))").argumentsChecked(), is(false));
+    assertThat(functionCall("sum(`[1, \"a\"]`)").argumentsChecked(), is(false));
+    assertThat(functionCall("map(&a, `[1, \"a\"]`)").argumentsChecked(), is(false));
+    assertThat(functionCall("sort_by(`[{\"a\": 1}]`, a)").argumentsChecked(), is(false));
+    assertThat(functionCall("abs('a')").argumentsChecked(), is(false));
+  }
+
+  @Test
+  public void functionCallsWithCheckedArgumentsReturnTheSameResults() {
+    assertThat(runtime.compile("sum(`[1, 2, 3]`)").search(null), is((Object) 6.0));
+    assertThat(runtime.compile("join(', ', keys(`{\"a\": 1, \"b\": 2}`))").search(null), is((Object) "a, b"));
+    assertThat(runtime.compile("length(to_string(@))").search(123L), is((Object) 3L));
+  }
+}
@@ -0,0 +1,17 @@
+package io.burt.jmespath.parser;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+public class AntlrParserTest extends ParserTest {
+  @Override
+  protected Adapter<Object> createRuntime(RuntimeConfiguration configuration) {
+    return new JcfRuntime(RuntimeConfiguration.builder()
+      .withFunctionRegistry(configuration.functionRegistry())
+      .withSilentTypeErrors(configuration.silentTypeErrors())
+      .withParserType(ParserType.ANTLR)
+      .build()
+    );
+  }
+}
@@ -23,7 +23,11 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.containsString;
 
 public class ParserTest {
-  private Adapter<Object> runtime = new JcfRuntime();
+  private Adapter<Object> runtime = createRuntime(RuntimeConfiguration.defaultConfiguration());
+
+  protected Adapter<Object> createRuntime(RuntimeConfiguration configuration) {
+    return new JcfRuntime(configuration);
+  }
 
   private Expression<Object> compile(String str) {
     return runtime.compile(str);
@@ -1240,7 +1244,7 @@ public class ParserTest {
 
   @Test
   public void callingAVariableArityFunctionWithTooManyArgumentsThrowsParseException() {
-    runtime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(
+    runtime = createRuntime(RuntimeConfiguration.builder().withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(
       new BaseFunction("foobar", ArgumentConstraints.listOf(1, 3, ArgumentConstraints.anyValue())) {
         protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) { return runtime.createNull(); }
       }
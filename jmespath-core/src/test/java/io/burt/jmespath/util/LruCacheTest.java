@@ -0,0 +1,128 @@
+package io.burt.jmespath.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class LruCacheTest {
+  @Test
+  public void returnsCachedValues() {
+    LruCache<String, Integer> cache = new LruCache<>(10);
+    cache.putIfAbsent("one", 1);
+    assertThat(cache.get("one"), is(1));
+    assertThat(cache.get("two"), is(nullValue()));
+  }
+
+  @Test
+  public void putIfAbsentKeepsTheFirstValue() {
+    LruCache<String, Integer> cache = new LruCache<>(10);
+    assertThat(cache.putIfAbsent("one", 1), is(1));
+    assertThat(cache.putIfAbsent("one", 2), is(1));
+    assertThat(cache.get("one"), is(1));
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    LruCache<String, Integer> cache = new LruCache<>(10);
+    cache.get("one");
+    cache.putIfAbsent("one", 1);
+    cache.get("one");
+    cache.get("one");
+    assertThat(cache.missCount(), is(1L));
+    assertThat(cache.hitCount(), is(2L));
+  }
+
+  @Test
+  public void neverGrowsBeyondTheMaximumSize() {
+    LruCache<Integer, Integer> cache = new LruCache<>(3);
+    for (int i = 0; i < 10; i++) {
+      cache.putIfAbsent(i, i);
+    }
+    assertThat(cache.size(), is(3));
+    assertThat(cache.evictionCount(), is(7L));
+  }
+
+  @Test
+  public void doesNotEvictTheEntryThatWasJustAdded() {
+    LruCache<Integer, Integer> cache = new LruCache<>(3);
+    for (int i = 0; i < 20; i++) {
+      cache.putIfAbsent(i, i);
+      assertThat(cache.get(i), is(i));
+    }
+    assertThat(cache.hitCount(), is(20L));
+    assertThat(cache.size(), is(3));
+  }
+
+  @Test
+  public void evictsEntriesThatHaveNotBeenUsedRecently() {
+    LruCache<String, Integer> cache = new LruCache<>(3);
+    cache.putIfAbsent("one", 1);
+    cache.putIfAbsent("two", 2);
+    cache.putIfAbsent("three", 3);
+    cache.get("one");
+    cache.get("three");
+    cache.putIfAbsent("four", 4);
+    assertThat(cache.get("two"), is(nullValue()));
+    assertThat(cache.get("one"), is(1));
+    assertThat(cache.get("three"), is(3));
+    assertThat(cache.get("four"), is(4));
+  }
+
+  @Test
+  public void clearRemovesAllEntries() {
+    LruCache<String, Integer> cache = new LruCache<>(3);
+    cache.putIfAbsent("one", 1);
+    cache.clear();
+    assertThat(cache.size(), is(0));
+    assertThat(cache.get("one"), is(nullValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void theMaximumSizeMustBePositive() {
+    new LruCache<String, Integer>(0);
+  }
+
+  @Test
+  public void canBeUsedFromMultipleThreads() throws Exception {
+    final LruCache<Integer, Integer> cache = new LruCache<>(50);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            for (int i = 0; i < 10000; i++) {
+              int key = i % 200;
+              Integer value = cache.get(key);
+              if (value == null) {
+                value = cache.putIfAbsent(key, key);
+              }
+              if (value != key) {
+                return false;
+              }
+            }
+            return true;
+          }
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        assertThat(future.get(), is(true));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(cache.size(), is(lessThanOrEqualTo(50)));
+    assertThat(cache.hitCount() + cache.missCount(), is(40000L));
+  }
+}
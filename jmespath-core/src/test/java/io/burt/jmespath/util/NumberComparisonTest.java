@@ -0,0 +1,47 @@
+package io.burt.jmespath.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class NumberComparisonTest {
+  private static final long TWO_TO_THE_53 = 1L << 53;
+
+  @Test
+  public void comparesSmallNumbersLikeDoubles() {
+    assertThat(NumberComparison.compare(1, 1.0), is(0));
+    assertThat(NumberComparison.compare(1, 1.5), is(-1));
+    assertThat(NumberComparison.compare(2, 1.5), is(1));
+    assertThat(NumberComparison.compare(-1, -1.5), is(1));
+    assertThat(NumberComparison.compare(-2, -1.5), is(-1));
+    assertThat(NumberComparison.compare(0, -0.5), is(1));
+  }
+
+  @Test
+  public void ordersNegativeZeroBeforeZeroLikeDoubleCompare() {
+    assertThat(NumberComparison.compare(0, -0.0), is(Double.compare(0.0, -0.0)));
+    assertThat(NumberComparison.compare(0, 0.0), is(0));
+    assertThat(NumberComparison.compare(-1, -0.0), is(-1));
+    assertThat(NumberComparison.compare(1, -0.0), is(1));
+  }
+
+  @Test
+  public void comparesLargeIntegersExactly() {
+    double d = (double) TWO_TO_THE_53;
+    assertThat(NumberComparison.compare(TWO_TO_THE_53, d), is(0));
+    assertThat(NumberComparison.compare(TWO_TO_THE_53 + 1, d), is(1));
+    assertThat(NumberComparison.compare(TWO_TO_THE_53 - 1, d), is(-1));
+    assertThat(NumberComparison.compare(-TWO_TO_THE_53 - 1, -d), is(-1));
+  }
+
+  @Test
+  public void comparesNumbersOutsideTheRangeOfLong() {
+    assertThat(NumberComparison.compare(Long.MAX_VALUE, 0x1p63), is(-1));
+    assertThat(NumberComparison.compare(Long.MIN_VALUE, -0x1p63), is(0));
+    assertThat(NumberComparison.compare(Long.MIN_VALUE, -0x1p64), is(1));
+    assertThat(NumberComparison.compare(Long.MAX_VALUE, Double.POSITIVE_INFINITY), is(-1));
+    assertThat(NumberComparison.compare(Long.MIN_VALUE, Double.NEGATIVE_INFINITY), is(1));
+    assertThat(NumberComparison.compare(Long.MAX_VALUE, Double.NaN), is(-1));
+  }
+}
@@ -0,0 +1,55 @@
+package io.burt.jmespath.util;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ValueSetTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+
+  private ValueSet<Object> valueSet(String json) {
+    return new ValueSet<>(runtime, runtime.toList(runtime.parseString(json)));
+  }
+
+  private boolean contains(ValueSet<Object> valueSet, String json) {
+    return valueSet.contains(runtime.parseString(json));
+  }
+
+  @Test
+  public void containsScalars() {
+    ValueSet<Object> valueSet = valueSet("[1, \"foo\", true, null]");
+    assertThat(contains(valueSet, "1"), is(true));
+    assertThat(contains(valueSet, "\"foo\""), is(true));
+    assertThat(contains(valueSet, "true"), is(true));
+    assertThat(contains(valueSet, "null"), is(true));
+    assertThat(contains(valueSet, "2"), is(false));
+    assertThat(contains(valueSet, "\"1\""), is(false));
+    assertThat(contains(valueSet, "false"), is(false));
+  }
+
+  @Test
+  public void comparesNumbersByValue() {
+    ValueSet<Object> valueSet = valueSet("[1, 2.5]");
+    assertThat(contains(valueSet, "1.0"), is(true));
+    assertThat(contains(valueSet, "2.5"), is(true));
+    assertThat(contains(valueSet, "2"), is(false));
+  }
+
+  @Test
+  public void comparesArraysAndObjectsDeeply() {
+    ValueSet<Object> valueSet = valueSet("[[1, {\"a\": 2, \"b\": [3]}], {\"x\": 1, \"y\": 2}]");
+    assertThat(contains(valueSet, "[1.0, {\"b\": [3], \"a\": 2}]"), is(true));
+    assertThat(contains(valueSet, "{\"y\": 2, \"x\": 1}"), is(true));
+    assertThat(contains(valueSet, "[{\"a\": 2, \"b\": [3]}, 1]"), is(false));
+    assertThat(contains(valueSet, "{\"x\": 1}"), is(false));
+  }
+
+  @Test
+  public void doesNotKeepDuplicates() {
+    assertThat(valueSet("[1, 1.0, \"a\", \"a\", [1], [1]]").size(), is(3));
+  }
+}
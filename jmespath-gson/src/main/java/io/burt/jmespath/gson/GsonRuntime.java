@@ -6,10 +6,19 @@ import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.node.RequiredPaths;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
@@ -35,6 +44,54 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     return parser.parse(str);
   }
 
+  /**
+   * Parses only the parts of the JSON string that are in the required paths.
+   * Searching the result with the expression that the paths are for gives the
+   * same result as searching the whole document.
+   *
+   * @see RequiredPaths#of
+   */
+  public JsonElement parseString(String str, RequiredPaths paths) {
+    try (JsonReader reader = new JsonReader(new StringReader(str))) {
+      return readRequired(reader, paths);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  private JsonElement readRequired(JsonReader reader, RequiredPaths paths) throws IOException {
+    if (reader.peek() == JsonToken.BEGIN_OBJECT && !paths.isComplete()) {
+      JsonObject object = new JsonObject();
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        RequiredPaths property = paths.property(name);
+        if (property == null) {
+          reader.skipValue();
+        } else {
+          object.add(name, readRequired(reader, property));
+        }
+      }
+      reader.endObject();
+      return object;
+    } else if (reader.peek() == JsonToken.BEGIN_ARRAY && !paths.isComplete()) {
+      JsonArray array = new JsonArray();
+      RequiredPaths elements = paths.elements();
+      reader.beginArray();
+      while (reader.hasNext()) {
+        if (elements == null) {
+          reader.skipValue();
+        } else {
+          array.add(readRequired(reader, elements));
+        }
+      }
+      reader.endArray();
+      return array;
+    } else {
+      return JsonParser.parseReader(reader);
+    }
+  }
+
   private static class JsonArrayListWrapper extends AbstractList<JsonElement> {
     private final JsonArray array;
 
@@ -83,6 +140,42 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     return (value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) ? value.getAsNumber() : null;
   }
 
+  @Override
+  public double doubleValue(JsonElement value) {
+    return value.getAsDouble();
+  }
+
+  @Override
+  public long longValue(JsonElement value) {
+    return value.getAsLong();
+  }
+
+  @Override
+  public boolean isIntegral(JsonElement value) {
+    Number number = value.getAsNumber();
+    if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+      return true;
+    } else if (number instanceof Double || number instanceof Float || number instanceof BigDecimal || number instanceof BigInteger) {
+      return false;
+    } else {
+      // Parsed numbers keep the text they were parsed from, integers of up to
+      // 18 digits always fit in a long
+      String str = number.toString();
+      int digits = str.startsWith("-") ? str.length() - 1 : str.length();
+      return digits <= 18 && str.indexOf('.') == -1 && str.indexOf('e') == -1 && str.indexOf('E') == -1;
+    }
+  }
+
+  @Override
+  public boolean stringEquals(JsonElement value, String str) {
+    return value.isJsonPrimitive() && value.getAsJsonPrimitive().isString() && str.equals(value.getAsString());
+  }
+
+  @Override
+  public int stringLength(JsonElement value) {
+    return value.getAsString().length();
+  }
+
   @Override
   public boolean isTruthy(JsonElement value) {
     switch (typeOf(value)) {
@@ -129,6 +222,35 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     );
   }
 
+  /**
+   * A key for looking up properties directly by name, created when
+   * {@link #getProperty(Object, Object)} has not been overridden.
+   */
+  private static final class DirectPropertyKey extends PropertyKey<JsonElement> {
+    public DirectPropertyKey(String name, JsonElement value) {
+      super(name, value);
+    }
+  }
+
+  @Override
+  public PropertyKey<JsonElement> createPropertyKey(String name) {
+    if (overridesGetProperty(GsonRuntime.class)) {
+      return super.createPropertyKey(name);
+    } else {
+      return new DirectPropertyKey(name, createString(name));
+    }
+  }
+
+  @Override
+  public JsonElement getProperty(JsonElement value, PropertyKey<JsonElement> key) {
+    if (!(key instanceof DirectPropertyKey)) {
+      return getProperty(value, key.value());
+    }
+    return nodeOrNullNode(
+      value.isJsonObject() ? value.getAsJsonObject().get(key.name()) : null
+    );
+  }
+
   @Override
   public Collection<JsonElement> getPropertyNames(JsonElement value) {
     if (value.isJsonObject()) {
@@ -0,0 +1,34 @@
+package io.burt.jmespath.gson;
+
+import com.google.gson.JsonElement;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.node.RequiredPaths;
+
+public class GsonRequiredPathsComplianceTest extends JmesPathComplianceTest<JsonElement> {
+    private final Adapter<JsonElement> runtime = new FilteringGsonRuntime();
+
+    @Override
+    protected Adapter<JsonElement> runtime() {
+        return runtime;
+    }
+
+    /**
+     * Parses only the required paths of the serialized input before searching,
+     * so that all compliance tests exercise the required path analysis.
+     */
+    private static class FilteringGsonRuntime extends GsonRuntime {
+        @Override
+        public Expression<JsonElement> compile(String expression) {
+            final Expression<JsonElement> compiledExpression = super.compile(expression);
+            final RequiredPaths paths = RequiredPaths.of(compiledExpression);
+            return new Expression<JsonElement>() {
+                @Override
+                public JsonElement search(JsonElement input) {
+                    return compiledExpression.search(parseString(input.toString(), paths));
+                }
+            };
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.burt.jmespath.jacksonjr;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.jr.ob.JSON;
 import com.fasterxml.jackson.jr.stree.JacksonJrsTreeCodec;
@@ -12,15 +13,20 @@ import com.fasterxml.jackson.jr.stree.JrsString;
 import com.fasterxml.jackson.jr.stree.JrsValue;
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.node.RequiredPaths;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.math.BigInteger;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -51,6 +57,63 @@ public class JacksonJrRuntime extends BaseRuntime<JrsValue> {
         }
     }
 
+    @Override
+    public JrsValue parseBytes(byte[] bytes, int offset, int length) {
+        try {
+            return json.treeFrom(new ByteArrayInputStream(bytes, offset, length));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses only the parts of the JSON string that are in the required paths.
+     * Searching the result with the expression that the paths are for gives
+     * the same result as searching the whole document.
+     *
+     * @see RequiredPaths#of
+     */
+    public JrsValue parseString(String str, RequiredPaths paths) {
+        try (JsonParser parser = json.createParser(str)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return readRequired(parser, paths);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JrsValue readRequired(JsonParser parser, RequiredPaths paths) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT && !paths.isComplete()) {
+            Map<String, JrsValue> values = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                RequiredPaths property = paths.property(name);
+                parser.nextToken();
+                if (property == null) {
+                    parser.skipChildren();
+                } else {
+                    values.put(name, readRequired(parser, property));
+                }
+            }
+            return new JrsObject(values);
+        } else if (parser.currentToken() == JsonToken.START_ARRAY && !paths.isComplete()) {
+            List<JrsValue> values = new ArrayList<>();
+            RequiredPaths elements = paths.elements();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (elements == null) {
+                    parser.skipChildren();
+                } else {
+                    values.add(readRequired(parser, elements));
+                }
+            }
+            return new JrsArray(values);
+        } else {
+            return (JrsValue) json.getTreeCodec().readTree(parser);
+        }
+    }
+
     private static class JrsArrayListWrapper extends AbstractList<JrsValue> {
         private final JrsArray array;
 
@@ -113,6 +176,36 @@ public class JacksonJrRuntime extends BaseRuntime<JrsValue> {
         }
     }
 
+    @Override
+    public double doubleValue(JrsValue value) {
+        return ((JrsNumber) value).getValue().doubleValue();
+    }
+
+    @Override
+    public long longValue(JrsValue value) {
+        return ((JrsNumber) value).getValue().longValue();
+    }
+
+    @Override
+    public boolean isIntegral(JrsValue value) {
+        Number number = ((JrsNumber) value).getValue();
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).bitLength() < 64;
+        } else {
+            return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+        }
+    }
+
+    @Override
+    public boolean stringEquals(JrsValue value, String str) {
+        return value instanceof JrsString && str.equals(((JrsString) value).getValue());
+    }
+
+    @Override
+    public int stringLength(JrsValue value) {
+        return ((JrsString) value).getValue().length();
+    }
+
     @Override
     public boolean isTruthy(JrsValue value) {
         if (value.isContainerNode()) {
@@ -166,6 +259,38 @@ public class JacksonJrRuntime extends BaseRuntime<JrsValue> {
         }
     }
 
+    /**
+     * A key for looking up properties directly by name, created when
+     * {@link #getProperty(Object, Object)} has not been overridden.
+     */
+    private static final class DirectPropertyKey extends PropertyKey<JrsValue> {
+        public DirectPropertyKey(String name, JrsValue value) {
+            super(name, value);
+        }
+    }
+
+    @Override
+    public PropertyKey<JrsValue> createPropertyKey(String name) {
+        if (overridesGetProperty(JacksonJrRuntime.class)) {
+            return super.createPropertyKey(name);
+        } else {
+            return new DirectPropertyKey(name, createString(name));
+        }
+    }
+
+    @Override
+    public JrsValue getProperty(JrsValue value, PropertyKey<JrsValue> key) {
+        if (!(key instanceof DirectPropertyKey)) {
+            return getProperty(value, key.value());
+        }
+        if (JsonToken.VALUE_NULL.equals(value.asToken())) {
+            return JrsNull.instance();
+        } else {
+            JrsValue node = value.get(key.name());
+            return node != null ? node : createNull();
+        }
+    }
+
     @Override
     public Collection<JrsValue> getPropertyNames(JrsValue value) {
         if (value.isObject()) {
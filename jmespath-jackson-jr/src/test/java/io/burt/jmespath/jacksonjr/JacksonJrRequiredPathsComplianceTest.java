@@ -0,0 +1,42 @@
+package io.burt.jmespath.jacksonjr;
+
+import com.fasterxml.jackson.jr.ob.JSON;
+import com.fasterxml.jackson.jr.stree.JacksonJrsTreeCodec;
+import com.fasterxml.jackson.jr.stree.JrsValue;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.node.RequiredPaths;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public class JacksonJrRequiredPathsComplianceTest extends JmesPathComplianceTest<JrsValue> {
+    private Adapter<JrsValue> runtime = new FilteringJacksonJrRuntime();
+
+    @Override
+    protected Adapter<JrsValue> runtime() { return runtime; }
+
+    /**
+     * Parses only the required paths of the serialized input before searching,
+     * so that all compliance tests exercise the required path analysis.
+     */
+    private static class FilteringJacksonJrRuntime extends JacksonJrRuntime {
+        private final JSON json = JSON.builder().treeCodec(new JacksonJrsTreeCodec()).build();
+
+        @Override
+        public Expression<JrsValue> compile(String expression) {
+            final Expression<JrsValue> compiledExpression = super.compile(expression);
+            final RequiredPaths paths = RequiredPaths.of(compiledExpression);
+            return new Expression<JrsValue>() {
+                @Override
+                public JrsValue search(JrsValue input) {
+                    try {
+                        return compiledExpression.search(parseString(json.asString(input), paths));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+    }
+}
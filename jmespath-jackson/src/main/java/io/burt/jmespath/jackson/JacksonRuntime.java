@@ -8,16 +8,24 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Iterator;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.node.RequiredPaths;
 
 public class JacksonRuntime extends BaseRuntime<JsonNode> {
   private final ObjectMapper jsonParser;
@@ -44,6 +52,117 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     }
   }
 
+  @Override
+  public JsonNode parseBytes(byte[] bytes, int offset, int length) {
+    try {
+      return jsonParser.readTree(bytes, offset, length);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  /**
+   * Parses the JSON in the remaining bytes of the buffer, without changing
+   * its position. The bytes are parsed directly, without first being decoded
+   * to a string.
+   */
+  public JsonNode parseByteBuffer(ByteBuffer buffer) {
+    try (JsonParser parser = createParser(buffer)) {
+      JsonNode node = jsonParser.readTree(parser);
+      return node == null ? createNull() : node;
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  /**
+   * Parses a JSON file by mapping it into memory, which avoids both reading it
+   * into a string and copying it through an intermediate buffer.
+   */
+  public JsonNode parseFile(Path path) throws IOException {
+    try (InputStream input = new MappedInputStream(path)) {
+      JsonNode node = jsonParser.readTree(input);
+      return node == null ? createNull() : node;
+    }
+  }
+
+  /**
+   * Parses only the parts of the JSON string that are in the required paths.
+   * Searching the result with the expression that the paths are for gives the
+   * same result as searching the whole document.
+   *
+   * @see RequiredPaths#of
+   */
+  public JsonNode parseString(String string, RequiredPaths paths) {
+    try (JsonParser parser = jsonParser.getFactory().createParser(string)) {
+      return readTree(parser, paths);
+    } catch (IOException ioe) {
+      throw new IllegalStateException(ioe);
+    }
+  }
+
+  /**
+   * Reads the JSON value that starts at the current token of the parser, or at
+   * the next token if the parser has no current token, into a tree that only
+   * contains the parts that are in the required paths. Everything else is
+   * skipped without being read into nodes, and the strings in it are never
+   * decoded.
+   */
+  public JsonNode readTree(JsonParser parser, RequiredPaths paths) throws IOException {
+    if (!parser.hasCurrentToken() && parser.nextToken() == null) {
+      return createNull();
+    }
+    return readRequired(parser, paths);
+  }
+
+  private JsonNode readRequired(JsonParser parser, RequiredPaths paths) throws IOException {
+    if (parser.currentToken() == JsonToken.START_OBJECT && !paths.isComplete()) {
+      ObjectNode object = jsonParser.getNodeFactory().objectNode();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        RequiredPaths property = paths.property(name);
+        parser.nextToken();
+        if (property == null) {
+          parser.skipChildren();
+        } else {
+          object.set(name, readRequired(parser, property));
+        }
+      }
+      return object;
+    } else if (parser.currentToken() == JsonToken.START_ARRAY && !paths.isComplete()) {
+      ArrayNode array = jsonParser.getNodeFactory().arrayNode();
+      RequiredPaths elements = paths.elements();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (elements == null) {
+          parser.skipChildren();
+        } else {
+          array.add(readRequired(parser, elements));
+        }
+      }
+      return array;
+    } else {
+      return jsonParser.readTree(parser);
+    }
+  }
+
+  JsonParser createParser(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray()) {
+      return jsonParser.getFactory().createParser(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    } else {
+      return jsonParser.getFactory().createParser(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+  }
+
+  /**
+   * Compiles an expression that can search JSON read from a parser or stream
+   * without first reading the whole document into a tree.
+   *
+   * @see StreamingExpression
+   */
+  public StreamingExpression compileStreaming(String expression) {
+    return new StreamingExpression(this, jsonParser, compile(expression));
+  }
+
   private static class ArrayNodeListWrapper extends AbstractList<JsonNode> {
     private final ArrayNode array;
 
@@ -91,6 +210,31 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     return n.numberValue();
   }
 
+  @Override
+  public double doubleValue(JsonNode n) {
+    return n.doubleValue();
+  }
+
+  @Override
+  public long longValue(JsonNode n) {
+    return n.longValue();
+  }
+
+  @Override
+  public boolean isIntegral(JsonNode n) {
+    return n.isIntegralNumber() && n.canConvertToLong();
+  }
+
+  @Override
+  public boolean stringEquals(JsonNode value, String str) {
+    return str.equals(value.textValue());
+  }
+
+  @Override
+  public int stringLength(JsonNode str) {
+    return str.textValue().length();
+  }
+
   @Override
   public boolean isTruthy(JsonNode value) {
     switch (value.getNodeType()) {
@@ -141,6 +285,33 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     return nodeOrNullNode(value.get(name.textValue()));
   }
 
+  /**
+   * A key for looking up properties directly by name, created when
+   * {@link #getProperty(Object, Object)} has not been overridden.
+   */
+  private static final class DirectPropertyKey extends PropertyKey<JsonNode> {
+    public DirectPropertyKey(String name, JsonNode value) {
+      super(name, value);
+    }
+  }
+
+  @Override
+  public PropertyKey<JsonNode> createPropertyKey(String name) {
+    if (overridesGetProperty(JacksonRuntime.class)) {
+      return super.createPropertyKey(name);
+    } else {
+      return new DirectPropertyKey(name, createString(name));
+    }
+  }
+
+  @Override
+  public JsonNode getProperty(JsonNode value, PropertyKey<JsonNode> key) {
+    if (!(key instanceof DirectPropertyKey)) {
+      return getProperty(value, key.value());
+    }
+    return nodeOrNullNode(value.get(key.name()));
+  }
+
   @Override
   public Collection<JsonNode> getPropertyNames(JsonNode value) {
     if (value.isObject()) {
@@ -0,0 +1,93 @@
+package io.burt.jmespath.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory mapped regions instead of copying it with read
+ * calls.
+ * <p>
+ * The regions are mapped one at a time as reading progresses, so that files
+ * larger than the 2 GB a single mapping can hold can be read, and so that
+ * the parts of a file that are never reached are never mapped. A region is
+ * unmapped when it is garbage collected, there is no way to unmap it earlier.
+ */
+class MappedInputStream extends InputStream {
+  private static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long regionSize;
+  private long regionStart;
+  private MappedByteBuffer region;
+
+  public MappedInputStream(Path path) throws IOException {
+    this(path, DEFAULT_REGION_SIZE);
+  }
+
+  MappedInputStream(Path path, long regionSize) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.regionSize = regionSize;
+  }
+
+  /**
+   * Maps the next region when the current is exhausted, and returns false
+   * when the end of the file has been reached.
+   */
+  private boolean nextRegion() throws IOException {
+    if (region != null && region.hasRemaining()) {
+      return true;
+    }
+    long start = region == null ? 0 : regionStart + region.capacity();
+    if (start >= size) {
+      return false;
+    }
+    regionStart = start;
+    region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return nextRegion() ? region.get() & 0xff : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    } else if (!nextRegion()) {
+      return -1;
+    }
+    int n = Math.min(length, region.remaining());
+    region.get(bytes, offset, n);
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && nextRegion()) {
+      int step = (int) Math.min(n - skipped, region.remaining());
+      region.position(region.position() + step);
+      skipped += step;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return region == null ? 0 : region.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    region = null;
+    channel.close();
+  }
+}
@@ -0,0 +1,349 @@
+package io.burt.jmespath.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.bytecode.CompiledExpression;
+import io.burt.jmespath.node.CurrentNode;
+import io.burt.jmespath.node.IndexNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.ProjectionNode;
+import io.burt.jmespath.node.PropertyNode;
+import io.burt.jmespath.node.SelectionNode;
+import io.burt.jmespath.node.SequenceNode;
+import io.burt.jmespath.node.SliceNode;
+
+/**
+ * An expression that searches JSON read from a {@link JsonParser} without
+ * first building a tree of the whole document.
+ * <p>
+ * The leading property, index, slice, projection and filter steps of the
+ * expression are evaluated directly on the token stream: values that the
+ * expression can't reach are skipped and only the values that are needed are
+ * read into {@link JsonNode}s. The rest of the expression, for example
+ * function calls and multi selects, is evaluated as usual on the values that
+ * were read. Filters need to read each element of the array they filter.
+ * <p>
+ * When searching a stream, a string, bytes or a file reading stops as soon as
+ * the result is known, so for an expression like
+ * <code>Records[0].eventName</code> only the beginning of the document is
+ * read. Files are mapped into memory rather than read into a buffer, and
+ * bytes are parsed without first being decoded, so the strings that are
+ * skipped are never decoded. When an object has the same property more than
+ * once the first is used, while Jackson's tree model uses the last.
+ * <p>
+ * Instances are created with {@link JacksonRuntime#compileStreaming} and are
+ * thread safe.
+ */
+public class StreamingExpression {
+  private final JacksonRuntime runtime;
+  private final ObjectMapper objectMapper;
+  private final Expression<JsonNode> expression;
+  private final Plan plan;
+
+  /**
+   * The steps of a sequence that are evaluated on the token stream, together
+   * with what remains of the sequence from each step, which is what is
+   * evaluated when the value at a step has been read into a tree.
+   */
+  private static class Plan {
+    private final List<Node<JsonNode>> steps;
+    private final List<Expression<JsonNode>> remainders;
+    private final List<Plan> projections;
+
+    public Plan(List<Node<JsonNode>> steps, List<Expression<JsonNode>> remainders, List<Plan> projections) {
+      this.steps = steps;
+      this.remainders = remainders;
+      this.projections = projections;
+    }
+  }
+
+  StreamingExpression(JacksonRuntime runtime, ObjectMapper objectMapper, Expression<JsonNode> expression) {
+    this.runtime = runtime;
+    this.objectMapper = objectMapper;
+    this.expression = expression;
+    Expression<JsonNode> source = expression;
+    if (source instanceof CompiledExpression) {
+      source = ((CompiledExpression<JsonNode>) source).source();
+    }
+    if (source instanceof Node) {
+      this.plan = createPlan(source);
+    } else {
+      this.plan = null;
+    }
+  }
+
+  /**
+   * Returns the expression that is evaluated.
+   */
+  public Expression<JsonNode> expression() {
+    return expression;
+  }
+
+  /**
+   * Searches the JSON value that starts at the current token of the parser, or
+   * at the next token if the parser has no current token. The whole value is
+   * read and the parser is left at its last token, so that it can be used to
+   * search a sequence of values.
+   */
+  public JsonNode search(JsonParser parser) throws IOException {
+    return search(parser, false);
+  }
+
+  /**
+   * Searches the JSON document read from the stream, and stops reading as soon
+   * as the result is known.
+   */
+  public JsonNode search(InputStream input) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+      return search(parser, true);
+    }
+  }
+
+  /**
+   * Searches the JSON document in the string, and stops reading as soon as the
+   * result is known.
+   */
+  public JsonNode search(String input) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+      return search(parser, true);
+    }
+  }
+
+  /**
+   * Searches the JSON document in the bytes, and stops reading as soon as the
+   * result is known. Only the strings that are read are decoded.
+   */
+  public JsonNode search(byte[] input, int offset, int length) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(input, offset, length)) {
+      return search(parser, true);
+    }
+  }
+
+  /**
+   * Searches the JSON document in the remaining bytes of the buffer, without
+   * changing its position, and stops reading as soon as the result is known.
+   */
+  public JsonNode search(ByteBuffer input) throws IOException {
+    try (JsonParser parser = runtime.createParser(input)) {
+      return search(parser, true);
+    }
+  }
+
+  /**
+   * Searches a JSON file by mapping it into memory, and stops reading as soon
+   * as the result is known, so the parts of the file after the result are
+   * never read from disk.
+   */
+  public JsonNode search(Path input) throws IOException {
+    try (InputStream stream = new MappedInputStream(input)) {
+      return search(stream);
+    }
+  }
+
+  private JsonNode search(JsonParser parser, boolean stopEarly) throws IOException {
+    if (!parser.hasCurrentToken() && parser.nextToken() == null) {
+      return expression.search(runtime.createNull());
+    } else if (plan == null) {
+      return expression.search(readTree(parser));
+    } else {
+      return evaluate(parser, plan, 0, stopEarly);
+    }
+  }
+
+  private Plan createPlan(Expression<JsonNode> expression) {
+    List<Node<JsonNode>> steps = new ArrayList<>();
+    flatten(expression, steps);
+    List<Expression<JsonNode>> remainders = new ArrayList<>(steps.size() + 1);
+    List<Plan> projections = new ArrayList<>(steps.size());
+    for (int i = 0; i < steps.size(); i++) {
+      Node<JsonNode> step = steps.get(i);
+      if (i == steps.size() - 1) {
+        remainders.add(step);
+      } else {
+        remainders.add(runtime.nodeFactory().createSequence(new ArrayList<>(steps.subList(i, steps.size()))));
+      }
+      if (step.getClass() == ProjectionNode.class) {
+        projections.add(createPlan(((ProjectionNode<JsonNode>) step).projection()));
+      } else {
+        projections.add(null);
+      }
+    }
+    remainders.add(runtime.nodeFactory().createCurrent());
+    return new Plan(steps, remainders, projections);
+  }
+
+  private void flatten(Expression<JsonNode> expression, List<Node<JsonNode>> steps) {
+    if (expression.getClass() == SequenceNode.class) {
+      for (Node<JsonNode> node : ((SequenceNode<JsonNode>) expression).nodes()) {
+        flatten(node, steps);
+      }
+    } else if (expression.getClass() != CurrentNode.class) {
+      steps.add((Node<JsonNode>) expression);
+    }
+  }
+
+  /**
+   * Evaluates the plan from the step at the specified index on the value that
+   * starts at the current token.
+   * <p>
+   * The parser is left at the last token of the value, unless stopping early
+   * is allowed, in which case evaluation stops as soon as the result is known.
+   */
+  private JsonNode evaluate(JsonParser parser, Plan plan, int index, boolean stopEarly) throws IOException {
+    if (index == plan.steps.size()) {
+      return readTree(parser);
+    }
+    Node<JsonNode> step = plan.steps.get(index);
+    Class<?> stepClass = step.getClass();
+    if (stepClass == PropertyNode.class) {
+      return evaluateProperty(parser, plan, index, ((PropertyNode<JsonNode>) step).rawPropertyName(), stopEarly);
+    } else if (stepClass == IndexNode.class && ((IndexNode<JsonNode>) step).index() >= 0) {
+      return evaluateIndex(parser, plan, index, ((IndexNode<JsonNode>) step).index(), stopEarly);
+    } else if (stepClass == ProjectionNode.class) {
+      return evaluateProjection(parser, plan, index);
+    } else if (stepClass == SelectionNode.class) {
+      return evaluateSelection(parser, plan, index, ((SelectionNode<JsonNode>) step).test());
+    } else if (stepClass == SliceNode.class && isForwardSlice((SliceNode<JsonNode>) step)) {
+      return evaluateSlice(parser, plan, index, (SliceNode<JsonNode>) step);
+    } else {
+      return plan.remainders.get(index).search(readTree(parser));
+    }
+  }
+
+  private JsonNode evaluateProperty(JsonParser parser, Plan plan, int index, String name, boolean stopEarly) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      return skipAndEvaluateNull(parser, plan, index);
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (name.equals(fieldName)) {
+        JsonNode result = evaluate(parser, plan, index + 1, stopEarly);
+        if (!stopEarly) {
+          skipRemaining(parser, JsonToken.END_OBJECT);
+        }
+        return result;
+      }
+      parser.skipChildren();
+    }
+    return plan.remainders.get(index + 1).search(runtime.createNull());
+  }
+
+  private JsonNode evaluateIndex(JsonParser parser, Plan plan, int index, int arrayIndex, boolean stopEarly) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return skipAndEvaluateNull(parser, plan, index);
+    }
+    int i = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (i == arrayIndex) {
+        JsonNode result = evaluate(parser, plan, index + 1, stopEarly);
+        if (!stopEarly) {
+          skipRemaining(parser, JsonToken.END_ARRAY);
+        }
+        return result;
+      }
+      parser.skipChildren();
+      i++;
+    }
+    return plan.remainders.get(index + 1).search(runtime.createNull());
+  }
+
+  private JsonNode evaluateProjection(JsonParser parser, Plan plan, int index) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return skipAndEvaluateNull(parser, plan, index);
+    }
+    Plan projection = plan.projections.get(index);
+    List<JsonNode> results = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      addUnlessNull(results, evaluate(parser, projection, 0, false));
+    }
+    return plan.remainders.get(index + 1).search(runtime.createArray(results));
+  }
+
+  private JsonNode evaluateSelection(JsonParser parser, Plan plan, int index, Expression<JsonNode> test) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return plan.remainders.get(index).search(readTree(parser));
+    }
+    List<JsonNode> selected = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      JsonNode element = readTree(parser);
+      if (runtime.isTruthy(test.search(element))) {
+        selected.add(element);
+      }
+    }
+    return plan.remainders.get(index + 1).search(runtime.createArray(selected));
+  }
+
+  private boolean isForwardSlice(SliceNode<JsonNode> slice) {
+    return slice.start() >= 0 && slice.stop() >= 0 && slice.step() > 0;
+  }
+
+  /**
+   * The parser always puts a projection after a slice, when it is there the
+   * selected elements are evaluated directly with the projection's plan.
+   */
+  private JsonNode evaluateSlice(JsonParser parser, Plan plan, int index, SliceNode<JsonNode> slice) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return plan.remainders.get(index).search(readTree(parser));
+    }
+    Plan projection = null;
+    int nextIndex = index + 1;
+    if (nextIndex < plan.steps.size() && plan.steps.get(nextIndex).getClass() == ProjectionNode.class) {
+      projection = plan.projections.get(nextIndex);
+      nextIndex++;
+    }
+    List<JsonNode> results = new ArrayList<>();
+    int i = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (i >= slice.start() && i < slice.stop() && (i - slice.start()) % slice.step() == 0) {
+        if (projection == null) {
+          results.add(readTree(parser));
+        } else {
+          addUnlessNull(results, evaluate(parser, projection, 0, false));
+        }
+      } else {
+        parser.skipChildren();
+      }
+      i++;
+    }
+    return plan.remainders.get(nextIndex).search(runtime.createArray(results));
+  }
+
+  private void addUnlessNull(List<JsonNode> results, JsonNode result) {
+    if (runtime.typeOf(result) != JmesPathType.NULL) {
+      results.add(result);
+    }
+  }
+
+  private JsonNode skipAndEvaluateNull(JsonParser parser, Plan plan, int index) throws IOException {
+    parser.skipChildren();
+    return plan.remainders.get(index + 1).search(runtime.createNull());
+  }
+
+  private void skipRemaining(JsonParser parser, JsonToken endToken) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != endToken) {
+      if (token == JsonToken.FIELD_NAME) {
+        parser.nextToken();
+      }
+      parser.skipChildren();
+    }
+  }
+
+  private JsonNode readTree(JsonParser parser) throws IOException {
+    JsonNode node = objectMapper.readTree(parser);
+    return node == null ? runtime.createNull() : node;
+  }
+}
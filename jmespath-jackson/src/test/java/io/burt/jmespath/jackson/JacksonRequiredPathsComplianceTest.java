@@ -0,0 +1,33 @@
+package io.burt.jmespath.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.RequiredPaths;
+
+public class JacksonRequiredPathsComplianceTest extends JmesPathComplianceTest<JsonNode> {
+  private final Adapter<JsonNode> runtime = new FilteringJacksonRuntime();
+
+  @Override
+  protected Adapter<JsonNode> runtime() { return runtime; }
+
+  /**
+   * Parses only the required paths of the serialized input before searching,
+   * so that all compliance tests exercise the required path analysis.
+   */
+  private static class FilteringJacksonRuntime extends JacksonRuntime {
+    @Override
+    public Expression<JsonNode> compile(String expression) {
+      final Expression<JsonNode> compiledExpression = super.compile(expression);
+      final RequiredPaths paths = RequiredPaths.of(compiledExpression);
+      return new Expression<JsonNode>() {
+        @Override
+        public JsonNode search(JsonNode input) {
+          return compiledExpression.search(parseString(input.toString(), paths));
+        }
+      };
+    }
+  }
+}
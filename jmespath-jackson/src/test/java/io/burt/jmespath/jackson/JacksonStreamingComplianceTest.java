@@ -0,0 +1,40 @@
+package io.burt.jmespath.jackson;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+public class JacksonStreamingComplianceTest extends JmesPathComplianceTest<JsonNode> {
+  private final Adapter<JsonNode> runtime = new StreamingJacksonRuntime();
+
+  @Override
+  protected Adapter<JsonNode> runtime() { return runtime; }
+
+  /**
+   * Searches the serialized input with a streaming expression, so that all
+   * compliance tests exercise the streaming evaluation.
+   */
+  private static class StreamingJacksonRuntime extends JacksonRuntime {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public Expression<JsonNode> compile(String expression) {
+      final StreamingExpression streamingExpression = new StreamingExpression(this, objectMapper, super.compile(expression));
+      return new Expression<JsonNode>() {
+        @Override
+        public JsonNode search(JsonNode input) {
+          try {
+            return streamingExpression.search(input.toString());
+          } catch (IOException ioe) {
+            throw new IllegalStateException(ioe);
+          }
+        }
+      };
+    }
+  }
+}
@@ -1,12 +1,62 @@
 package io.burt.jmespath.jackson;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.RequiredPaths;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 public class JacksonTest extends JmesPathRuntimeTest<JsonNode> {
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Override
   protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
+
+  @Test
+  public void parseByteBufferParsesTheRemainingBytes() {
+    JacksonRuntime runtime = (JacksonRuntime) runtime();
+    ByteBuffer buffer = ByteBuffer.wrap("[1, {\"a\": 2}]".getBytes(StandardCharsets.UTF_8));
+    buffer.position(4);
+    assertThat(runtime.parseByteBuffer(buffer), is(parse("{\"a\": 2}")));
+    assertThat(buffer.position(), is(4));
+  }
+
+  @Test
+  public void parseFileParsesTheWholeFile() throws IOException {
+    JacksonRuntime runtime = (JacksonRuntime) runtime();
+    Path path = temporaryFolder.newFile().toPath();
+    Files.write(path, "{\"a\": [1, 2]}".getBytes(StandardCharsets.UTF_8));
+    assertThat(runtime.parseFile(path), is(parse("{\"a\": [1, 2]}")));
+  }
+
+  @Test
+  public void parsingTheRequiredPathsOfSlicedObjectsGivesTheSameResults() {
+    JacksonRuntime runtime = (JacksonRuntime) runtime();
+    String[][] cases = {
+      {"@[2:]", "{\"a\": 0.5, \"b\": \"xy\", \"c\": true}"},
+      {"@[::1]", "{\"a\": {}}"},
+      {"a[1:].b", "{\"a\": {\"x\": {\"b\": 1, \"c\": 2}, \"y\": {\"b\": 3}}}"},
+    };
+    for (String[] c : cases) {
+      Expression<JsonNode> expression = runtime.compile(c[0]);
+      JsonNode filtered = runtime.parseString(c[1], RequiredPaths.of(expression));
+      assertThat(c[0], expression.search(filtered), is(expression.search(parse(c[1]))));
+    }
+  }
 }
@@ -0,0 +1,71 @@
+package io.burt.jmespath.jackson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class MappedInputStreamTest {
+  private static final String CONTENTS = "{\"numbers\": [1, 2, 3, 4, 5, 6, 7, 8, 9]}";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file(String contents) throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  private String readAll(InputStream input, int chunkSize) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    byte[] chunk = new byte[chunkSize];
+    int n;
+    while ((n = input.read(chunk, 0, chunk.length)) != -1) {
+      output.write(chunk, 0, n);
+    }
+    return new String(output.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void readsFilesThatSpanManyRegions() throws IOException {
+    try (InputStream input = new MappedInputStream(file(CONTENTS), 7)) {
+      assertThat(readAll(input, 5), is(CONTENTS));
+    }
+  }
+
+  @Test
+  public void readsSingleBytesAcrossRegions() throws IOException {
+    try (InputStream input = new MappedInputStream(file("abcdef"), 4)) {
+      assertThat(input.read(), is((int) 'a'));
+      assertThat(input.skip(4), is(4L));
+      assertThat(input.read(), is((int) 'f'));
+      assertThat(input.read(), is(-1));
+    }
+  }
+
+  @Test
+  public void readsEmptyFiles() throws IOException {
+    try (InputStream input = new MappedInputStream(file(""))) {
+      assertThat(input.read(), is(-1));
+      assertThat(input.read(new byte[4], 0, 4), is(-1));
+    }
+  }
+
+  @Test
+  public void parsesFilesThatSpanManyRegions() throws IOException {
+    JacksonRuntime runtime = new JacksonRuntime();
+    try (InputStream input = new MappedInputStream(file(CONTENTS), 3)) {
+      assertThat(runtime.compileStreaming("numbers[7]").search(input).asInt(), is(8));
+    }
+  }
+}
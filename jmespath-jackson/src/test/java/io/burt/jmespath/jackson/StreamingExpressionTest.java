@@ -0,0 +1,168 @@
+package io.burt.jmespath.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.burt.jmespath.RuntimeConfiguration;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class StreamingExpressionTest {
+  private final JacksonRuntime runtime = new JacksonRuntime();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final String input =
+    "{" +
+      "\"name\": \"Alice\"," +
+      "\"numbers\": [3, 1, 2, null]," +
+      "\"people\": [" +
+        "{\"name\": \"Bob\", \"age\": 45, \"tags\": [\"a\", \"b\"]}," +
+        "{\"name\": \"Carol\", \"age\": 32, \"tags\": []}," +
+        "{\"name\": \"Dave\", \"age\": 21}" +
+      "]," +
+      "\"colors\": {\"sky\": \"blue\", \"grass\": \"green\"}" +
+    "}";
+
+  private void assertSameResult(String expression) throws IOException {
+    JsonNode expected = runtime.compile(expression).search(runtime.parseString(input));
+    assertThat(runtime.compileStreaming(expression).search(input), is(expected));
+  }
+
+  @Test
+  public void searchesProperties() throws IOException {
+    assertSameResult("name");
+    assertSameResult("people");
+    assertSameResult("colors.sky");
+    assertSameResult("missing.name");
+    assertSameResult("name.first");
+  }
+
+  @Test
+  public void searchesIndexes() throws IOException {
+    assertSameResult("people[1].name");
+    assertSameResult("people[3].name");
+    assertSameResult("people[-1].name");
+    assertSameResult("name[0]");
+    assertSameResult("numbers[3]");
+  }
+
+  @Test
+  public void searchesSlices() throws IOException {
+    assertSameResult("people[1:].name");
+    assertSameResult("people[:2].tags[0]");
+    assertSameResult("numbers[::2]");
+    assertSameResult("numbers[::-1]");
+    assertSameResult("numbers[-2:]");
+    assertSameResult("name[1:]");
+  }
+
+  @Test
+  public void searchesProjections() throws IOException {
+    assertSameResult("people[*].name");
+    assertSameResult("people[*].tags[0]");
+    assertSameResult("people[*].tags[*]");
+    assertSameResult("people[].tags[]");
+    assertSameResult("colors.*");
+    assertSameResult("people[*].name | [0]");
+    assertSameResult("name[*]");
+  }
+
+  @Test
+  public void searchesSelections() throws IOException {
+    assertSameResult("people[?age > `30`].name");
+    assertSameResult("people[?tags].name | length(@)");
+    assertSameResult("name[?age]");
+  }
+
+  @Test
+  public void searchesWithFunctionsAndMultiSelects() throws IOException {
+    assertSameResult("people[*].{n: name, a: age}");
+    assertSameResult("max_by(people, &age).name");
+    assertSameResult("length(people[*].tags[])");
+  }
+
+  @Test
+  public void searchesWithCompiledExpressions() throws IOException {
+    JacksonRuntime bytecodeRuntime = new JacksonRuntime(RuntimeConfiguration.builder().withBytecodeCompilation(true).withExpressionOptimization(true).build());
+    JsonNode expected = runtime.compile("people[?age > `30`].name").search(runtime.parseString(input));
+    assertThat(bytecodeRuntime.compileStreaming("people[?age > `30`].name").search(input), is(expected));
+  }
+
+  @Test
+  public void searchesAnEmptyInputAsNull() throws IOException {
+    assertThat(runtime.compileStreaming("foo").search("").isNull(), is(true));
+  }
+
+  @Test
+  public void searchesAStream() throws IOException {
+    InputStream stream = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    assertThat(runtime.compileStreaming("people[0].name").search(stream).asText(), is("Bob"));
+  }
+
+  @Test
+  public void searchesBytes() throws IOException {
+    byte[] bytes = ("xx" + input + "xx").getBytes(StandardCharsets.UTF_8);
+    assertThat(runtime.compileStreaming("people[0].name").search(bytes, 2, bytes.length - 4).asText(), is("Bob"));
+  }
+
+  @Test
+  public void searchesByteBuffers() throws IOException {
+    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer heapBuffer = ByteBuffer.allocate(bytes.length + 2);
+    heapBuffer.put((byte) ' ').put(bytes).flip().position(1);
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+    directBuffer.put(bytes).flip();
+    StreamingExpression expression = runtime.compileStreaming("people[1].name");
+    assertThat(expression.search(heapBuffer).asText(), is("Carol"));
+    assertThat(expression.search(directBuffer).asText(), is("Carol"));
+    assertThat(heapBuffer.position(), is(1));
+    assertThat(directBuffer.position(), is(0));
+  }
+
+  @Test
+  public void searchesFiles() throws IOException {
+    Path path = temporaryFolder.newFile("input.json").toPath();
+    Files.write(path, input.getBytes(StandardCharsets.UTF_8));
+    assertThat(runtime.compileStreaming("colors.grass").search(path).asText(), is("green"));
+  }
+
+  @Test
+  public void stopsReadingWhenTheResultIsKnown() throws IOException {
+    assertThat(runtime.compileStreaming("numbers[1]").search("{\"numbers\": [3, 1, 2").asInt(), is(1));
+  }
+
+  @Test
+  public void searchesValuesInTheMiddleOfADocument() throws IOException {
+    JsonParser parser = objectMapper.getFactory().createParser("[{\"a\": {\"b\": 1, \"c\": 2}, \"d\": 3}, {\"a\": {\"b\": 4}}]");
+    StreamingExpression expression = runtime.compileStreaming("a.b");
+    parser.nextToken();
+    parser.nextToken();
+    assertThat(expression.search(parser).asInt(), is(1));
+    parser.nextToken();
+    assertThat(expression.search(parser).asInt(), is(4));
+    assertThat(parser.nextToken(), is(JsonToken.END_ARRAY));
+  }
+
+  @Test
+  public void usesTheFirstOfDuplicateProperties() throws IOException {
+    assertThat(runtime.compileStreaming("a").search("{\"a\": 1, \"a\": 2}").asInt(), is(1));
+  }
+}
@@ -11,6 +11,7 @@ import java.util.Set;
 
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
 
 import javax.json.Json;
@@ -100,6 +101,40 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
     return (n.getValueType() == NUMBER) ? ((JsonNumber) n).numberValue() : null;
   }
 
+  @Override
+  public double doubleValue(JsonValue n) {
+    return ((JsonNumber) n).doubleValue();
+  }
+
+  @Override
+  public long longValue(JsonValue n) {
+    return ((JsonNumber) n).longValue();
+  }
+
+  @Override
+  public boolean isIntegral(JsonValue n) {
+    JsonNumber number = (JsonNumber) n;
+    if (!number.isIntegral()) {
+      return false;
+    }
+    Number value = number.numberValue();
+    if (value instanceof Long || value instanceof Integer) {
+      return true;
+    } else {
+      return number.bigIntegerValue().bitLength() < 64;
+    }
+  }
+
+  @Override
+  public boolean stringEquals(JsonValue value, String str) {
+    return value.getValueType() == STRING && str.equals(((JsonString) value).getString());
+  }
+
+  @Override
+  public int stringLength(JsonValue str) {
+    return ((JsonString) str).getString().length();
+  }
+
   @Override
   public boolean isTruthy(JsonValue value) {
     switch (value.getValueType()) {
@@ -150,6 +185,37 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
     }
   }
 
+  /**
+   * A key for looking up properties directly by name, created when
+   * {@link #getProperty(Object, Object)} has not been overridden.
+   */
+  private static final class DirectPropertyKey extends PropertyKey<JsonValue> {
+    public DirectPropertyKey(String name, JsonValue value) {
+      super(name, value);
+    }
+  }
+
+  @Override
+  public PropertyKey<JsonValue> createPropertyKey(String name) {
+    if (overridesGetProperty(JsonpRuntime.class)) {
+      return super.createPropertyKey(name);
+    } else {
+      return new DirectPropertyKey(name, createString(name));
+    }
+  }
+
+  @Override
+  public JsonValue getProperty(JsonValue value, PropertyKey<JsonValue> key) {
+    if (!(key instanceof DirectPropertyKey)) {
+      return getProperty(value, key.value());
+    }
+    if (value.getValueType() == OBJECT) {
+      return nodeOrNullNode(((JsonObject) value).get(key.name()));
+    } else {
+      return JsonValue.NULL;
+    }
+  }
+
   @Override
   public Collection<JsonValue> getPropertyNames(JsonValue value) {
     if (value.getValueType() == OBJECT) {
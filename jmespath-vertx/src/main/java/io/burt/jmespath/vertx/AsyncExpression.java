@@ -0,0 +1,209 @@
+package io.burt.jmespath.vertx;
+
+import io.burt.jmespath.Expression;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * An expression that is evaluated without blocking the event loop.
+ * <p>
+ * Small documents are searched directly on the calling thread, while large
+ * documents are searched on a worker thread. A document is large when it is a
+ * buffer of at least <code>sizeThreshold</code> bytes, or a parsed document
+ * with at least <code>sizeThreshold</code> values.
+ * <p>
+ * Streams of newline delimited JSON records can be searched with
+ * {@link #searchEach}, which returns a stream of the results that can be
+ * paused and piped like any other stream.
+ * <p>
+ * Instances are created with {@link VertxRuntime#compileAsync} and are
+ * thread safe.
+ */
+public class AsyncExpression {
+    private final Vertx vertx;
+    private final Expression<Object> expression;
+    private final int sizeThreshold;
+
+    AsyncExpression(Vertx vertx, Expression<Object> expression, int sizeThreshold) {
+        this.vertx = vertx;
+        this.expression = expression;
+        this.sizeThreshold = sizeThreshold;
+    }
+
+    /**
+     * Returns the expression that is evaluated.
+     */
+    public Expression<Object> expression() {
+        return expression;
+    }
+
+    /**
+     * Searches a parsed document, on a worker thread when it is large.
+     */
+    public Future<Object> search(final Object input) {
+        Callable<Object> search = new Callable<Object>() {
+            @Override
+            public Object call() {
+                return expression.search(input);
+            }
+        };
+        if (countValues(input, sizeThreshold) >= sizeThreshold) {
+            return vertx.executeBlocking(search, false);
+        } else {
+            return call(search);
+        }
+    }
+
+    /**
+     * Parses and searches a JSON document, on a worker thread when it is large.
+     */
+    public Future<Object> search(final Buffer input) {
+        Callable<Object> search = new Callable<Object>() {
+            @Override
+            public Object call() {
+                return expression.search(Json.decodeValue(input));
+            }
+        };
+        if (input.length() >= sizeThreshold) {
+            return vertx.executeBlocking(search, false);
+        } else {
+            return call(search);
+        }
+    }
+
+    /**
+     * Searches each record of a stream of newline delimited JSON records and
+     * returns a stream of the results, in the same order as the records.
+     * <p>
+     * Pausing the returned stream, or fetching from it, pauses and fetches
+     * from the input stream. Blank lines are skipped. Records that can't be
+     * parsed or searched are reported to the exception handler of the returned
+     * stream, and the following records are searched as usual. Neither counts
+     * towards the amount fetched. Records are searched on the thread that
+     * delivers them, so they should be small.
+     */
+    public ReadStream<Object> searchEach(ReadStream<Buffer> input) {
+        return new RecordSearchStream(RecordParser.newDelimited("\n", input));
+    }
+
+    private Future<Object> call(Callable<Object> search) {
+        try {
+            return Future.succeededFuture(search.call());
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Counts the values of a parsed document, but stops counting when the
+     * limit has been reached.
+     */
+    private static int countValues(Object value, int limit) {
+        int count = 1;
+        Iterator<?> children = null;
+        if (value instanceof JsonObject) {
+            children = ((JsonObject) value).getMap().values().iterator();
+        } else if (value instanceof JsonArray) {
+            children = ((JsonArray) value).getList().iterator();
+        } else if (value instanceof Map) {
+            children = ((Map<?, ?>) value).values().iterator();
+        } else if (value instanceof List) {
+            children = ((List<?>) value).iterator();
+        }
+        while (children != null && children.hasNext() && count < limit) {
+            count += countValues(children.next(), limit - count);
+        }
+        return count;
+    }
+
+    private class RecordSearchStream implements ReadStream<Object> {
+        private final RecordParser records;
+        private Handler<Throwable> exceptionHandler;
+
+        public RecordSearchStream(RecordParser records) {
+            this.records = records;
+        }
+
+        @Override
+        public ReadStream<Object> exceptionHandler(Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            records.exceptionHandler(handler);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> handler(final Handler<Object> handler) {
+            if (handler == null) {
+                records.handler(null);
+            } else {
+                records.handler(new Handler<Buffer>() {
+                    @Override
+                    public void handle(Buffer record) {
+                        if (isBlank(record)) {
+                            records.fetch(1);
+                            return;
+                        }
+                        Object result;
+                        try {
+                            result = expression.search(Json.decodeValue(record));
+                        } catch (RuntimeException e) {
+                            if (exceptionHandler == null) {
+                                throw e;
+                            }
+                            exceptionHandler.handle(e);
+                            records.fetch(1);
+                            return;
+                        }
+                        handler.handle(result);
+                    }
+                });
+            }
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> pause() {
+            records.pause();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> resume() {
+            records.resume();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> fetch(long amount) {
+            records.fetch(amount);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> endHandler(Handler<Void> endHandler) {
+            records.endHandler(endHandler);
+            return this;
+        }
+
+        private boolean isBlank(Buffer record) {
+            for (int i = 0; i < record.length(); i++) {
+                if (!Character.isWhitespace(record.getByte(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
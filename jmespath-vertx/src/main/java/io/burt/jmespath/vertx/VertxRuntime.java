@@ -1,8 +1,10 @@
 package io.burt.jmespath.vertx;
 
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.PropertyKey;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.jcf.JcfRuntime;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -19,6 +21,8 @@ import static io.burt.jmespath.JmesPathType.OBJECT;
 
 
 public class VertxRuntime extends JcfRuntime {
+    private static final int DEFAULT_ASYNC_SIZE_THRESHOLD = 65536;
+
     public VertxRuntime() {
         this(RuntimeConfiguration.defaultConfiguration());
     }
@@ -32,6 +36,29 @@ public class VertxRuntime extends JcfRuntime {
         return Json.decodeValue(str);
     }
 
+    /**
+     * Compiles an expression that searches documents without blocking the
+     * event loop, searching documents with at least 65536 values, or buffers
+     * of at least 65536 bytes, on a worker thread.
+     *
+     * @see AsyncExpression
+     */
+    public AsyncExpression compileAsync(Vertx vertx, String expression) {
+        return compileAsync(vertx, expression, DEFAULT_ASYNC_SIZE_THRESHOLD);
+    }
+
+    /**
+     * Compiles an expression that searches documents without blocking the
+     * event loop, searching documents with at least <code>sizeThreshold</code>
+     * values, or buffers of at least <code>sizeThreshold</code> bytes, on a
+     * worker thread.
+     *
+     * @see AsyncExpression
+     */
+    public AsyncExpression compileAsync(Vertx vertx, String expression, int sizeThreshold) {
+        return new AsyncExpression(vertx, compile(expression), sizeThreshold);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<Object> toList(final Object value) {
@@ -118,6 +145,37 @@ public class VertxRuntime extends JcfRuntime {
         }
     }
 
+    /**
+     * A key for looking up properties directly by name, created when
+     * {@link #getProperty(Object, Object)} has not been overridden.
+     */
+    private static final class DirectPropertyKey extends PropertyKey<Object> {
+        public DirectPropertyKey(String name, Object value) {
+            super(name, value);
+        }
+    }
+
+    @Override
+    public PropertyKey<Object> createPropertyKey(String name) {
+        if (overridesGetProperty(VertxRuntime.class)) {
+            return super.createPropertyKey(name);
+        } else {
+            return new DirectPropertyKey(name, createString(name));
+        }
+    }
+
+    @Override
+    public Object getProperty(Object value, PropertyKey<Object> key) {
+        if (!(key instanceof DirectPropertyKey)) {
+            return getProperty(value, key.value());
+        }
+        if (value instanceof JsonObject) {
+            return ((JsonObject) value).getValue(key.name());
+        } else {
+            return null;
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Collection<Object> getPropertyNames(Object value) {
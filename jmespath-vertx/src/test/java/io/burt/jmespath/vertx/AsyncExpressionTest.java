@@ -0,0 +1,227 @@
+package io.burt.jmespath.vertx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class AsyncExpressionTest {
+  private final Vertx vertx = Vertx.vertx();
+  private final VertxRuntime runtime = new VertxRuntime();
+
+  @After
+  public void tearDown() throws Exception {
+    await(vertx.close());
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    try {
+      return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  private static class TestStream implements ReadStream<Buffer> {
+    private final List<Buffer> chunks = new ArrayList<>();
+    private Handler<Buffer> handler;
+    private Handler<Void> endHandler;
+    private long demand = Long.MAX_VALUE;
+    private boolean ended;
+    private boolean draining;
+
+    public TestStream(String... chunks) {
+      for (String chunk : chunks) {
+        this.chunks.add(Buffer.buffer(chunk));
+      }
+    }
+
+    private void drain() {
+      if (draining) {
+        return;
+      }
+      draining = true;
+      while (demand > 0 && !chunks.isEmpty() && handler != null) {
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        handler.handle(chunks.remove(0));
+      }
+      draining = false;
+      if (chunks.isEmpty() && demand > 0 && !ended && endHandler != null) {
+        ended = true;
+        endHandler.handle(null);
+      }
+    }
+
+    @Override
+    public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+      this.handler = handler;
+      drain();
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> pause() {
+      demand = 0;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> resume() {
+      demand = Long.MAX_VALUE;
+      drain();
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> fetch(long amount) {
+      demand = demand + amount < 0 ? Long.MAX_VALUE : demand + amount;
+      drain();
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+      this.endHandler = endHandler;
+      return this;
+    }
+  }
+
+  @Test
+  public void searchesSmallDocumentsOnTheCallingThread() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "a.b");
+    Future<Object> result = expression.search(new JsonObject().put("a", new JsonObject().put("b", 3)));
+    assertThat(result.isComplete(), is(true));
+    assertThat(await(result), is((Object) 3));
+  }
+
+  @Test
+  public void searchesLargeDocumentsOnAWorkerThread() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "length(@)", 10);
+    final String[] thread = new String[1];
+    JsonArray input = new JsonArray();
+    for (int i = 0; i < 20; i++) {
+      input.add(i);
+    }
+    Future<Object> result = expression.search(input).onSuccess(new Handler<Object>() {
+      @Override
+      public void handle(Object value) {
+        thread[0] = Thread.currentThread().getName();
+      }
+    });
+    assertThat(await(result), is((Object) 20L));
+    assertThat(thread[0], is(not(Thread.currentThread().getName())));
+  }
+
+  @Test
+  public void parsesAndSearchesBuffers() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "foo[1]", 8);
+    assertThat(await(expression.search(Buffer.buffer("{\"foo\":[1,2]}"))), is((Object) 2));
+    assertThat(await(expression.search(Buffer.buffer("[]"))), is((Object) null));
+  }
+
+  @Test
+  public void failsWhenTheBufferIsNotJson() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "foo");
+    try {
+      await(expression.search(Buffer.buffer("{\"foo\":")));
+      fail("Expected the search to fail");
+    } catch (RuntimeException e) {
+      assertThat(e, is(instanceOf(DecodeException.class)));
+    }
+  }
+
+  @Test
+  public void searchesEachRecordOfAStream() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "a");
+    TestStream input = new TestStream("{\"a\":1}\n{\"a\"", ":2}\n\n{\"a\":3}\n");
+    final List<Object> results = new ArrayList<>();
+    final boolean[] ended = new boolean[1];
+    ReadStream<Object> output = expression.searchEach(input);
+    output.endHandler(new Handler<Void>() {
+      @Override
+      public void handle(Void v) {
+        ended[0] = true;
+      }
+    });
+    output.handler(new Handler<Object>() {
+      @Override
+      public void handle(Object result) {
+        results.add(result);
+      }
+    });
+    assertThat(results, is(Arrays.<Object>asList(1, 2, 3)));
+    assertThat(ended[0], is(true));
+  }
+
+  @Test
+  public void searchesAsManyRecordsAsAreFetched() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "a");
+    TestStream input = new TestStream("{\"a\":1}\n\n{\"a\":2}\n{\"a\":3}\n");
+    final List<Object> results = new ArrayList<>();
+    ReadStream<Object> output = expression.searchEach(input);
+    output.pause();
+    output.handler(new Handler<Object>() {
+      @Override
+      public void handle(Object result) {
+        results.add(result);
+      }
+    });
+    assertThat(results.size(), is(0));
+    output.fetch(1);
+    assertThat(results, is(Arrays.<Object>asList(1)));
+    output.fetch(1);
+    assertThat(results, is(Arrays.<Object>asList(1, 2)));
+    output.resume();
+    assertThat(results, is(Arrays.<Object>asList(1, 2, 3)));
+  }
+
+  @Test
+  public void reportsRecordsThatCannotBeParsedAndContinues() throws Exception {
+    AsyncExpression expression = runtime.compileAsync(vertx, "a");
+    TestStream input = new TestStream("{\"a\":1}\n{\"a\n{\"a\":3}\n");
+    final List<Object> results = new ArrayList<>();
+    final List<Throwable> errors = new ArrayList<>();
+    ReadStream<Object> output = expression.searchEach(input);
+    output.exceptionHandler(new Handler<Throwable>() {
+      @Override
+      public void handle(Throwable e) {
+        errors.add(e);
+      }
+    });
+    output.handler(new Handler<Object>() {
+      @Override
+      public void handle(Object result) {
+        results.add(result);
+      }
+    });
+    assertThat(results, is(Arrays.<Object>asList(1, 3)));
+    assertThat(errors.size(), is(1));
+    assertThat(errors.get(0), is(instanceOf(DecodeException.class)));
+  }
+}